@@ -0,0 +1,116 @@
+package com.example.demo3;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of SafetyRules over a synthetic forecast grid, in points per microsecond.
+ * Compares the scalar batch loop, the Vector API kernel, point-by-point evaluation through
+ * the engine and a hand-written if-chain as the plain baseline.
+ * Run with: mvn -P benchmark verify
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@OperationsPerInvocation(SafetyRulesBenchmark.POINTS)
+public class SafetyRulesBenchmark {
+
+    static final int POINTS = 1_000_000;
+
+    private SafetyRules rules;
+    private double[][] columns;
+    private byte[] levels;
+    private double[] point;
+
+    @Setup
+    public void setUp() {
+        rules = SafetyRules.getInstance();
+        columns = syntheticGrid(POINTS);
+        levels = new byte[POINTS];
+        point = new double[SafetyRules.INPUT_COUNT];
+    }
+
+    @Benchmark
+    public byte[] batchScalar() {
+        rules.evaluateScalar(columns, POINTS, levels);
+        return levels;
+    }
+
+    @Benchmark
+    public byte[] batchVector() {
+        if (!SafetyRules.VECTORIZED) {
+            throw new IllegalStateException("jdk.incubator.vector is not in the boot layer");
+        }
+        rules.evaluateVector(columns, POINTS, levels);
+        return levels;
+    }
+
+    @Benchmark
+    public long single() {
+        long dangerous = 0;
+        for (int i = 0; i < POINTS; i++) {
+            for (int input = 0; input < SafetyRules.INPUT_COUNT; input++) {
+                point[input] = columns[input][i];
+            }
+            if (rules.level(point) == SafetyRules.DANGER) {
+                dangerous++;
+            }
+        }
+        return dangerous;
+    }
+
+    /**
+     * The scalar loop the engine replaced: fixed thresholds in an if-chain per point
+     */
+    @Benchmark
+    public long ifChain() {
+        long dangerous = 0;
+        for (int i = 0; i < POINTS; i++) {
+            double wave = columns[SafetyRules.WAVE][i];
+            double wind = columns[SafetyRules.WIND][i];
+            double visibility = columns[SafetyRules.VISIBILITY][i];
+            double rain = columns[SafetyRules.RAIN][i];
+            double windWave = columns[SafetyRules.WIND_WAVE][i];
+            if (wave > 3.0 || wind > 25.0 || visibility < 2.0 || rain > 10.0 || windWave > 2.5) {
+                levels[i] = SafetyRules.DANGER;
+                dangerous++;
+            } else if (wave > 2.1 || wind > 17.5 || visibility < 3.0 || rain > 7.0 || windWave > 1.75) {
+                levels[i] = SafetyRules.CAUTION;
+            } else {
+                levels[i] = SafetyRules.SAFE;
+            }
+        }
+        return dangerous;
+    }
+
+    /**
+     * Mostly calm conditions with tails reaching past the limits, so every level occurs
+     */
+    private static double[][] syntheticGrid(int points) {
+        Random random = new Random(42);
+        double[][] columns = new double[SafetyRules.INPUT_COUNT][points];
+        for (int i = 0; i < points; i++) {
+            columns[SafetyRules.WAVE][i] = Math.abs(1.2 + random.nextGaussian() * 0.8);
+            columns[SafetyRules.WIND][i] = Math.abs(12 + random.nextGaussian() * 6);
+            columns[SafetyRules.VISIBILITY][i] = Math.abs(9 + random.nextGaussian() * 3.5);
+            columns[SafetyRules.RAIN][i] = Math.abs(random.nextGaussian() * 4);
+            columns[SafetyRules.WIND_WAVE][i] = Math.abs(0.6 + random.nextGaussian() * 0.6);
+        }
+        return columns;
+    }
+}
@@ -8,7 +8,7 @@ public class DBConnection {
         Connection conn = null;
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
-            conn = DriverManager.getConnection("jdbc:mysql://localhost:3306/studentdb", "root", "1234");
+            conn = DriverManager.getConnection("jdbc:mysql://localhost:3306/studentdb?rewriteBatchedStatements=true", "root", "1234");
             System.out.println("✅ Database Connected Successfully!");
         } catch (Exception e) {
             System.out.println("❌ Database Connection Failed!");
@@ -0,0 +1,53 @@
+package Model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Shared dictionaries for the repeated text columns of fish_price and fishman.
+ * Models carry the ids next to their strings, so filters, indexes and aggregates
+ * compare ints instead of strings. Species and harbor ids are persisted because the
+ * price archive stores them on disk; the other dictionaries live for the session.
+ */
+public final class Dictionaries {
+
+    private static final StringDictionary SPECIES = persisted("species.dict");
+    private static final StringDictionary HARBORS = persisted("harbors.dict");
+    private static final StringDictionary STATUS = new StringDictionary();
+    private static final StringDictionary ADDRESS = new StringDictionary();
+    private static final StringDictionary FISHING_DAY = new StringDictionary();
+
+    private Dictionaries() {
+    }
+
+    public static StringDictionary species() { return SPECIES; }
+    public static StringDictionary harbors() { return HARBORS; }
+    public static StringDictionary status() { return STATUS; }
+    public static StringDictionary address() { return ADDRESS; }
+    public static StringDictionary fishingDay() { return FISHING_DAY; }
+
+    /**
+     * Assign ids to the text columns of a fish_price row. A new species or harbor is appended
+     * to its dictionary file, so ingestion and seed threads call this before building the
+     * FishPrice; the model itself only looks ids up.
+     */
+    public static void registerPrice(String species, String harbor, String status) {
+        SPECIES.idOf(species);
+        HARBORS.idOf(harbor);
+        STATUS.idOf(status);
+    }
+
+    private static StringDictionary persisted(String fileName) {
+        Path dir = Paths.get(System.getProperty("fisheries.dictionaryDir",
+                System.getProperty("user.home") + "/FisheriesData/dictionaries"));
+        try {
+            Files.createDirectories(dir);
+            return new StringDictionary(dir.resolve(fileName));
+        } catch (IOException e) {
+            System.out.println("Dictionary " + fileName + " kept in memory only: " + e.getMessage());
+            return new StringDictionary();
+        }
+    }
+}
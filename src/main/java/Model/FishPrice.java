@@ -16,14 +16,23 @@ public class FishPrice {
     private final SimpleStringProperty status;
     private final SimpleObjectProperty<LocalDate> date;
     private final  SimpleStringProperty images;
+    // Dictionary ids of the repeated text columns, used for filters and grouping. The constructor
+    // only looks them up (ids are assigned by Dictionaries.registerPrice on ingestion threads),
+    // so a name registered after construction is resolved on first use; -1 until then.
+    private int speciesId;
+    private int placeId;
+    private int statusId;
     public FishPrice(int id, String fishName, String fishDetails, double todayPrice,
                      String place, String status, LocalDate date, String images) {
         this.id = new SimpleIntegerProperty(id);
-        this.fishName = new SimpleStringProperty(fishName);
+        this.fishName = new SimpleStringProperty(Dictionaries.species().intern(fishName));
         this.fishDetails = new SimpleStringProperty(fishDetails);
         this.todayPrice = new SimpleDoubleProperty(todayPrice);
-        this.place = new SimpleStringProperty(place);
-        this.status = new SimpleStringProperty(status);
+        this.place = new SimpleStringProperty(Dictionaries.harbors().intern(place));
+        this.status = new SimpleStringProperty(Dictionaries.status().intern(status));
+        this.speciesId = Dictionaries.species().find(fishName);
+        this.placeId = Dictionaries.harbors().find(place);
+        this.statusId = Dictionaries.status().find(status);
         this.date = new SimpleObjectProperty<>(date);
         this.images = new SimpleStringProperty(images);
     }
@@ -36,5 +45,23 @@ public class FishPrice {
     public String getStatus() { return status.get(); }
     public LocalDate getDate() { return date.get(); }
     public  String getImage(){return  images.get();}
+    public int getSpeciesId() {
+        if (speciesId < 0) {
+            speciesId = Dictionaries.species().find(getFishName());
+        }
+        return speciesId;
+    }
+    public int getPlaceId() {
+        if (placeId < 0) {
+            placeId = Dictionaries.harbors().find(getPlace());
+        }
+        return placeId;
+    }
+    public int getStatusId() {
+        if (statusId < 0) {
+            statusId = Dictionaries.status().find(getStatus());
+        }
+        return statusId;
+    }
 }
 
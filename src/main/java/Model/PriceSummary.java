@@ -0,0 +1,23 @@
+package Model;
+
+public class PriceSummary {
+    private final String fishName;
+    private final double minPrice;
+    private final double maxPrice;
+    private final double avgPrice;
+    private final int count;
+
+    public PriceSummary(String fishName, double minPrice, double maxPrice, double avgPrice, int count) {
+        this.fishName = fishName;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.avgPrice = avgPrice;
+        this.count = count;
+    }
+
+    public String getFishName() { return fishName; }
+    public double getMinPrice() { return minPrice; }
+    public double getMaxPrice() { return maxPrice; }
+    public double getAvgPrice() { return avgPrice; }
+    public int getCount() { return count; }
+}
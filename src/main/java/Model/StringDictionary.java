@@ -0,0 +1,133 @@
+package Model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only mapping between names and dense int ids.
+ * Lookups ignore case and surrounding spaces; the first spelling seen is kept for display.
+ * When backed by a file, each new name is appended as one line so ids survive restarts;
+ * backslashes and line breaks in names are escaped so a name never spans lines.
+ */
+public class StringDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final Path file;
+    // Names already written to the file; a failed append is retried with the next new name
+    private int persisted;
+
+    /**
+     * In-memory dictionary
+     */
+    public StringDictionary() {
+        this.file = null;
+    }
+
+    /**
+     * Dictionary persisted to a text file, one escaped name per line in id order
+     */
+    public StringDictionary(Path file) throws IOException {
+        this.file = file;
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String name = unescape(line);
+                ids.putIfAbsent(normalize(name), names.size());
+                names.add(name);
+            }
+        }
+        persisted = names.size();
+    }
+
+    /**
+     * Id of a name, assigning the next id when it has not been seen before
+     */
+    public synchronized int idOf(String name) {
+        String key = normalize(name);
+        Integer id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        id = names.size();
+        ids.put(key, id);
+        names.add(name == null ? "" : name.trim());
+        if (file != null) {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (; persisted < names.size(); persisted++) {
+                    writer.write(escape(names.get(persisted)));
+                    writer.newLine();
+                }
+            } catch (IOException e) {
+                System.out.println("Could not extend dictionary " + file + ": " + e.getMessage());
+            }
+        }
+        return id;
+    }
+
+    /**
+     * The stored instance of a name when it is spelled exactly the same, so repeated
+     * values across rows share one String; other spellings and unknown names are returned
+     * unchanged. Never assigns an id, so it is safe on the FX thread.
+     */
+    public synchronized String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        Integer id = ids.get(normalize(name));
+        if (id == null) {
+            return name;
+        }
+        String stored = names.get(id);
+        return stored.equals(name) ? stored : name;
+    }
+
+    /**
+     * Id of a known name, or -1 without assigning one
+     */
+    public synchronized int find(String name) {
+        Integer id = ids.get(normalize(name));
+        return id == null ? -1 : id;
+    }
+
+    public synchronized String nameOf(int id) {
+        return id >= 0 && id < names.size() ? names.get(id) : null;
+    }
+
+    public synchronized int size() {
+        return names.size();
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase();
+    }
+
+    private static String escape(String name) {
+        return name.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String line) {
+        if (line.indexOf('\\') < 0) {
+            return line;
+        }
+        StringBuilder name = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                name.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                name.append(c);
+            }
+        }
+        return name.toString();
+    }
+}
@@ -3,22 +3,33 @@ package Model;
 
 
 public class User {
+    private int id;
     private String name;
     private int age;
     private String fishingDay;
     private String address;
     private String contact;
+    private int fishingDayId;
+    private int addressId;
 
     public User(String name, int age, String fishingDay, String address, String contact) {
+        this(0, name, age, fishingDay, address, contact);
+    }
+
+    public User(int id, String name, int age, String fishingDay, String address, String contact) {
+        this.id = id;
         this.name = name;
         this.age = age;
-        this.fishingDay = fishingDay;
-        this.address = address;
         this.contact = contact;
+        setFishingDay(fishingDay);
+        setAddress(address);
     }
 
     // Getters & Setters
 
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
@@ -26,10 +37,29 @@ public class User {
     public void setAge(int age) { this.age = age; }
 
     public String getFishingDay() { return fishingDay; }
-    public void setFishingDay(String fishingDay) { this.fishingDay = fishingDay; }
+    public void setFishingDay(String fishingDay) {
+        this.fishingDay = Dictionaries.fishingDay().intern(fishingDay);
+        this.fishingDayId = Dictionaries.fishingDay().find(fishingDay);
+    }
+    // Session dictionaries are in memory, so a name first seen here gets its id on first use
+    public int getFishingDayId() {
+        if (fishingDayId < 0) {
+            fishingDayId = Dictionaries.fishingDay().idOf(fishingDay);
+        }
+        return fishingDayId;
+    }
 
     public String getAddress() { return address; }
-    public void setAddress(String address) { this.address = address; }
+    public void setAddress(String address) {
+        this.address = Dictionaries.address().intern(address);
+        this.addressId = Dictionaries.address().find(address);
+    }
+    public int getAddressId() {
+        if (addressId < 0) {
+            addressId = Dictionaries.address().idOf(address);
+        }
+        return addressId;
+    }
 
     public String getContact() { return contact; }
     public void setContact(String contact) { this.contact = contact; }
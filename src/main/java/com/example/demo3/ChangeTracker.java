@@ -0,0 +1,444 @@
+package com.example.demo3;
+
+import Model.Dictionaries;
+import Model.FishPrice;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static Connection.DBConnection.getConnection;
+
+/**
+ * Polls fish_price, fishman and message for rows changed since the last watermark.
+ * Each table gets an updated_at TIMESTAMP(3) column maintained by MySQL
+ * (ON UPDATE CURRENT_TIMESTAMP), so every tick is one indexed range query per table
+ * and subscribers receive only the changed rows instead of reloading whole tables.
+ * updated_at is stamped when a statement runs, not when it commits, so a slow transaction
+ * can commit rows older than the watermark; every poll therefore re-reads a safety window
+ * behind the watermark and skips rows already delivered at the same updated_at.
+ * Subscribers may see a row again after start-up and must treat it as an update.
+ * Rows are keyed on their id column, which is added to fishman and message when missing.
+ * Deleted rows are not seen by polling, so every few ticks the id set of fishman and message
+ * is read again and ids that disappeared go to the delete subscribers.
+ * fish_price rows are turned into PriceEvents against the last price seen per id: new ids are
+ * INSERTED, changed rows UPDATED with their previous price, and rows whose price and fields
+ * match the last event (such as the feed's own writes) are dropped.
+ */
+public class ChangeTracker {
+
+    private static final ChangeTracker INSTANCE = new ChangeTracker();
+
+    private static final long POLL_MILLIS = 2000;
+    /** How long after its updated_at a row may still commit and be picked up */
+    private static final long SAFETY_LAG_MILLIS = 30_000;
+    /** Polls between id-set reads that detect deleted rows */
+    private static final int RECONCILE_TICKS = 15;
+
+    /**
+     * Tracking state for one table
+     */
+    private static class TrackedTable {
+        final String name;
+        final boolean reconcileDeletes;
+        final List<Consumer<List<Map<String, Object>>>> subscribers = new CopyOnWriteArrayList<>();
+        final List<Consumer<Set<Integer>>> deleteSubscribers = new CopyOnWriteArrayList<>();
+        Timestamp watermark;
+        // updated_at delivered per key within the safety window, so re-read rows are skipped
+        final Map<String, Timestamp> delivered = new HashMap<>();
+        // Ids present at the last reconciliation, plus rows delivered since
+        Set<Integer> knownIds = new HashSet<>();
+
+        TrackedTable(String name, boolean reconcileDeletes) {
+            this.name = name;
+            this.reconcileDeletes = reconcileDeletes;
+        }
+    }
+
+    /**
+     * Price and remaining fields of the last event seen for one fish_price id
+     */
+    private static final class Seen {
+        final double price;
+        final int fields;
+
+        Seen(double price, int fields) {
+            this.price = price;
+            this.fields = fields;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Seen && Double.compare(((Seen) o).price, price) == 0 && ((Seen) o).fields == fields;
+        }
+
+        @Override
+        public int hashCode() {
+            return Double.hashCode(price) * 31 + fields;
+        }
+    }
+
+    private final Map<String, TrackedTable> tables = new ConcurrentHashMap<>();
+    private final Map<Integer, Seen> lastSeenPrices = new ConcurrentHashMap<>();
+    private ScheduledExecutorService executor;
+    private int ticks;
+
+    private ChangeTracker() {
+        track("fish_price", false);
+        track("fishman", true);
+        track("message", true);
+
+        // Changed prices flow into the same bus the price feed uses
+        subscribe("fish_price", this::publishPriceChanges);
+        // Events published elsewhere (the feed, the admin screen) are the last seen state too,
+        // so their rows are not announced a second time when the poll reads them back
+        PriceEventBus.getInstance().subscribe(this::rememberPrices);
+    }
+
+    public static ChangeTracker getInstance() {
+        return INSTANCE;
+    }
+
+    private void track(String table, boolean reconcileDeletes) {
+        tables.put(table, new TrackedTable(table, reconcileDeletes));
+    }
+
+    /**
+     * Receive rows of a table that were inserted or updated since the last tick.
+     * Rows are delivered on the tracker thread as column name to value maps.
+     */
+    public Runnable subscribe(String table, Consumer<List<Map<String, Object>>> subscriber) {
+        TrackedTable tracked = tables.get(table);
+        if (tracked == null) {
+            throw new IllegalArgumentException("Table is not tracked: " + table);
+        }
+        tracked.subscribers.add(subscriber);
+        return () -> tracked.subscribers.remove(subscriber);
+    }
+
+    /**
+     * Receive the ids of fishman or message rows deleted since the last reconciliation,
+     * on the tracker thread
+     */
+    public Runnable subscribeDeletes(String table, Consumer<Set<Integer>> subscriber) {
+        TrackedTable tracked = tables.get(table);
+        if (tracked == null || !tracked.reconcileDeletes) {
+            throw new IllegalArgumentException("Deletes are not tracked for: " + table);
+        }
+        tracked.deleteSubscribers.add(subscriber);
+        return () -> tracked.deleteSubscribers.remove(subscriber);
+    }
+
+    /**
+     * Add the id and version columns if needed, take the starting watermarks and begin polling
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "change-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(() -> {
+            for (TrackedTable table : tables.values()) {
+                ensureIdColumn(table.name);
+                ensureVersionColumn(table.name);
+                table.watermark = currentWatermark(table.name);
+                if (table.reconcileDeletes) {
+                    table.knownIds = currentIds(table.name);
+                }
+            }
+            seedPrices();
+        });
+        executor.scheduleWithFixedDelay(this::pollAll, POLL_MILLIS, POLL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void pollAll() {
+        boolean reconcile = ++ticks % RECONCILE_TICKS == 0;
+        try (Connection conn = getConnection()) {
+            for (TrackedTable table : tables.values()) {
+                if (!table.subscribers.isEmpty()) {
+                    poll(conn, table);
+                }
+                if (reconcile && !table.deleteSubscribers.isEmpty()) {
+                    reconcile(conn, table);
+                }
+            }
+        } catch (SQLException | NullPointerException e) {
+            // Database unavailable; try again next tick
+        }
+    }
+
+    private void poll(Connection conn, TrackedTable table) throws SQLException {
+        String sql = "SELECT * FROM " + table.name + " WHERE updated_at >= ? ORDER BY updated_at";
+        List<Map<String, Object>> changed = new ArrayList<>();
+        Timestamp newWatermark = table.watermark;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, table.watermark != null
+                    ? new Timestamp(table.watermark.getTime() - SAFETY_LAG_MILLIS) : new Timestamp(0));
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                while (rs.next()) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int c = 1; c <= meta.getColumnCount(); c++) {
+                        row.put(meta.getColumnLabel(c), rs.getObject(c));
+                    }
+                    Timestamp updatedAt = rs.getTimestamp("updated_at");
+                    String key = keyOf(row);
+
+                    if (newWatermark == null || updatedAt.after(newWatermark)) {
+                        newWatermark = updatedAt;
+                    }
+                    Timestamp previous = table.delivered.get(key);
+                    if (previous != null && !updatedAt.after(previous)) {
+                        continue;
+                    }
+                    table.delivered.put(key, updatedAt);
+                    if (table.reconcileDeletes && row.get("id") instanceof Number) {
+                        table.knownIds.add(((Number) row.get("id")).intValue());
+                    }
+                    changed.add(row);
+                }
+            }
+        }
+
+        table.watermark = newWatermark;
+        if (newWatermark != null) {
+            // Rows before the next window are never read again
+            long windowStart = newWatermark.getTime() - SAFETY_LAG_MILLIS;
+            table.delivered.values().removeIf(updatedAt -> updatedAt.getTime() < windowStart);
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        for (Consumer<List<Map<String, Object>>> subscriber : table.subscribers) {
+            try {
+                subscriber.accept(changed);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Compare the table's ids with the last known set and report the ones that are gone
+     */
+    private void reconcile(Connection conn, TrackedTable table) throws SQLException {
+        Set<Integer> current = readIds(conn, table.name);
+        Set<Integer> deleted = new HashSet<>(table.knownIds);
+        deleted.removeAll(current);
+        table.knownIds = current;
+        if (deleted.isEmpty()) {
+            return;
+        }
+        for (Consumer<Set<Integer>> subscriber : table.deleteSubscribers) {
+            try {
+                subscriber.accept(deleted);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private Set<Integer> currentIds(String table) {
+        try (Connection conn = getConnection()) {
+            return readIds(conn, table);
+        } catch (SQLException | NullPointerException e) {
+            System.out.println("Change tracker could not read ids of " + table + ": " + e.getMessage());
+            return new HashSet<>();
+        }
+    }
+
+    private static Set<Integer> readIds(Connection conn, String table) throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id FROM " + table)) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Take the current price of every fish_price row as the last seen state, streaming the
+     * table so start-up does not hold the whole result set in memory
+     */
+    private void seedPrices() {
+        String sql = "SELECT id, fish_name, fish_details, today_price, place, status, date, image FROM fish_price";
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    // Every name in the table gets its id here, off the FX thread
+                    Dictionaries.registerPrice(rs.getString("fish_name"), rs.getString("place"),
+                            rs.getString("status"));
+                    java.sql.Date date = rs.getDate("date");
+                    lastSeenPrices.put(rs.getInt("id"), new Seen(rs.getDouble("today_price"),
+                            fieldsOf(rs.getString("fish_name"), rs.getString("fish_details"), rs.getString("place"),
+                                    rs.getString("status"), date != null ? date.toLocalDate() : null,
+                                    rs.getString("image"))));
+                }
+            }
+        } catch (SQLException | NullPointerException e) {
+            System.out.println("Change tracker could not read fish prices: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Publish polled fish_price rows as events relative to the last state seen for each id
+     */
+    private void publishPriceChanges(List<Map<String, Object>> rows) {
+        List<PriceEvent> events = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            FishPrice price = toFishPrice(row);
+            Seen before = lastSeenPrices.put(price.getId(), seenOf(price));
+            if (before == null) {
+                events.add(new PriceEvent(PriceEvent.Type.INSERTED, price, Double.NaN));
+            } else if (!before.equals(seenOf(price))) {
+                events.add(new PriceEvent(PriceEvent.Type.UPDATED, price, before.price));
+            }
+        }
+        PriceEventBus.getInstance().publish(events);
+    }
+
+    private void rememberPrices(List<PriceEvent> events) {
+        for (PriceEvent event : events) {
+            FishPrice price = event.getPrice();
+            if (event.getType() == PriceEvent.Type.DELETED) {
+                lastSeenPrices.remove(price.getId());
+            } else {
+                lastSeenPrices.put(price.getId(), seenOf(price));
+            }
+        }
+    }
+
+    private static Seen seenOf(FishPrice price) {
+        return new Seen(price.getTodayPrice(), fieldsOf(price.getFishName(), price.getFishDetails(),
+                price.getPlace(), price.getStatus(), price.getDate(), price.getImage()));
+    }
+
+    private static int fieldsOf(String name, String details, String place, String status, LocalDate date,
+                                String image) {
+        return Objects.hash(name, details, place, status, date, image);
+    }
+
+    private Timestamp currentWatermark(String table) {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(updated_at) FROM " + table)) {
+            if (rs.next() && rs.getTimestamp(1) != null) {
+                return rs.getTimestamp(1);
+            }
+        } catch (SQLException | NullPointerException e) {
+            System.out.println("Change tracker could not read watermark for " + table + ": " + e.getMessage());
+        }
+        return new Timestamp(System.currentTimeMillis());
+    }
+
+    /**
+     * Add updated_at and its index; both statements fail harmlessly when already present
+     */
+    private void ensureVersionColumn(String table) {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            try {
+                stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN updated_at TIMESTAMP(3) NOT NULL " +
+                        "DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)");
+            } catch (SQLException e) {
+                // Column already exists
+            }
+            try {
+                stmt.executeUpdate("ALTER TABLE " + table + " ADD INDEX idx_" + table + "_updated_at (updated_at)");
+            } catch (SQLException e) {
+                // Index already exists
+            }
+        } catch (SQLException | NullPointerException e) {
+            System.out.println("Change tracker could not prepare " + table + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Give the table an auto-increment id; a table that already has another primary key gets
+     * it as a unique key instead, and both statements fail harmlessly once the column exists
+     */
+    private void ensureIdColumn(String table) {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            try {
+                stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN id INT NOT NULL AUTO_INCREMENT PRIMARY KEY FIRST");
+            } catch (SQLException e) {
+                try {
+                    stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN id INT NOT NULL AUTO_INCREMENT UNIQUE FIRST");
+                } catch (SQLException alreadyPresent) {
+                    // Column already exists
+                }
+            }
+        } catch (SQLException | NullPointerException e) {
+            System.out.println("Change tracker could not add id to " + table + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Identity of a tracked row: its id column
+     */
+    public static String keyOf(Map<String, Object> row) {
+        return String.valueOf(row.get("id"));
+    }
+
+    /**
+     * Id of a tracked row, or 0 before the id column has been added
+     */
+    public static int idOf(Map<String, Object> row) {
+        Object id = row.get("id");
+        return id instanceof Number ? ((Number) id).intValue() : 0;
+    }
+
+    /**
+     * Convert a fish_price row map to the model, assigning ids to new names (tracker thread)
+     */
+    public static FishPrice toFishPrice(Map<String, Object> row) {
+        Dictionaries.registerPrice((String) row.get("fish_name"), (String) row.get("place"),
+                (String) row.get("status"));
+        Object date = row.get("date");
+        return new FishPrice(
+                ((Number) row.get("id")).intValue(),
+                (String) row.get("fish_name"),
+                (String) row.get("fish_details"),
+                ((Number) row.get("today_price")).doubleValue(),
+                (String) row.get("place"),
+                (String) row.get("status"),
+                date instanceof java.sql.Date ? ((java.sql.Date) date).toLocalDate() : (java.time.LocalDate) date,
+                (String) row.get("image"));
+    }
+}
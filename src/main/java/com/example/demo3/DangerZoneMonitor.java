@@ -0,0 +1,291 @@
+package com.example.demo3;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Per-vessel weather alerts for boats at sea.
+ * Every tick the active boats are copied out of FleetTracker, the forecast at each boat's
+ * position is looked up and the SafetyRules are evaluated in parallel chunks.
+ * Listeners only hear about vessels whose safety level changed since the previous tick.
+ */
+public class DangerZoneMonitor {
+
+    private static final DangerZoneMonitor INSTANCE = new DangerZoneMonitor();
+
+    /** No forecast covers the position; the previous level is kept */
+    private static final int UNKNOWN = -1;
+    private static final int INPUTS = SafetyRules.INPUT_COUNT;
+
+    private static final long TICK_SECONDS = 30;
+    private static final int CHUNK_SIZE = 1024;
+
+    /**
+     * Forecast values at a position, written into out[] at the SafetyRules input indexes.
+     * Inputs the source does not know are left as NaN.
+     */
+    public interface ConditionSource {
+        /**
+         * Called once per tick before sampling, so sources can take their snapshot
+         */
+        default void refresh() {
+        }
+
+        /**
+         * Called from several threads at once.
+         * @param harborIndex harbor the vessel is attributed to by the fleet grid
+         * @return false when no forecast covers the position
+         */
+        boolean sample(double latitude, double longitude, int harborIndex, double[] out);
+    }
+
+    /**
+     * A vessel whose safety level changed
+     */
+    public static class VesselAlert {
+        private final int vesselId;
+        private final String harbor;
+        private final int previousLevel;
+        private final SafetyRules.Assessment assessment;
+
+        VesselAlert(int vesselId, String harbor, int previousLevel, SafetyRules.Assessment assessment) {
+            this.vesselId = vesselId;
+            this.harbor = harbor;
+            this.previousLevel = previousLevel;
+            this.assessment = assessment;
+        }
+
+        public int getVesselId() { return vesselId; }
+        public String getHarbor() { return harbor; }
+        public int getLevel() { return assessment.getLevel(); }
+        public int getPreviousLevel() { return previousLevel; }
+        /** The rule that decided the level; input -1 once the vessel is safe again */
+        public SafetyRules.Assessment getAssessment() { return assessment; }
+    }
+
+    private final List<Consumer<List<VesselAlert>>> listeners = new CopyOnWriteArrayList<>();
+    private volatile ConditionSource conditionSource = firstOf(ForecastGrid.getInstance(), harborForecasts());
+
+    // Tick snapshot, reused between ticks and only touched by the monitor thread
+    private int count;
+    private int[] vesselIds = new int[256];
+    private double[] latitudes = new double[256];
+    private double[] longitudes = new double[256];
+    private int[] harbors = new int[256];
+    private int[] levels = new int[256];
+    private double[] conditions = new double[256 * INPUTS];
+
+    // Last reported level per vessel at sea
+    private final Map<Integer, Integer> lastLevel = new HashMap<>();
+    private final int[] levelCounts = new int[SafetyRules.DANGER + 1];
+    private ScheduledExecutorService executor;
+
+    private DangerZoneMonitor() {
+    }
+
+    public static DangerZoneMonitor getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "danger-zone-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::tick, TICK_SECONDS, TICK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Be handed the vessels whose level changed, once per tick (on the monitor thread)
+     */
+    public Runnable addListener(Consumer<List<VesselAlert>> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    public void setConditionSource(ConditionSource source) {
+        this.conditionSource = source;
+    }
+
+    /**
+     * Boats at sea currently at a level
+     */
+    public synchronized int getCount(int level) {
+        return levelCounts[level];
+    }
+
+    private void tick() {
+        try {
+            List<VesselAlert> alerts = evaluate();
+            if (!alerts.isEmpty()) {
+                for (Consumer<List<VesselAlert>> listener : listeners) {
+                    listener.accept(alerts);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Danger zone check failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * One pass over the fleet; returns the vessels whose level changed
+     */
+    List<VesselAlert> evaluate() {
+        count = 0;
+        FleetTracker.getInstance().forEachActive((vesselId, latitude, longitude, harborIndex) -> {
+            if (count == vesselIds.length) {
+                grow();
+            }
+            vesselIds[count] = vesselId;
+            latitudes[count] = latitude;
+            longitudes[count] = longitude;
+            harbors[count] = harborIndex;
+            count++;
+        });
+
+        ConditionSource source = conditionSource;
+        source.refresh();
+        SafetyRules rules = SafetyRules.getInstance();
+        int n = count;
+        int chunks = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            double[] sample = new double[INPUTS];
+            int end = Math.min(n, (chunk + 1) * CHUNK_SIZE);
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                Arrays.fill(sample, Double.NaN);
+                if (source.sample(latitudes[i], longitudes[i], harbors[i], sample)) {
+                    levels[i] = rules.level(sample);
+                    System.arraycopy(sample, 0, conditions, i * INPUTS, INPUTS);
+                } else {
+                    levels[i] = UNKNOWN;
+                }
+            }
+        });
+
+        return collectChanges(rules, n);
+    }
+
+    private synchronized List<VesselAlert> collectChanges(SafetyRules rules, int n) {
+        List<VesselAlert> alerts = new ArrayList<>();
+        Map<Integer, Integer> seen = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            Integer previous = lastLevel.get(vesselIds[i]);
+            int level = levels[i];
+            if (level == UNKNOWN) {
+                if (previous != null) {
+                    seen.put(vesselIds[i], previous);
+                }
+                continue;
+            }
+            seen.put(vesselIds[i], level);
+            // A boat heading out in safe weather is not news; anything else that changed is
+            if (previous == null ? level != SafetyRules.SAFE : previous != level) {
+                String harbor = harbors[i] >= 0 ? Harbors.all().get(harbors[i]).getName() : "";
+                double[] point = Arrays.copyOfRange(conditions, i * INPUTS, (i + 1) * INPUTS);
+                alerts.add(new VesselAlert(vesselIds[i], harbor, previous == null ? SafetyRules.SAFE : previous,
+                        rules.assess(point)));
+            }
+        }
+        // Boats back in harbor or gone quiet drop out
+        lastLevel.clear();
+        lastLevel.putAll(seen);
+        Arrays.fill(levelCounts, 0);
+        for (int level : lastLevel.values()) {
+            levelCounts[level]++;
+        }
+        return alerts;
+    }
+
+    private void grow() {
+        int capacity = vesselIds.length * 2;
+        vesselIds = Arrays.copyOf(vesselIds, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+        harbors = Arrays.copyOf(harbors, capacity);
+        levels = Arrays.copyOf(levels, capacity);
+        conditions = Arrays.copyOf(conditions, capacity * INPUTS);
+    }
+
+    /**
+     * Ask the primary source and fall back where it has no forecast for the position
+     */
+    public static ConditionSource firstOf(ConditionSource primary, ConditionSource fallback) {
+        return new ConditionSource() {
+            @Override
+            public void refresh() {
+                primary.refresh();
+                fallback.refresh();
+            }
+
+            @Override
+            public boolean sample(double latitude, double longitude, int harborIndex, double[] out) {
+                return primary.sample(latitude, longitude, harborIndex, out)
+                        || fallback.sample(latitude, longitude, harborIndex, out);
+            }
+        };
+    }
+
+    /**
+     * Forecast of the harbor a vessel is attributed to, at the current hour.
+     * The hour is fixed per tick and each harbor's values are picked once per tick rather than once per vessel.
+     */
+    private static ConditionSource harborForecasts() {
+        return new ConditionSource() {
+            // Values per harbor index, null where no forecast covers the current hour
+            private volatile double[][] byHarbor = new double[0][];
+
+            @Override
+            public void refresh() {
+                LocalDateTime now = HarborForecasts.now();
+                double[][] loaded = new double[Harbors.all().size()][];
+                for (HarborForecasts.Forecast forecast : HarborForecasts.getInstance().getForecasts()) {
+                    int hour = forecast.hourOf(now);
+                    int index = forecast.getHarbor().getIndex();
+                    if (hour < 0 || index >= loaded.length) {
+                        continue;
+                    }
+                    double[] values = new double[INPUTS];
+                    boolean known = false;
+                    for (int input = 0; input < INPUTS; input++) {
+                        values[input] = forecast.getColumns()[input][hour];
+                        known |= !Double.isNaN(values[input]);
+                    }
+                    // An hour the API left empty is no forecast either
+                    loaded[index] = known ? values : null;
+                }
+                byHarbor = loaded;
+            }
+
+            @Override
+            public boolean sample(double latitude, double longitude, int harborIndex, double[] out) {
+                double[][] snapshot = byHarbor;
+                if (harborIndex < 0 || harborIndex >= snapshot.length || snapshot[harborIndex] == null) {
+                    return false;
+                }
+                System.arraycopy(snapshot[harborIndex], 0, out, 0, INPUTS);
+                return true;
+            }
+        };
+    }
+}
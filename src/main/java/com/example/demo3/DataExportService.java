@@ -0,0 +1,522 @@
+package com.example.demo3;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static Connection.DBConnection.getConnection;
+
+/**
+ * Streams raw table data to CSV and a compact binary columnar format.
+ * Rows are read with a streaming result set and written through a buffered
+ * FileChannel, so tables of any size are exported without loading them into memory.
+ * Both files are written under a .tmp name and moved into place only once the export has
+ * succeeded, so a failed run leaves the previous export untouched.
+ *
+ * Binary layout (little endian):
+ *   "FMSC" magic, int version, int columnCount, per column: byte type + UTF-8 name,
+ *   then row groups of: int rowCount, per column: null bitmap + packed values,
+ *   terminated by a row group with rowCount 0.
+ *   Strings are stored as int lengths followed by the concatenated bytes.
+ */
+public class DataExportService {
+
+    public static final String[] EXPORT_TABLES = {"fish_price", "fishman", "message"};
+
+    private static final int ROW_GROUP_SIZE = 65536;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_DATE = 4;      // epoch day as int
+    private static final byte TYPE_TIMESTAMP = 5; // epoch millis as long
+    private static final byte TYPE_STRING = 6;
+
+    /** CSV timestamps: fixed width, seconds always written, milliseconds included */
+    private static final DateTimeFormatter CSV_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss[.SSS]");
+
+    /**
+     * Outcome of exporting one table
+     */
+    public static class ExportResult {
+        private final String table;
+        private final long rows;
+        private final long csvBytes;
+        private final long binaryBytes;
+        private final long millis;
+        private final String error;
+
+        ExportResult(String table, long rows, long csvBytes, long binaryBytes, long millis, String error) {
+            this.table = table;
+            this.rows = rows;
+            this.csvBytes = csvBytes;
+            this.binaryBytes = binaryBytes;
+            this.millis = millis;
+            this.error = error;
+        }
+
+        public String getTable() { return table; }
+        public long getRows() { return rows; }
+        public long getCsvBytes() { return csvBytes; }
+        public long getBinaryBytes() { return binaryBytes; }
+        public long getMillis() { return millis; }
+        public String getError() { return error; }
+
+        public double getRowsPerSecond() {
+            return millis == 0 ? rows : rows * 1000.0 / millis;
+        }
+
+        @Override
+        public String toString() {
+            if (error != null) {
+                return String.format("%s: failed (%s)", table, error);
+            }
+            return String.format("%s: %,d rows in %d ms (%,.0f rows/s, CSV %.1f MB, binary %.1f MB)",
+                    table, rows, millis, getRowsPerSecond(), csvBytes / 1048576.0, binaryBytes / 1048576.0);
+        }
+    }
+
+    /**
+     * Export all tables in parallel into the given directory
+     */
+    public static List<ExportResult> exportAll(String outputPath) {
+        File outputDir = new File(outputPath);
+        if (!outputDir.exists()) {
+            outputDir.mkdirs();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(EXPORT_TABLES.length, r -> {
+            Thread thread = new Thread(r, "data-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<ExportResult>> futures = new ArrayList<>();
+        for (String table : EXPORT_TABLES) {
+            futures.add(pool.submit(() -> exportTable(table, outputDir)));
+        }
+
+        List<ExportResult> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (Exception e) {
+                    results.add(new ExportResult(EXPORT_TABLES[i], 0, 0, 0, 0, e.getMessage()));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return results;
+    }
+
+    /**
+     * Export a single table to &lt;table&gt;.csv and &lt;table&gt;.fmsc
+     */
+    public static ExportResult exportTable(String table, File outputDir) {
+        long start = System.currentTimeMillis();
+        File csvFile = new File(outputDir, table + ".csv");
+        File binFile = new File(outputDir, table + ".fmsc");
+        File csvTemp = new File(outputDir, table + ".csv.tmp");
+        File binTemp = new File(outputDir, table + ".fmsc.tmp");
+        boolean moved = false;
+
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Integer.MIN_VALUE makes Connector/J stream rows instead of buffering the result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            long rows = 0;
+            long csvBytes;
+            long binBytes;
+            try (ResultSet rs = stmt.executeQuery("SELECT * FROM " + table);
+                 ChannelWriter csv = new ChannelWriter(csvTemp);
+                 ChannelWriter bin = new ChannelWriter(binTemp)) {
+
+                ResultSetMetaData meta = rs.getMetaData();
+                int columnCount = meta.getColumnCount();
+                ColumnBuffer[] columns = new ColumnBuffer[columnCount];
+
+                bin.putBytes("FMSC".getBytes(StandardCharsets.US_ASCII));
+                bin.putInt(FORMAT_VERSION);
+                bin.putInt(columnCount);
+                for (int c = 0; c < columnCount; c++) {
+                    String name = meta.getColumnLabel(c + 1);
+                    columns[c] = new ColumnBuffer(binaryType(meta.getColumnType(c + 1)));
+                    bin.putByte(columns[c].type);
+                    bin.putString(name);
+
+                    if (c > 0) {
+                        csv.putByte((byte) ',');
+                    }
+                    csv.putCsvField(name);
+                }
+                csv.putByte((byte) '\n');
+
+                int groupRows = 0;
+                while (rs.next()) {
+                    for (int c = 0; c < columnCount; c++) {
+                        if (c > 0) {
+                            csv.putByte((byte) ',');
+                        }
+                        columns[c].read(rs, c + 1, groupRows, csv);
+                    }
+                    csv.putByte((byte) '\n');
+                    rows++;
+                    if (++groupRows == ROW_GROUP_SIZE) {
+                        writeRowGroup(bin, columns, groupRows);
+                        groupRows = 0;
+                    }
+                }
+                if (groupRows > 0) {
+                    writeRowGroup(bin, columns, groupRows);
+                }
+                bin.putInt(0);
+
+                csv.sync();
+                bin.sync();
+                csvBytes = csv.getBytesWritten();
+                binBytes = bin.getBytesWritten();
+            }
+
+            moveIntoPlace(csvTemp, csvFile);
+            moveIntoPlace(binTemp, binFile);
+            moved = true;
+            ExportResult result = new ExportResult(table, rows, csvBytes, binBytes,
+                    System.currentTimeMillis() - start, null);
+            System.out.println("Export " + result);
+            return result;
+
+        } catch (SQLException | IOException | NullPointerException e) {
+            e.printStackTrace();
+            return new ExportResult(table, 0, 0, 0, System.currentTimeMillis() - start, e.getMessage());
+        } finally {
+            if (!moved) {
+                deleteQuietly(csvTemp);
+                deleteQuietly(binTemp);
+            }
+        }
+    }
+
+    /**
+     * Replace target with a finished temp file in one step where the file system allows it
+     */
+    private static void moveIntoPlace(File temp, File target) throws IOException {
+        try {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            System.out.println("Could not delete " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static void writeRowGroup(ChannelWriter bin, ColumnBuffer[] columns, int rowCount) throws IOException {
+        bin.putInt(rowCount);
+        for (ColumnBuffer column : columns) {
+            column.write(bin, rowCount);
+        }
+    }
+
+    private static byte binaryType(int sqlType) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BOOLEAN:
+            case Types.BIT:
+                return TYPE_INT;
+            case Types.BIGINT:
+                return TYPE_LONG;
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return TYPE_DOUBLE;
+            case Types.DATE:
+                return TYPE_DATE;
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return TYPE_TIMESTAMP;
+            default:
+                return TYPE_STRING;
+        }
+    }
+
+    /**
+     * Values of one column for the current row group, kept in primitive arrays
+     */
+    private static class ColumnBuffer {
+        private final byte type;
+        private final byte[] nulls = new byte[(ROW_GROUP_SIZE + 7) / 8];
+        private int[] ints;
+        private long[] longs;
+        private double[] doubles;
+        private int[] lengths;
+        private byte[] bytes;
+        private int bytesUsed;
+
+        ColumnBuffer(byte type) {
+            this.type = type;
+            switch (type) {
+                case TYPE_INT:
+                case TYPE_DATE:
+                    ints = new int[ROW_GROUP_SIZE];
+                    break;
+                case TYPE_LONG:
+                case TYPE_TIMESTAMP:
+                    longs = new long[ROW_GROUP_SIZE];
+                    break;
+                case TYPE_DOUBLE:
+                    doubles = new double[ROW_GROUP_SIZE];
+                    break;
+                default:
+                    lengths = new int[ROW_GROUP_SIZE];
+                    bytes = new byte[64 * 1024];
+            }
+        }
+
+        /**
+         * Read one value into the buffer and append its CSV form
+         */
+        void read(ResultSet rs, int index, int row, ChannelWriter csv) throws SQLException, IOException {
+            if (row == 0) {
+                Arrays.fill(nulls, (byte) 0);
+                bytesUsed = 0;
+            }
+            switch (type) {
+                case TYPE_INT: {
+                    int value = rs.getInt(index);
+                    if (rs.wasNull()) { markNull(row); return; }
+                    ints[row] = value;
+                    csv.putAscii(Integer.toString(value));
+                    return;
+                }
+                case TYPE_LONG: {
+                    long value = rs.getLong(index);
+                    if (rs.wasNull()) { markNull(row); return; }
+                    longs[row] = value;
+                    csv.putAscii(Long.toString(value));
+                    return;
+                }
+                case TYPE_DOUBLE: {
+                    double value = rs.getDouble(index);
+                    if (rs.wasNull()) { markNull(row); return; }
+                    doubles[row] = value;
+                    // Plain decimal so spreadsheets never see 1.0E7; NaN and infinities have no decimal form
+                    csv.putAscii(Double.isFinite(value) ? BigDecimal.valueOf(value).toPlainString()
+                            : Double.toString(value));
+                    return;
+                }
+                case TYPE_DATE: {
+                    Date value = rs.getDate(index);
+                    if (value == null) { markNull(row); return; }
+                    ints[row] = (int) value.toLocalDate().toEpochDay();
+                    csv.putAscii(value.toString());
+                    return;
+                }
+                case TYPE_TIMESTAMP: {
+                    Timestamp value = rs.getTimestamp(index);
+                    if (value == null) { markNull(row); return; }
+                    longs[row] = value.getTime();
+                    csv.putAscii(CSV_TIMESTAMP.format(value.toLocalDateTime()));
+                    return;
+                }
+                default: {
+                    String value = rs.getString(index);
+                    if (value == null) { markNull(row); lengths[row] = 0; return; }
+                    byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                    if (bytesUsed + encoded.length > bytes.length) {
+                        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, bytesUsed + encoded.length));
+                    }
+                    System.arraycopy(encoded, 0, bytes, bytesUsed, encoded.length);
+                    bytesUsed += encoded.length;
+                    lengths[row] = encoded.length;
+                    csv.putCsvField(encoded);
+                }
+            }
+        }
+
+        private void markNull(int row) {
+            nulls[row >> 3] |= (byte) (1 << (row & 7));
+        }
+
+        void write(ChannelWriter bin, int rowCount) throws IOException {
+            bin.putBytes(nulls, 0, (rowCount + 7) / 8);
+            switch (type) {
+                case TYPE_INT:
+                case TYPE_DATE:
+                    for (int i = 0; i < rowCount; i++) bin.putInt(ints[i]);
+                    break;
+                case TYPE_LONG:
+                case TYPE_TIMESTAMP:
+                    for (int i = 0; i < rowCount; i++) bin.putLong(longs[i]);
+                    break;
+                case TYPE_DOUBLE:
+                    for (int i = 0; i < rowCount; i++) bin.putDouble(doubles[i]);
+                    break;
+                default:
+                    for (int i = 0; i < rowCount; i++) bin.putInt(lengths[i]);
+                    bin.putBytes(bytes, 0, bytesUsed);
+            }
+        }
+    }
+
+    /**
+     * Buffered writer over a FileChannel using one direct buffer
+     */
+    private static class ChannelWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long bytesWritten;
+
+        ChannelWriter(File file) throws IOException {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void putByte(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+        }
+
+        void putBytes(byte[] value) throws IOException {
+            putBytes(value, 0, value.length);
+        }
+
+        void putBytes(byte[] value, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int chunk = Math.min(length, buffer.remaining());
+                buffer.put(value, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        void putString(String value) throws IOException {
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            putInt(encoded.length);
+            putBytes(encoded);
+        }
+
+        void putAscii(String value) throws IOException {
+            ensure(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                buffer.put((byte) value.charAt(i));
+            }
+        }
+
+        void putCsvField(String value) throws IOException {
+            putCsvField(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Write a UTF-8 field, quoting it only when it contains a separator, quote or line break
+         */
+        void putCsvField(byte[] value) throws IOException {
+            boolean quote = false;
+            for (byte b : value) {
+                if (b == ',' || b == '"' || b == '\n' || b == '\r') {
+                    quote = true;
+                    break;
+                }
+            }
+            if (!quote) {
+                putBytes(value);
+                return;
+            }
+            putByte((byte) '"');
+            for (byte b : value) {
+                if (b == '"') {
+                    putByte((byte) '"');
+                }
+                putByte(b);
+            }
+            putByte((byte) '"');
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                bytesWritten += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Write out the buffer and force it to disk
+         */
+        void sync() throws IOException {
+            flush();
+            channel.force(false);
+        }
+
+        long getBytesWritten() {
+            return bytesWritten + buffer.position();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo3;
+
+import Model.FishPrice;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+/**
+ * Non-modal fish details window that is built once and refilled for each fish.
+ * The stage, node tree and stylesheet are created on first use only, so browsing
+ * through many rows just swaps label text and the picture.
+ */
+public class FishDetailPopup {
+
+    private final Stage stage = new Stage();
+    private final ImageView imageView = new ImageView();
+    private final Label name = new Label();
+    private final Label details = new Label();
+    private final Label price = new Label();
+    private final Label place = new Label();
+    private final Label status = new Label();
+    private final Label date = new Label();
+
+    public FishDetailPopup(Window owner) {
+        stage.initOwner(owner);
+        stage.setTitle("Fish Details");
+
+        imageView.setFitWidth(FishImageService.DISPLAY_WIDTH);
+        imageView.setPreserveRatio(true);
+        imageView.getStyleClass().add("popup-image");
+
+        Button closeBtn = new Button("Close");
+        closeBtn.setOnAction(e -> stage.hide());
+
+        VBox layout = new VBox(10, imageView, name, details, price, place, status, date, closeBtn);
+        layout.setPadding(new Insets(20));
+        layout.getStyleClass().add("popup-pane");
+        layout.setAlignment(Pos.CENTER);
+
+        Scene scene = new Scene(layout, 300, 500);
+        scene.getStylesheets().add(getClass().getResource("/com/example/demo3/style.css").toExternalForm());
+        stage.setScene(scene);
+    }
+
+    /**
+     * Show a fish, reusing the open window when there is one
+     */
+    public void show(FishPrice fish) {
+        imageView.setImage(FishImageService.getInstance().get(fish.getImage()));
+        name.setText("Name: " + fish.getFishName());
+        details.setText("Details: " + fish.getFishDetails());
+        price.setText("Price: Rs. " + fish.getTodayPrice());
+        place.setText("Place: " + fish.getPlace());
+        status.setText("Status: " + fish.getStatus());
+        date.setText("Date: " + fish.getDate());
+
+        if (!stage.isShowing()) {
+            stage.show();
+        }
+        stage.toFront();
+    }
+
+    public void close() {
+        stage.hide();
+    }
+}
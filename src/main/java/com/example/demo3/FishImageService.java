@@ -0,0 +1,64 @@
+package com.example.demo3;
+
+import javafx.scene.image.Image;
+
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fish pictures for the detail popup, decoded in the background at display size.
+ * Decoded images are kept in a small LRU cache, and rows shown in the price table
+ * prefetch their picture so the popup usually finds it ready.
+ */
+public class FishImageService {
+
+    private static final FishImageService INSTANCE = new FishImageService();
+
+    public static final double DISPLAY_WIDTH = 200;
+
+    private static final int MAX_CACHED = 64;
+
+    private final Map<String, Image> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+
+    private FishImageService() {
+    }
+
+    public static FishImageService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Picture for an image file name, possibly still loading; null when there is no such image.
+     * Bind to the image's progress or just show it, JavaFX paints it once decoded.
+     */
+    public synchronized Image get(String imageName) {
+        if (imageName == null || imageName.isBlank()) {
+            return null;
+        }
+        Image image = cache.get(imageName);
+        if (image != null && !image.isError()) {
+            return image;
+        }
+        URL url = getClass().getResource("/images/" + imageName);
+        if (url == null) {
+            return null;
+        }
+        // Decode on the background loader, scaled to the popup width instead of full resolution
+        image = new Image(url.toExternalForm(), DISPLAY_WIDTH, 0, true, true, true);
+        cache.put(imageName, image);
+        return image;
+    }
+
+    /**
+     * Start loading a picture ahead of time
+     */
+    public void prefetch(String imageName) {
+        get(imageName);
+    }
+}
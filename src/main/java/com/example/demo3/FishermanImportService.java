@@ -0,0 +1,233 @@
+package com.example.demo3;
+
+import Model.User;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static Connection.DBConnection.getConnection;
+
+/**
+ * Bulk import of fishermen from CSV files.
+ * Rows are validated up front, then inserted with JDBC batches in chunked
+ * transactions so a bad chunk is rolled back without losing the others.
+ * A cancelled import stops between chunks and keeps the chunks already committed.
+ * Expected columns: name, age, fishingDay, address, contact (header row optional).
+ */
+public class FishermanImportService {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO fishman (name, age, fishingDay, address, contact) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * Parsed file: rows that passed validation plus one message per rejected line
+     */
+    public static class ImportPreview {
+        private final List<User> validRows = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+
+        public List<User> getValidRows() { return validRows; }
+        public List<String> getErrors() { return errors; }
+    }
+
+    /**
+     * Outcome of an import run
+     */
+    public static class ImportResult {
+        private final int inserted;
+        private final int failed;
+        private final int skipped;
+        private final long millis;
+        private final List<String> errors;
+
+        ImportResult(int inserted, int failed, int skipped, long millis, List<String> errors) {
+            this.inserted = inserted;
+            this.failed = failed;
+            this.skipped = skipped;
+            this.millis = millis;
+            this.errors = errors;
+        }
+
+        public int getInserted() { return inserted; }
+        public int getFailed() { return failed; }
+        /** Rows not attempted because the import was cancelled */
+        public int getSkipped() { return skipped; }
+        public boolean isCancelled() { return skipped > 0; }
+        public long getMillis() { return millis; }
+        public List<String> getErrors() { return errors; }
+
+        public double getRowsPerSecond() {
+            return millis == 0 ? inserted : inserted * 1000.0 / millis;
+        }
+    }
+
+    /**
+     * Receives progress after each committed or rolled back chunk
+     */
+    public interface ProgressListener {
+        void onProgress(int processed, int total, double rowsPerSecond);
+    }
+
+    /**
+     * Read and validate a CSV file
+     */
+    public static ImportPreview parse(File file) throws IOException {
+        ImportPreview preview = new ImportPreview();
+
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = splitCsvLine(line);
+                if (lineNumber == 1 && !fields.isEmpty() && "name".equalsIgnoreCase(fields.get(0).trim())) {
+                    continue; // header row
+                }
+
+                String error = validate(fields);
+                if (error != null) {
+                    preview.getErrors().add("Line " + lineNumber + ": " + error);
+                    continue;
+                }
+                preview.getValidRows().add(new User(
+                        fields.get(0).trim(),
+                        Integer.parseInt(fields.get(1).trim()),
+                        fields.get(2).trim(),
+                        fields.get(3).trim(),
+                        fields.get(4).trim()));
+            }
+        }
+        return preview;
+    }
+
+    private static String validate(List<String> fields) {
+        if (fields.size() < 5) {
+            return "expected 5 columns but found " + fields.size();
+        }
+        if (fields.get(0).isBlank()) {
+            return "name is required";
+        }
+        try {
+            int age = Integer.parseInt(fields.get(1).trim());
+            if (age < 10 || age > 100) {
+                return "age " + age + " is out of range";
+            }
+        } catch (NumberFormatException e) {
+            return "age '" + fields.get(1) + "' is not a number";
+        }
+        if (fields.get(4).isBlank()) {
+            return "contact is required";
+        }
+        return null;
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted fields
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (inQuotes) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    inQuotes = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    /**
+     * Insert rows in batches, committing every chunk on its own transaction.
+     * cancelled is checked before each chunk; may be null.
+     */
+    public static ImportResult importUsers(List<User> users, int chunkSize, ProgressListener listener,
+                                           BooleanSupplier cancelled) {
+        long start = System.currentTimeMillis();
+        int inserted = 0;
+        int failed = 0;
+        int skipped = 0;
+        List<String> errors = new ArrayList<>();
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+
+            conn.setAutoCommit(false);
+
+            for (int from = 0; from < users.size(); from += chunkSize) {
+                if (cancelled != null && cancelled.getAsBoolean()) {
+                    skipped = users.size() - from;
+                    errors.add("Import cancelled before row " + (from + 1));
+                    break;
+                }
+                int to = Math.min(from + chunkSize, users.size());
+                try {
+                    for (int i = from; i < to; i++) {
+                        User user = users.get(i);
+                        stmt.setString(1, user.getName());
+                        stmt.setInt(2, user.getAge());
+                        stmt.setString(3, user.getFishingDay());
+                        stmt.setString(4, user.getAddress());
+                        stmt.setString(5, user.getContact());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                    conn.commit();
+                    inserted += to - from;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    stmt.clearBatch();
+                    failed += to - from;
+                    errors.add("Rows " + (from + 1) + "-" + to + " rolled back: " + e.getMessage());
+                }
+
+                if (listener != null) {
+                    long elapsed = Math.max(1, System.currentTimeMillis() - start);
+                    listener.onProgress(to, users.size(), inserted * 1000.0 / elapsed);
+                }
+            }
+
+            conn.setAutoCommit(true);
+
+        } catch (SQLException | NullPointerException e) {
+            e.printStackTrace();
+            errors.add("Import aborted: " + e.getMessage());
+            failed = users.size() - inserted;
+        }
+
+        ImportResult result = new ImportResult(inserted, failed, skipped, System.currentTimeMillis() - start, errors);
+        System.out.println(String.format("Imported %d fishermen (%d failed, %d skipped) in %d ms - %.0f rows/s",
+                result.getInserted(), result.getFailed(), result.getSkipped(), result.getMillis(),
+                result.getRowsPerSecond()));
+        return result;
+    }
+}
@@ -0,0 +1,535 @@
+package com.example.demo3;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Live boat positions and the number of boats at sea per harbor.
+ * Position reports arrive as NMEA-style sentences, from a UDP socket or a log file
+ * that is followed like tail -f:
+ * <pre>$PFISH,&lt;vessel id&gt;,&lt;lat&gt;,&lt;lon&gt;,&lt;speed kn&gt;,&lt;course deg&gt;*&lt;checksum&gt;</pre>
+ * The latest position of each vessel sits in a uniform grid over Sri Lankan waters.
+ * Every grid cell knows its nearest harbor, so a report moves the vessel between cells
+ * and adjusts the per-harbor counts in constant time.
+ */
+public class FleetTracker {
+
+    // Grid over Sri Lanka and its fishing grounds
+    public static final double MIN_LAT = 5.0;
+    public static final double MAX_LAT = 10.5;
+    public static final double MIN_LON = 79.0;
+    public static final double MAX_LON = 82.5;
+    public static final double CELL_DEG = 0.02;
+
+    private static final int ROWS = (int) Math.ceil((MAX_LAT - MIN_LAT) / CELL_DEG);
+    private static final int COLS = (int) Math.ceil((MAX_LON - MIN_LON) / CELL_DEG);
+
+    /** A boat counts as at sea this far from its nearest harbor */
+    private static final double AT_SEA_KM = 1.0;
+    /** Boats that have not reported for this long are no longer active */
+    private static final long ACTIVE_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    // Created after the grid constants it depends on
+    private static final FleetTracker INSTANCE = new FleetTracker();
+
+    /**
+     * Receives vessels from spatial queries without allocating per vessel
+     */
+    public interface VesselVisitor {
+        void visit(int vesselId, double latitude, double longitude, int harborIndex);
+    }
+
+    /**
+     * Told when a tracked boat leaves harbor for sea or comes back in, and when a boat at sea
+     * stops reporting. A lost boat that reports again from sea counts as departed again.
+     */
+    public interface TripListener {
+        void departed(int vesselId, String harbor);
+        void returned(int vesselId, String harbor);
+        void lost(int vesselId, String harbor);
+
+        /**
+         * First report of a vessel since start-up, which may continue or end a trip recorded
+         * before a restart; harbor is where it is attributed at sea, or where it lies when in harbor
+         */
+        void firstSeen(int vesselId, String harbor, boolean atSea);
+    }
+
+    // Nearest harbor per grid cell, computed once
+    private final int[] cellHarbor = new int[ROWS * COLS];
+    private final int[][] cellMembers = new int[ROWS * COLS][];
+    private final int[] cellSize = new int[ROWS * COLS];
+
+    // Vessel state, indexed by a dense internal number
+    private final Map<Integer, Integer> vesselIndex = new HashMap<>();
+    private int vesselCount;
+    private int[] vesselIds = new int[256];
+    private double[] latitudes = new double[256];
+    private double[] longitudes = new double[256];
+    private float[] speeds = new float[256];
+    private float[] courses = new float[256];
+    private long[] lastSeen = new long[256];
+    private int[] cellOf = new int[256];
+    private int[] slotInCell = new int[256];
+    private int[] activeHarbor = new int[256];
+    // Set when a boat went quiet at sea, so its next report is not mistaken for a departure
+    private boolean[] expired = new boolean[256];
+
+    private final int[] activeByHarbor = new int[Harbors.all().size()];
+    private int activeTotal;
+    private long reports;
+    private long rejected;
+
+    private final List<IntConsumer> countListeners = new CopyOnWriteArrayList<>();
+    private final List<TripListener> tripListeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+    private DatagramSocket socket;
+
+    private FleetTracker() {
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLS; col++) {
+                Harbors.Harbor harbor = Harbors.nearest(MIN_LAT + (row + 0.5) * CELL_DEG, MIN_LON + (col + 0.5) * CELL_DEG);
+                cellHarbor[row * COLS + col] = harbor == null ? -1 : harbor.getIndex();
+            }
+        }
+    }
+
+    public static FleetTracker getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Follow the position log (fisheries.fleetFile, default ~/FisheriesData/fleet/positions.log)
+     * and, when fisheries.fleetUdpPort is set, listen for sentences on that UDP port
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        running = true;
+        executor = Executors.newScheduledThreadPool(3, r -> {
+            Thread thread = new Thread(r, "fleet-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Path logFile = Paths.get(System.getProperty("fisheries.fleetFile",
+                System.getProperty("user.home") + "/FisheriesData/fleet/positions.log"));
+        executor.execute(() -> followFile(logFile));
+
+        String port = System.getProperty("fisheries.fleetUdpPort");
+        if (port != null) {
+            executor.execute(() -> listenUdp(Integer.parseInt(port)));
+        }
+
+        executor.scheduleWithFixedDelay(this::expireStale, 1, 1, TimeUnit.MINUTES);
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (socket != null) {
+            socket.close();
+            socket = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Be told the new active-boat total whenever it changes (on the ingesting thread)
+     */
+    public Runnable addCountListener(IntConsumer listener) {
+        countListeners.add(listener);
+        return () -> countListeners.remove(listener);
+    }
+
+    public Runnable addTripListener(TripListener listener) {
+        tripListeners.add(listener);
+        return () -> tripListeners.remove(listener);
+    }
+
+    private void followFile(Path file) {
+        long offset = -1;
+        byte[] buffer = new byte[64 * 1024];
+        StringBuilder line = new StringBuilder();
+        while (running) {
+            try {
+                if (!Files.exists(file)) {
+                    Thread.sleep(1000);
+                    continue;
+                }
+                try (RandomAccessFile in = new RandomAccessFile(file.toFile(), "r")) {
+                    // Start at the end on first open: only new reports matter
+                    if (offset < 0 || offset > in.length()) {
+                        offset = in.length();
+                    }
+                    in.seek(offset);
+                    int read;
+                    while ((read = in.read(buffer)) > 0) {
+                        offset += read;
+                        for (int i = 0; i < read; i++) {
+                            char c = (char) (buffer[i] & 0xff);
+                            if (c == '\n') {
+                                acceptSentence(line.toString());
+                                line.setLength(0);
+                            } else if (c != '\r') {
+                                line.append(c);
+                            }
+                        }
+                    }
+                }
+                Thread.sleep(250);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                System.out.println("Fleet log unreadable: " + e.getMessage());
+            }
+        }
+    }
+
+    private void listenUdp(int port) {
+        try (DatagramSocket udp = new DatagramSocket(port)) {
+            synchronized (this) {
+                socket = udp;
+            }
+            byte[] buffer = new byte[2048];
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            while (running) {
+                udp.receive(packet);
+                // A datagram may carry several sentences
+                String payload = new String(packet.getData(), 0, packet.getLength(), StandardCharsets.US_ASCII);
+                for (String sentence : payload.split("\r?\n")) {
+                    acceptSentence(sentence);
+                }
+            }
+        } catch (SocketException e) {
+            // Socket closed by stop()
+        } catch (IOException e) {
+            System.out.println("Fleet UDP listener stopped: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parse one sentence and apply it; malformed sentences are counted and dropped
+     */
+    public void acceptSentence(String sentence) {
+        if (sentence == null || sentence.isBlank()) {
+            return;
+        }
+        try {
+            String body = checkedBody(sentence.trim());
+            if (body == null) {
+                synchronized (this) {
+                    rejected++;
+                }
+                return;
+            }
+            String[] fields = body.split(",");
+            report(Integer.parseInt(fields[1].trim()),
+                    Double.parseDouble(fields[2].trim()),
+                    Double.parseDouble(fields[3].trim()),
+                    fields.length > 4 && !fields[4].isBlank() ? Float.parseFloat(fields[4].trim()) : 0f,
+                    fields.length > 5 && !fields[5].isBlank() ? Float.parseFloat(fields[5].trim()) : 0f);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                rejected++;
+            }
+        }
+    }
+
+    /**
+     * Sentence body between '$' and '*' when it is a $PFISH sentence with a valid (or no) checksum
+     */
+    private static String checkedBody(String sentence) {
+        if (!sentence.startsWith("$PFISH,")) {
+            return null;
+        }
+        int star = sentence.indexOf('*');
+        String body = sentence.substring(1, star < 0 ? sentence.length() : star);
+        if (star >= 0) {
+            int checksum = 0;
+            for (int i = 0; i < body.length(); i++) {
+                checksum ^= body.charAt(i);
+            }
+            if (checksum != Integer.parseInt(sentence.substring(star + 1).trim(), 16)) {
+                return null;
+            }
+        }
+        return body;
+    }
+
+    /**
+     * Record a vessel's latest position; O(1) apart from occasional array growth
+     */
+    public void report(int vesselId, double latitude, double longitude, float speedKnots, float courseDeg) {
+        int total;
+        String departedFrom = null;
+        String returnedTo = null;
+        boolean firstReport;
+        String firstSeenAt = null;
+        boolean firstSeenAtSea = false;
+        synchronized (this) {
+            reports++;
+            Integer index = vesselIndex.get(vesselId);
+            int v;
+            if (index == null) {
+                v = addVessel(vesselId);
+            } else {
+                v = index;
+            }
+            boolean known = index != null && !expired[v];
+            boolean wasLost = index != null && expired[v];
+            expired[v] = false;
+            latitudes[v] = latitude;
+            longitudes[v] = longitude;
+            speeds[v] = speedKnots;
+            courses[v] = courseDeg;
+            lastSeen[v] = System.currentTimeMillis();
+
+            int cell = cellIndex(latitude, longitude);
+            if (cell != cellOf[v]) {
+                removeFromCell(v);
+                addToCell(v, cell);
+            }
+
+            int before = activeTotal;
+            int previousHarbor = activeHarbor[v];
+            int harbor = atSeaHarbor(cell, latitude, longitude);
+            setActiveHarbor(v, harbor);
+            firstReport = index == null;
+            if (firstReport) {
+                firstSeenAtSea = harbor >= 0;
+                firstSeenAt = firstSeenAtSea ? Harbors.all().get(harbor).getName() : arrivalHarbor(cell, latitude, longitude);
+            } else if ((known && previousHarbor < 0 || wasLost) && harbor >= 0) {
+                departedFrom = Harbors.all().get(harbor).getName();
+            } else if (known && previousHarbor >= 0 && harbor < 0) {
+                returnedTo = arrivalHarbor(cell, latitude, longitude);
+            }
+            total = activeTotal == before ? -1 : activeTotal;
+        }
+        for (TripListener listener : tripListeners) {
+            if (firstReport) {
+                listener.firstSeen(vesselId, firstSeenAt, firstSeenAtSea);
+            } else if (departedFrom != null) {
+                listener.departed(vesselId, departedFrom);
+            } else if (returnedTo != null) {
+                listener.returned(vesselId, returnedTo);
+            }
+        }
+        if (total >= 0) {
+            for (IntConsumer listener : countListeners) {
+                listener.accept(total);
+            }
+        }
+    }
+
+    /**
+     * Name of the harbor a vessel in harbor at this position lies in
+     */
+    private String arrivalHarbor(int cell, double latitude, double longitude) {
+        Harbors.Harbor arrival = cell >= 0 && cellHarbor[cell] >= 0
+                ? Harbors.all().get(cellHarbor[cell]) : Harbors.nearest(latitude, longitude);
+        return arrival == null ? null : arrival.getName();
+    }
+
+    /**
+     * Harbor a vessel at this position is attributed to while at sea, or -1 when it is in harbor
+     */
+    private int atSeaHarbor(int cell, double latitude, double longitude) {
+        int harborIndex;
+        if (cell >= 0) {
+            harborIndex = cellHarbor[cell];
+        } else {
+            Harbors.Harbor nearest = Harbors.nearest(latitude, longitude);
+            harborIndex = nearest == null ? -1 : nearest.getIndex();
+        }
+        if (harborIndex < 0) {
+            return -1;
+        }
+        Harbors.Harbor harbor = Harbors.all().get(harborIndex);
+        double km = Harbors.distanceKm(latitude, longitude, harbor.getLatitude(), harbor.getLongitude());
+        return km > AT_SEA_KM ? harborIndex : -1;
+    }
+
+    private void setActiveHarbor(int v, int harborIndex) {
+        int previous = activeHarbor[v];
+        if (previous == harborIndex) {
+            return;
+        }
+        if (previous >= 0) {
+            activeByHarbor[previous]--;
+            activeTotal--;
+        }
+        if (harborIndex >= 0) {
+            activeByHarbor[harborIndex]++;
+            activeTotal++;
+        }
+        activeHarbor[v] = harborIndex;
+    }
+
+    private void expireStale() {
+        int total;
+        List<int[]> lost = new ArrayList<>();
+        synchronized (this) {
+            long cutoff = System.currentTimeMillis() - ACTIVE_WINDOW_MILLIS;
+            int before = activeTotal;
+            for (int v = 0; v < vesselCount; v++) {
+                if (activeHarbor[v] >= 0 && lastSeen[v] < cutoff) {
+                    lost.add(new int[]{vesselIds[v], activeHarbor[v]});
+                    setActiveHarbor(v, -1);
+                    expired[v] = true;
+                }
+            }
+            if (activeTotal == before) {
+                return;
+            }
+            total = activeTotal;
+        }
+        for (int[] vessel : lost) {
+            String harbor = Harbors.all().get(vessel[1]).getName();
+            for (TripListener listener : tripListeners) {
+                listener.lost(vessel[0], harbor);
+            }
+        }
+        for (IntConsumer listener : countListeners) {
+            listener.accept(total);
+        }
+    }
+
+    private int addVessel(int vesselId) {
+        if (vesselCount == vesselIds.length) {
+            int capacity = vesselCount * 2;
+            vesselIds = Arrays.copyOf(vesselIds, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            speeds = Arrays.copyOf(speeds, capacity);
+            courses = Arrays.copyOf(courses, capacity);
+            lastSeen = Arrays.copyOf(lastSeen, capacity);
+            cellOf = Arrays.copyOf(cellOf, capacity);
+            slotInCell = Arrays.copyOf(slotInCell, capacity);
+            activeHarbor = Arrays.copyOf(activeHarbor, capacity);
+            expired = Arrays.copyOf(expired, capacity);
+        }
+        int v = vesselCount++;
+        vesselIds[v] = vesselId;
+        cellOf[v] = -1;
+        activeHarbor[v] = -1;
+        vesselIndex.put(vesselId, v);
+        return v;
+    }
+
+    private static int cellIndex(double latitude, double longitude) {
+        if (latitude < MIN_LAT || latitude >= MAX_LAT || longitude < MIN_LON || longitude >= MAX_LON) {
+            return -1;
+        }
+        int row = (int) ((latitude - MIN_LAT) / CELL_DEG);
+        int col = (int) ((longitude - MIN_LON) / CELL_DEG);
+        return row * COLS + col;
+    }
+
+    private void addToCell(int v, int cell) {
+        cellOf[v] = cell;
+        if (cell < 0) {
+            return;
+        }
+        int[] members = cellMembers[cell];
+        if (members == null) {
+            members = cellMembers[cell] = new int[4];
+        } else if (cellSize[cell] == members.length) {
+            members = cellMembers[cell] = Arrays.copyOf(members, members.length * 2);
+        }
+        slotInCell[v] = cellSize[cell];
+        members[cellSize[cell]++] = v;
+    }
+
+    private void removeFromCell(int v) {
+        int cell = cellOf[v];
+        if (cell < 0) {
+            return;
+        }
+        // Swap the last member into the freed slot
+        int[] members = cellMembers[cell];
+        int last = members[--cellSize[cell]];
+        members[slotInCell[v]] = last;
+        slotInCell[last] = slotInCell[v];
+        cellOf[v] = -1;
+    }
+
+    /**
+     * Visit vessels with a known position inside a latitude/longitude box
+     */
+    public synchronized void forEachInBox(double minLat, double minLon, double maxLat, double maxLon,
+                                          VesselVisitor visitor) {
+        int firstRow = Math.max(0, (int) ((minLat - MIN_LAT) / CELL_DEG));
+        int lastRow = Math.min(ROWS - 1, (int) ((maxLat - MIN_LAT) / CELL_DEG));
+        int firstCol = Math.max(0, (int) ((minLon - MIN_LON) / CELL_DEG));
+        int lastCol = Math.min(COLS - 1, (int) ((maxLon - MIN_LON) / CELL_DEG));
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                int cell = row * COLS + col;
+                int[] members = cellMembers[cell];
+                for (int i = 0; i < cellSize[cell]; i++) {
+                    int v = members[i];
+                    if (latitudes[v] >= minLat && latitudes[v] <= maxLat
+                            && longitudes[v] >= minLon && longitudes[v] <= maxLon) {
+                        visitor.visit(vesselIds[v], latitudes[v], longitudes[v], activeHarbor[v]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Visit every vessel currently at sea
+     */
+    public synchronized void forEachActive(VesselVisitor visitor) {
+        for (int v = 0; v < vesselCount; v++) {
+            if (activeHarbor[v] >= 0) {
+                visitor.visit(vesselIds[v], latitudes[v], longitudes[v], activeHarbor[v]);
+            }
+        }
+    }
+
+    public synchronized int getActiveCount() {
+        return activeTotal;
+    }
+
+    /**
+     * Boats at sea per harbor, harbors without boats left out
+     */
+    public synchronized Map<String, Integer> getActiveByHarbor() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Harbors.Harbor harbor : Harbors.all()) {
+            if (activeByHarbor[harbor.getIndex()] > 0) {
+                counts.put(harbor.getName(), activeByHarbor[harbor.getIndex()]);
+            }
+        }
+        return counts;
+    }
+
+    public synchronized int getVesselCount() { return vesselCount; }
+    public synchronized long getReportCount() { return reports; }
+    public synchronized long getRejectedCount() { return rejected; }
+}
@@ -0,0 +1,268 @@
+package com.example.demo3;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hourly forecast on a coarse grid over Sri Lankan waters, answered locally for any point.
+ * The grid is fetched tile by tile (one multi-location request per API and tile) every hour
+ * and kept as one float[row][col] array per variable and hour. A point is bilinearly
+ * interpolated from its four surrounding grid points; grid points on land have no marine
+ * values, so the weights are renormalised over the corners that do.
+ */
+public class ForecastGrid implements DangerZoneMonitor.ConditionSource {
+
+    public static final double MIN_LAT = 5.0;
+    public static final double MAX_LAT = 10.5;
+    public static final double MIN_LON = 79.0;
+    public static final double MAX_LON = 82.5;
+    public static final double STEP_DEG = 0.25;
+
+    private static final int ROWS = (int) Math.round((MAX_LAT - MIN_LAT) / STEP_DEG) + 1;
+    private static final int COLS = (int) Math.round((MAX_LON - MIN_LON) / STEP_DEG) + 1;
+    /** Grid points per tile side; a tile is one request of at most 64 locations */
+    private static final int TILE = 8;
+
+    private static final ForecastGrid INSTANCE = new ForecastGrid();
+
+    /**
+     * One complete load of the grid; replaced as a whole so readers never see a mix
+     */
+    private static class Snapshot {
+        final LocalDateTime start;
+        final int hours;
+        // [input][hour][row][col], NaN where the API had no value
+        final float[][][][] values;
+
+        Snapshot(LocalDateTime start, int hours, float[][][][] values) {
+            this.start = start;
+            this.hours = hours;
+            this.values = values;
+        }
+    }
+
+    private volatile Snapshot snapshot;
+    // Hour used by the vessel monitor, fixed per tick in refresh()
+    private volatile int monitorHour;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService executor;
+
+    private ForecastGrid() {
+    }
+
+    public static ForecastGrid getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "forecast-grid");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::load, 0, 1, TimeUnit.HOURS);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Be notified after a new grid was loaded (on the loading thread)
+     */
+    public Runnable addListener(Runnable listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    public static boolean covers(double latitude, double longitude) {
+        return latitude >= MIN_LAT && latitude <= MAX_LAT && longitude >= MIN_LON && longitude <= MAX_LON;
+    }
+
+    /**
+     * First forecast hour of the loaded grid, or null before the first load
+     */
+    public LocalDateTime getStart() {
+        Snapshot grid = snapshot;
+        return grid == null ? null : grid.start;
+    }
+
+    public int getHours() {
+        Snapshot grid = snapshot;
+        return grid == null ? 0 : grid.hours;
+    }
+
+    /**
+     * Interpolated value of one SafetyRules input at a point and forecast hour,
+     * NaN outside the grid, outside the forecast or where no corner has a value
+     */
+    public double valueAt(int input, int hour, double latitude, double longitude) {
+        Snapshot grid = snapshot;
+        if (grid == null || hour < 0 || hour >= grid.hours || !covers(latitude, longitude)) {
+            return Double.NaN;
+        }
+        return interpolate(grid.values[input][hour], latitude, longitude);
+    }
+
+    /**
+     * Hour index of a time in the loaded grid, or -1 when it is not covered
+     */
+    public int hourOf(LocalDateTime time) {
+        Snapshot grid = snapshot;
+        if (grid == null) {
+            return -1;
+        }
+        long hour = ChronoUnit.HOURS.between(grid.start, time.truncatedTo(ChronoUnit.HOURS));
+        return hour >= 0 && hour < grid.hours ? (int) hour : -1;
+    }
+
+    /**
+     * Vessel monitor: conditions at the current hour
+     */
+    @Override
+    public void refresh() {
+        monitorHour = hourOf(HarborForecasts.now());
+    }
+
+    @Override
+    public boolean sample(double latitude, double longitude, int harborIndex, double[] out) {
+        Snapshot grid = snapshot;
+        int hour = monitorHour;
+        if (grid == null || hour < 0 || hour >= grid.hours || !covers(latitude, longitude)) {
+            return false;
+        }
+        boolean any = false;
+        for (int input = 0; input < SafetyRules.INPUT_COUNT; input++) {
+            out[input] = interpolate(grid.values[input][hour], latitude, longitude);
+            any |= !Double.isNaN(out[input]);
+        }
+        return any;
+    }
+
+    private static double interpolate(float[][] field, double latitude, double longitude) {
+        double y = (latitude - MIN_LAT) / STEP_DEG;
+        double x = (longitude - MIN_LON) / STEP_DEG;
+        int row = Math.min(ROWS - 2, (int) y);
+        int col = Math.min(COLS - 2, (int) x);
+        double fy = y - row;
+        double fx = x - col;
+
+        double sum = 0;
+        double weight = 0;
+        double w00 = (1 - fy) * (1 - fx);
+        double w01 = (1 - fy) * fx;
+        double w10 = fy * (1 - fx);
+        double w11 = fy * fx;
+        float v00 = field[row][col];
+        float v01 = field[row][col + 1];
+        float v10 = field[row + 1][col];
+        float v11 = field[row + 1][col + 1];
+        if (!Float.isNaN(v00)) { sum += w00 * v00; weight += w00; }
+        if (!Float.isNaN(v01)) { sum += w01 * v01; weight += w01; }
+        if (!Float.isNaN(v10)) { sum += w10 * v10; weight += w10; }
+        if (!Float.isNaN(v11)) { sum += w11 * v11; weight += w11; }
+        return weight > 0 ? sum / weight : Double.NaN;
+    }
+
+    private void load() {
+        float[][][][] values = null;
+        LocalDateTime start = null;
+        int hours = 0;
+        try {
+            for (int tileRow = 0; tileRow < ROWS; tileRow += TILE) {
+                for (int tileCol = 0; tileCol < COLS; tileCol += TILE) {
+                    int rows = Math.min(TILE, ROWS - tileRow);
+                    int cols = Math.min(TILE, COLS - tileCol);
+                    JSONArray[] tile = fetchTile(tileRow, tileCol, rows, cols);
+                    for (int i = 0; i < rows * cols; i++) {
+                        JSONObject marine = tile[0].getJSONObject(i).getJSONObject("hourly");
+                        JSONObject weather = tile[1].getJSONObject(i).getJSONObject("hourly");
+                        if (values == null) {
+                            hours = HarborForecasts.hourCount(marine, weather);
+                            start = LocalDateTime.parse(marine.getJSONArray("time").getString(0));
+                            values = newGrid(hours);
+                        }
+                        double[][] columns = HarborForecasts.hourlyColumns(marine, weather, hours);
+                        int row = tileRow + i / cols;
+                        int col = tileCol + i % cols;
+                        for (int input = 0; input < SafetyRules.INPUT_COUNT; input++) {
+                            for (int h = 0; h < hours; h++) {
+                                values[input][h][row][col] = (float) columns[input][h];
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Keep serving the previous grid
+            System.out.println("Forecast grid not refreshed: " + e.getMessage());
+            return;
+        }
+        if (values == null) {
+            return;
+        }
+        snapshot = new Snapshot(start, hours, values);
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Marine and weather forecasts for the points of one tile, in row-major order
+     */
+    private static JSONArray[] fetchTile(int tileRow, int tileCol, int rows, int cols) throws IOException {
+        StringBuilder latitudes = new StringBuilder();
+        StringBuilder longitudes = new StringBuilder();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (latitudes.length() > 0) {
+                    latitudes.append(',');
+                    longitudes.append(',');
+                }
+                latitudes.append(String.format(Locale.ROOT, "%.2f", MIN_LAT + (tileRow + r) * STEP_DEG));
+                longitudes.append(String.format(Locale.ROOT, "%.2f", MIN_LON + (tileCol + c) * STEP_DEG));
+            }
+        }
+        String query = "?latitude=" + latitudes + "&longitude=" + longitudes
+                + "&forecast_days=" + HarborForecasts.FORECAST_DAYS + "&timezone=" + HarborForecasts.TIMEZONE;
+        JSONArray marine = WeatherApi.fetchJsonArray(WeatherApi.MARINE_URL + query + HarborForecasts.MARINE_HOURLY);
+        JSONArray weather = WeatherApi.fetchJsonArray(WeatherApi.FORECAST_URL + query + HarborForecasts.WEATHER_HOURLY);
+        if (marine.length() < rows * cols || weather.length() < rows * cols) {
+            throw new IllegalStateException("incomplete tile at row " + tileRow + ", column " + tileCol);
+        }
+        return new JSONArray[]{marine, weather};
+    }
+
+    private static float[][][][] newGrid(int hours) {
+        float[][][][] values = new float[SafetyRules.INPUT_COUNT][hours][ROWS][COLS];
+        for (float[][][] input : values) {
+            for (float[][] hour : input) {
+                for (float[] row : hour) {
+                    Arrays.fill(row, Float.NaN);
+                }
+            }
+        }
+        return values;
+    }
+}
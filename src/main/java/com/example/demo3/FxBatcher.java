@@ -0,0 +1,58 @@
+package com.example.demo3;
+
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Collects items from any thread and hands them to the FX thread in one batch per pulse.
+ * A burst of thousands of changes turns into a single runLater and a single UI update.
+ */
+public class FxBatcher<T> {
+
+    private final Consumer<List<T>> consumer;
+    private List<T> pending = new ArrayList<>();
+    private boolean scheduled;
+
+    public FxBatcher(Consumer<List<T>> consumer) {
+        this.consumer = consumer;
+    }
+
+    public void add(T item) {
+        synchronized (this) {
+            pending.add(item);
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        Platform.runLater(this::drain);
+    }
+
+    public void addAll(Collection<? extends T> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            pending.addAll(items);
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        Platform.runLater(this::drain);
+    }
+
+    private void drain() {
+        List<T> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new ArrayList<>();
+            scheduled = false;
+        }
+        consumer.accept(batch);
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.demo3;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Offline place names for the location search: the fishing harbors plus the towns and
+ * landing sites in gazetteer.csv. Every name, alias and word of a name is a key in one
+ * sorted array, so a prefix lookup is a binary search followed by a short scan; when that
+ * finds too little, keys are compared by edit distance to allow for typos.
+ */
+public final class Gazetteer {
+
+    public static final String HARBOR = "harbor";
+    public static final String LANDING = "landing";
+    public static final String TOWN = "town";
+
+    private static final Gazetteer INSTANCE = new Gazetteer();
+
+    /**
+     * A named location
+     */
+    public static class Place {
+        private final String name;
+        private final String type;
+        private final double latitude;
+        private final double longitude;
+
+        Place(String name, String type, double latitude, double longitude) {
+            this.name = name;
+            this.type = type;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        public String getName() { return name; }
+        public String getType() { return type; }
+        public double getLatitude() { return latitude; }
+        public double getLongitude() { return longitude; }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final Comparator<Place> BY_TYPE_AND_NAME = Comparator
+            .comparingInt((Place p) -> HARBOR.equals(p.type) ? 0 : LANDING.equals(p.type) ? 1 : 2)
+            .thenComparing(Place::getName);
+
+    private final List<Place> places = new ArrayList<>();
+    // Sorted normalised keys and the place each one belongs to
+    private String[] keys;
+    private int[] keyPlace;
+
+    private Gazetteer() {
+        for (Harbors.Harbor harbor : Harbors.all()) {
+            places.add(new Place(harbor.getName(), HARBOR, harbor.getLatitude(), harbor.getLongitude()));
+        }
+        List<String[]> aliases = new ArrayList<>();
+        load(aliases);
+        buildIndex(aliases);
+    }
+
+    public static Gazetteer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Places for a partly typed name: prefix matches on any word first, then close misspellings
+     */
+    public List<Place> suggest(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+        List<Place> prefixMatches = new ArrayList<>();
+        Set<Integer> seen = new LinkedHashSet<>();
+        for (int k = lowerBound(q); k < keys.length && keys[k].startsWith(q); k++) {
+            if (seen.add(keyPlace[k])) {
+                prefixMatches.add(places.get(keyPlace[k]));
+            }
+        }
+        prefixMatches.sort(BY_TYPE_AND_NAME);
+        List<Place> result = new ArrayList<>(prefixMatches.subList(0, Math.min(limit, prefixMatches.size())));
+
+        int maxEdits = q.length() < 4 ? 0 : q.length() <= 6 ? 1 : 2;
+        if (result.size() < limit && maxEdits > 0) {
+            // Best edit distance per place, over all of its keys
+            int[] best = new int[places.size()];
+            Arrays.fill(best, Integer.MAX_VALUE);
+            for (int k = 0; k < keys.length; k++) {
+                if (!seen.contains(keyPlace[k])) {
+                    best[keyPlace[k]] = Math.min(best[keyPlace[k]], prefixDistance(q, keys[k], maxEdits));
+                }
+            }
+            List<Integer> fuzzy = new ArrayList<>();
+            for (int p = 0; p < best.length; p++) {
+                if (best[p] <= maxEdits) {
+                    fuzzy.add(p);
+                }
+            }
+            fuzzy.sort(Comparator.<Integer>comparingInt(p -> best[p])
+                    .thenComparing(p -> places.get(p), BY_TYPE_AND_NAME));
+            for (int i = 0; i < fuzzy.size() && result.size() < limit; i++) {
+                result.add(places.get(fuzzy.get(i)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Place for a full name or alias, ignoring case and a trailing ", Sri Lanka"; null when unknown
+     */
+    public Place resolve(String name) {
+        if (name == null) {
+            return null;
+        }
+        int comma = name.indexOf(',');
+        String q = normalize(comma >= 0 ? name.substring(0, comma) : name);
+        if (q.isEmpty()) {
+            return null;
+        }
+        Place match = null;
+        for (int k = lowerBound(q); k < keys.length && keys[k].equals(q); k++) {
+            Place place = places.get(keyPlace[k]);
+            // A word key ("bay") can equal the query too; prefer the place whose full name it is
+            if (normalize(place.name).equals(q) || match == null) {
+                match = place;
+            }
+        }
+        return match;
+    }
+
+    private void load(List<String[]> aliases) {
+        try (InputStream in = Gazetteer.class.getResourceAsStream("/com/example/demo3/gazetteer.csv")) {
+            if (in == null) {
+                return;
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                places.add(new Place(fields[0].trim(), fields[1].trim(),
+                        Double.parseDouble(fields[2].trim()), Double.parseDouble(fields[3].trim())));
+                if (fields.length > 4) {
+                    aliases.add(new String[]{String.valueOf(places.size() - 1), fields[4].trim()});
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Gazetteer could not be loaded: " + e.getMessage());
+        }
+    }
+
+    private void buildIndex(List<String[]> aliases) {
+        List<String> keyList = new ArrayList<>();
+        List<Integer> placeList = new ArrayList<>();
+        for (int p = 0; p < places.size(); p++) {
+            addKeys(places.get(p).name, p, keyList, placeList);
+        }
+        for (String[] alias : aliases) {
+            for (String name : alias[1].split("\\|")) {
+                addKeys(name, Integer.parseInt(alias[0]), keyList, placeList);
+            }
+        }
+
+        Integer[] order = new Integer[keyList.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(keyList::get));
+        keys = new String[order.length];
+        keyPlace = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            keys[i] = keyList.get(order[i]);
+            keyPlace[i] = placeList.get(order[i]);
+        }
+    }
+
+    /**
+     * The whole name plus every later word, so "lav" finds Mount Lavinia
+     */
+    private static void addKeys(String name, int place, List<String> keyList, List<Integer> placeList) {
+        String key = normalize(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        keyList.add(key);
+        placeList.add(place);
+        for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+            keyList.add(key.substring(i + 1));
+            placeList.add(place);
+        }
+    }
+
+    private int lowerBound(String q) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(q) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Fewest edits turning the query into some prefix of the key, or maxEdits + 1 when
+     * that is more than maxEdits (rows are abandoned as soon as they cannot get there)
+     */
+    private static int prefixDistance(String query, String key, int maxEdits) {
+        int n = key.length();
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= query.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char c = query.charAt(i - 1);
+            for (int j = 1; j <= n; j++) {
+                int cost = c == key.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int j = 0; j <= n; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    /**
+     * Lower case letters and single spaces only
+     */
+    static String normalize(String text) {
+        StringBuilder key = new StringBuilder(text.length());
+        boolean space = false;
+        for (char c : text.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                if (space && key.length() > 0) {
+                    key.append(' ');
+                }
+                key.append(c);
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return key.toString();
+    }
+}
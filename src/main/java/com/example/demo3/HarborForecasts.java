@@ -0,0 +1,248 @@
+package com.example.demo3;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Hourly seven-day forecasts for every harbor, refreshed in the background every hour.
+ * All harbors are fetched with one multi-location request per API, and each harbor's
+ * forecast is kept as columns indexed by SafetyRules input so it can be scored in batch.
+ */
+public class HarborForecasts {
+
+    private static final HarborForecasts INSTANCE = new HarborForecasts();
+
+    static final int FORECAST_DAYS = 7;
+    static final String TIMEZONE = "Asia/Colombo";
+    static final String MARINE_HOURLY = "&hourly=wave_height,wind_wave_height";
+    static final String WEATHER_HOURLY = "&hourly=wind_speed_10m,visibility,precipitation";
+    // Only needed for reports, so only fetched for the harbors and not for the grid
+    private static final String REPORT_MARINE_HOURLY = ",sea_surface_temperature";
+    private static final String REPORT_WEATHER_HOURLY = ",temperature_2m,relative_humidity_2m,pressure_msl,uv_index,weather_code";
+
+    // Indexes of the report columns
+    public static final int TEMPERATURE = 0;
+    public static final int SEA_TEMPERATURE = 1;
+    public static final int HUMIDITY = 2;
+    public static final int PRESSURE = 3;
+    public static final int UV_INDEX = 4;
+    public static final int WEATHER_CODE = 5;
+    static final int REPORT_COLUMN_COUNT = 6;
+
+    /**
+     * Hourly forecast of one harbor
+     */
+    public static class Forecast {
+        private final Harbors.Harbor harbor;
+        private final LocalDateTime start;
+        private final int hours;
+        private final double[][] columns;
+        private final double[][] reportColumns;
+
+        Forecast(Harbors.Harbor harbor, LocalDateTime start, int hours, double[][] columns, double[][] reportColumns) {
+            this.harbor = harbor;
+            this.start = start;
+            this.hours = hours;
+            this.columns = columns;
+            this.reportColumns = reportColumns;
+        }
+
+        public Harbors.Harbor getHarbor() { return harbor; }
+        /** Time of the first hour */
+        public LocalDateTime getStart() { return start; }
+        public int getHours() { return hours; }
+        /** Values per SafetyRules input, NaN where the API had no value; do not modify */
+        public double[][] getColumns() { return columns; }
+        /** Values per report column (TEMPERATURE ... WEATHER_CODE), NaN where unknown; do not modify */
+        public double[][] getReportColumns() { return reportColumns; }
+
+        /**
+         * Index of the hour containing a local time, or -1 when the forecast does not cover it
+         */
+        public int hourOf(LocalDateTime time) {
+            long hour = ChronoUnit.HOURS.between(start, time.truncatedTo(ChronoUnit.HOURS));
+            return hour >= 0 && hour < hours ? (int) hour : -1;
+        }
+    }
+
+    private volatile List<Forecast> forecasts = Collections.emptyList();
+    private volatile long version;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService executor;
+
+    private HarborForecasts() {
+    }
+
+    public static HarborForecasts getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "harbor-forecasts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::refresh, 0, 1, TimeUnit.HOURS);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Be notified after new forecasts were loaded (on the refresh thread)
+     */
+    public Runnable addListener(Runnable listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Latest forecasts, one per harbor that the APIs answered for
+     */
+    public List<Forecast> getForecasts() {
+        return forecasts;
+    }
+
+    /**
+     * Latest forecast of a harbor by name (ignoring case), or null when there is none
+     */
+    public Forecast getForecast(String harborName) {
+        for (Forecast forecast : forecasts) {
+            if (forecast.getHarbor().getName().equalsIgnoreCase(harborName.trim())) {
+                return forecast;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Current time in the forecasts' timezone, which need not be the machine's
+     */
+    public static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of(TIMEZONE));
+    }
+
+    /**
+     * Increases with every refresh, so caches can tell when they are stale
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    private void refresh() {
+        List<Harbors.Harbor> harbors = Harbors.all();
+        if (harbors.isEmpty()) {
+            return;
+        }
+        String latitudes = harbors.stream()
+                .map(h -> String.format(Locale.ROOT, "%.4f", h.getLatitude())).collect(Collectors.joining(","));
+        String longitudes = harbors.stream()
+                .map(h -> String.format(Locale.ROOT, "%.4f", h.getLongitude())).collect(Collectors.joining(","));
+        String query = "?latitude=" + latitudes + "&longitude=" + longitudes
+                + "&forecast_days=" + FORECAST_DAYS + "&timezone=" + TIMEZONE;
+
+        try {
+            JSONArray marine = WeatherApi.fetchJsonArray(
+                    WeatherApi.MARINE_URL + query + MARINE_HOURLY + REPORT_MARINE_HOURLY);
+            JSONArray weather = WeatherApi.fetchJsonArray(
+                    WeatherApi.FORECAST_URL + query + WEATHER_HOURLY + REPORT_WEATHER_HOURLY);
+
+            List<Forecast> loaded = new ArrayList<>(harbors.size());
+            for (Harbors.Harbor harbor : harbors) {
+                int i = harbor.getIndex();
+                if (i < marine.length() && i < weather.length()) {
+                    loaded.add(parse(harbor, marine.getJSONObject(i).getJSONObject("hourly"),
+                            weather.getJSONObject(i).getJSONObject("hourly")));
+                }
+            }
+            forecasts = Collections.unmodifiableList(loaded);
+            version++;
+            for (Runnable listener : listeners) {
+                listener.run();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Harbor forecasts not refreshed: " + e.getMessage());
+        }
+        // Hourly health line for the weather APIs: retries, throttling, cache fallbacks, breaker
+        System.out.println("Weather API: " + WeatherApi.getMetrics());
+    }
+
+    private static Forecast parse(Harbors.Harbor harbor, JSONObject marine, JSONObject weather) {
+        JSONArray times = marine.getJSONArray("time");
+        int hours = hourCount(marine, weather);
+        LocalDateTime start = hours > 0 ? LocalDateTime.parse(times.getString(0)) : LocalDateTime.now();
+        double[][] report = new double[REPORT_COLUMN_COUNT][];
+        report[TEMPERATURE] = optionalColumn(weather, "temperature_2m", hours);
+        report[SEA_TEMPERATURE] = optionalColumn(marine, "sea_surface_temperature", hours);
+        report[HUMIDITY] = optionalColumn(weather, "relative_humidity_2m", hours);
+        report[PRESSURE] = optionalColumn(weather, "pressure_msl", hours);
+        report[UV_INDEX] = optionalColumn(weather, "uv_index", hours);
+        report[WEATHER_CODE] = optionalColumn(weather, "weather_code", hours);
+        return new Forecast(harbor, start, hours, hourlyColumns(marine, weather, hours), report);
+    }
+
+    /**
+     * A report variable the API may not offer at every location; all NaN when it is missing
+     */
+    private static double[] optionalColumn(JSONObject hourly, String name, int hours) {
+        JSONArray values = hourly.optJSONArray(name);
+        if (values == null) {
+            double[] column = new double[hours];
+            Arrays.fill(column, Double.NaN);
+            return column;
+        }
+        return column(values, hours, 1);
+    }
+
+    /**
+     * Both APIs are asked for the same days and timezone, so their hours line up
+     */
+    static int hourCount(JSONObject marineHourly, JSONObject weatherHourly) {
+        return Math.min(marineHourly.getJSONArray("time").length(), weatherHourly.getJSONArray("time").length());
+    }
+
+    /**
+     * Hourly values of one location as columns indexed by SafetyRules input
+     */
+    static double[][] hourlyColumns(JSONObject marine, JSONObject weather, int hours) {
+        double[][] columns = new double[SafetyRules.INPUT_COUNT][];
+        columns[SafetyRules.WAVE] = column(marine.getJSONArray("wave_height"), hours, 1);
+        columns[SafetyRules.WIND_WAVE] = column(marine.getJSONArray("wind_wave_height"), hours, 1);
+        columns[SafetyRules.WIND] = column(weather.getJSONArray("wind_speed_10m"), hours, 1);
+        // Reported in metres, the rules use km
+        columns[SafetyRules.VISIBILITY] = column(weather.getJSONArray("visibility"), hours, 0.001);
+        columns[SafetyRules.RAIN] = column(weather.getJSONArray("precipitation"), hours, 1);
+        return columns;
+    }
+
+    private static double[] column(JSONArray values, int hours, double scale) {
+        double[] column = new double[hours];
+        for (int h = 0; h < hours; h++) {
+            column[h] = values.isNull(h) ? Double.NaN : values.getDouble(h) * scale;
+        }
+        return column;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo3;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Harbor locations from harbors.csv, plus the distance helper used by fleet tracking
+ */
+public final class Harbors {
+
+    /**
+     * A named harbor position
+     */
+    public static class Harbor {
+        private final int index;
+        private final String name;
+        private final double latitude;
+        private final double longitude;
+
+        Harbor(int index, String name, double latitude, double longitude) {
+            this.index = index;
+            this.name = name;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        public int getIndex() { return index; }
+        public String getName() { return name; }
+        public double getLatitude() { return latitude; }
+        public double getLongitude() { return longitude; }
+    }
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private static final List<Harbor> ALL = load();
+
+    private Harbors() {
+    }
+
+    public static List<Harbor> all() {
+        return ALL;
+    }
+
+    /**
+     * Closest harbor to a position, or null when no harbors are configured
+     */
+    public static Harbor nearest(double latitude, double longitude) {
+        Harbor best = null;
+        double bestKm = Double.MAX_VALUE;
+        for (Harbor harbor : ALL) {
+            double km = distanceKm(latitude, longitude, harbor.latitude, harbor.longitude);
+            if (km < bestKm) {
+                bestKm = km;
+                best = harbor;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Equirectangular distance; accurate to well under 1% over the few hundred km around Sri Lanka
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double x = Math.toRadians(lon2 - lon1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS_KM;
+    }
+
+    private static List<Harbor> load() {
+        List<Harbor> harbors = new ArrayList<>();
+        try (InputStream in = Harbors.class.getResourceAsStream("/com/example/demo3/harbors.csv")) {
+            if (in == null) {
+                return harbors;
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                harbors.add(new Harbor(harbors.size(), fields[0].trim(),
+                        Double.parseDouble(fields[1].trim()), Double.parseDouble(fields[2].trim())));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Harbor list could not be loaded: " + e.getMessage());
+        }
+        return Collections.unmodifiableList(harbors);
+    }
+}
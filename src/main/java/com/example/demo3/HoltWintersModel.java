@@ -0,0 +1,182 @@
+package com.example.demo3;
+
+/**
+ * Additive Holt-Winters smoothing over a daily series with a weekly season.
+ * Short series fall back to Holt's linear trend (no season), and very short
+ * ones to a flat forecast. Parameters are chosen by grid search on one-step
+ * squared error; once fitted, new days are folded in with {@link #advance(double)}
+ * in O(1) without searching again.
+ */
+public class HoltWintersModel {
+
+    public static final int SEASON = 7;
+
+    private static final double[] GRID = {0.05, 0.2, 0.4, 0.6, 0.8};
+    private static final double REFINE_STEP = 0.05;
+
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final boolean seasonal;
+
+    private double level;
+    private double trend;
+    private final double[] season = new double[SEASON];
+    private int n;
+    private double sse;
+    private int errors;
+
+    private HoltWintersModel(double alpha, double beta, double gamma, boolean seasonal) {
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.seasonal = seasonal;
+    }
+
+    /**
+     * Search the smoothing parameters for a series and return the model filtered to its end
+     */
+    public static HoltWintersModel fit(double[] y, int length) {
+        if (length < 3) {
+            return filter(y, length, 1.0, 0.0, 0.0, false);
+        }
+        boolean seasonal = length >= 2 * SEASON;
+
+        double bestA = GRID[0], bestB = GRID[0], bestG = seasonal ? GRID[0] : 0.0;
+        double best = Double.MAX_VALUE;
+        for (double a : GRID) {
+            for (double b : GRID) {
+                if (seasonal) {
+                    for (double g : GRID) {
+                        double err = error(y, length, a, b, g, true);
+                        if (err < best) {
+                            best = err; bestA = a; bestB = b; bestG = g;
+                        }
+                    }
+                } else {
+                    double err = error(y, length, a, b, 0.0, false);
+                    if (err < best) {
+                        best = err; bestA = a; bestB = b;
+                    }
+                }
+            }
+        }
+
+        // One pass of coordinate refinement around the best grid point
+        double[] params = {bestA, bestB, bestG};
+        for (int p = 0; p < (seasonal ? 3 : 2); p++) {
+            for (double delta : new double[]{-REFINE_STEP, REFINE_STEP}) {
+                double[] trial = params.clone();
+                trial[p] = Math.min(0.95, Math.max(0.01, trial[p] + delta));
+                double err = error(y, length, trial[0], trial[1], trial[2], seasonal);
+                if (err < best) {
+                    best = err;
+                    params = trial;
+                }
+            }
+        }
+        return filter(y, length, params[0], params[1], params[2], seasonal);
+    }
+
+    /**
+     * Run the smoothing equations over a series with fixed parameters
+     */
+    public static HoltWintersModel filter(double[] y, int length, double alpha, double beta, double gamma,
+                                          boolean seasonal) {
+        HoltWintersModel model = new HoltWintersModel(alpha, beta, gamma, seasonal);
+        if (length == 0) {
+            return model;
+        }
+        int start = model.initialise(y, length);
+        for (int t = start; t < length; t++) {
+            model.advance(y[t]);
+        }
+        return model;
+    }
+
+    /**
+     * Same parameters, state recomputed over a corrected series
+     */
+    public HoltWintersModel refilter(double[] y, int length) {
+        return filter(y, length, alpha, beta, gamma, seasonal && length >= 2 * SEASON);
+    }
+
+    private static double error(double[] y, int length, double alpha, double beta, double gamma, boolean seasonal) {
+        HoltWintersModel model = new HoltWintersModel(alpha, beta, gamma, seasonal);
+        int start = model.initialise(y, length);
+        for (int t = start; t < length; t++) {
+            model.advance(y[t]);
+        }
+        return model.sse;
+    }
+
+    /**
+     * Set the starting state and return the index of the first observation left to smooth
+     */
+    private int initialise(double[] y, int length) {
+        if (seasonal) {
+            double first = 0, second = 0;
+            for (int i = 0; i < SEASON; i++) {
+                first += y[i];
+                second += y[i + SEASON];
+            }
+            first /= SEASON;
+            second /= SEASON;
+            level = first;
+            trend = (second - first) / SEASON;
+            for (int i = 0; i < SEASON; i++) {
+                season[i] = y[i] - first;
+            }
+            n = SEASON;
+            return SEASON;
+        }
+        level = y[0];
+        trend = length > 1 ? y[1] - y[0] : 0.0;
+        n = 1;
+        return 1;
+    }
+
+    /**
+     * Fold in the next day's observation
+     */
+    public void advance(double value) {
+        int slot = n % SEASON;
+        double s = seasonal ? season[slot] : 0.0;
+
+        double predicted = level + trend + s;
+        sse += (value - predicted) * (value - predicted);
+        errors++;
+
+        double previousLevel = level;
+        level = alpha * (value - s) + (1 - alpha) * (level + trend);
+        trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        if (seasonal) {
+            season[slot] = gamma * (value - level) + (1 - gamma) * s;
+        }
+        n++;
+    }
+
+    /**
+     * Point forecast h days past the last observation (h >= 1)
+     */
+    public double forecast(int h) {
+        double s = seasonal ? season[(n + h - 1) % SEASON] : 0.0;
+        return Math.max(0.0, level + h * trend + s);
+    }
+
+    /**
+     * Half width of the ~95% band h days ahead, growing with the horizon
+     */
+    public double bandWidth(int h) {
+        double sigma = errors > 0 ? Math.sqrt(sse / errors) : Math.abs(level) * 0.05;
+        return 1.96 * sigma * Math.sqrt(h);
+    }
+
+    public int getObservations() { return n; }
+    public boolean isSeasonal() { return seasonal; }
+
+    @Override
+    public String toString() {
+        return String.format("HoltWinters[a=%.2f b=%.2f g=%.2f seasonal=%s n=%d]", alpha, beta, gamma, seasonal, n);
+    }
+}
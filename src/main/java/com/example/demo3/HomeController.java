@@ -1,5 +1,6 @@
 package com.example.demo3;
 
+import Model.Dictionaries;
 import Model.FishPrice;
 
 import javafx.animation.Timeline;
@@ -26,7 +27,6 @@ import javafx.stage.Stage;
 import javafx.util.Duration;
 
 import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import java.io.IOException;
 
 import java.sql.Connection;
@@ -36,7 +36,14 @@ import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 
 import static Connection.DBConnection.getConnection;
 
@@ -53,6 +60,12 @@ public class HomeController {
     @FXML
     private Label fishermenValueLabel;
     @FXML
+    private Label topSpeciesLabel;
+    @FXML
+    private Label cheapestHarborsLabel;
+    @FXML
+    private Label priceBandsLabel;
+    @FXML
     private LineChart<String, Number> fishPriceChart;
     @FXML
     private ComboBox<String> fishTypeCombo;
@@ -60,6 +73,20 @@ public class HomeController {
     private ComboBox<String> timeRangeCombo;
     @FXML
     private TableView<FishPrice> agreementTable;
+
+    // Backing list of the price table; changed in place so rows and scroll position survive updates
+    private final ObservableList<FishPrice> priceRows = FXCollections.observableArrayList();
+    private final Map<Integer, Integer> rowIndexById = new HashMap<>();
+    private final FxBatcher<PriceEvent> priceBatcher = new FxBatcher<>(this::applyPriceEvents);
+    // Every fish_price row, loaded once and kept current from price events; clearing a search reads from here
+    private final Map<Integer, FishPrice> allPrices = new LinkedHashMap<>();
+
+    private static final int FORECAST_DAYS = 7;
+    // PriceStatistics version the today cards were last drawn from
+    private long shownStatisticsVersion = -1;
+    // Species id of each sample chart series, so the type filter compares ids
+    private final Map<XYChart.Series<String, Number>, Integer> seriesSpecies = new HashMap<>();
+    private FishDetailPopup detailPopup;
     
     // Weather UI elements
     @FXML private HBox weatherAlertBanner;
@@ -86,26 +113,11 @@ public class HomeController {
     private double currentVisibility = 10.0;
     private int currentHumidity = 75;
     
-    // Weather alert thresholds
-    private static final double WAVE_DANGER_THRESHOLD = 3.0;
-    private static final double WIND_DANGER_THRESHOLD = 25.0;
-    private static final double VISIBILITY_DANGER_THRESHOLD = 2.0;
-    
     // Sample weather conditions and alerts
     private final String[] weatherConditions = {
         "Clear", "Partly Cloudy", "Cloudy", "Light Rain", "Heavy Rain", 
         "Thunderstorm", "Windy", "Calm Seas", "Rough Seas"
     };
-    
-    private final String[] weatherAlerts = {
-        "Weather Alert: Strong winds expected in Southern waters",
-        "Weather Alert: High waves detected - Exercise caution",
-        "Weather Alert: Heavy rainfall expected - Check equipment", 
-        "Weather Alert: Thunderstorm approaching - Return to harbor",
-        "Weather Alert: Excellent fishing conditions - Clear skies ahead",
-        "Weather Alert: Calm seas reported - Perfect for small boats",
-        "Weather Alert: Visibility reduced due to fog - Use navigation aids"
-    };
 
     @FXML
     private TableColumn<FishPrice, Integer> colID;
@@ -128,6 +140,7 @@ public class HomeController {
         
         // Initialize chart with multiple series
         setupEnhancedChart();
+        loadPriceForecasts();
         
         addButtonToTable(); // after setting items
 
@@ -141,11 +154,16 @@ public class HomeController {
         colDate.setCellValueFactory(new PropertyValueFactory<>("date"));
 
         // Load data
+        agreementTable.setItems(priceRows);
         loadFishPriceData();
         text_field.textProperty().addListener((observable, oldValue, newValue) -> {
             searchData();
         });
         adddata();
+        subscribeToPriceChanges();
+        subscribeToFleet();
+        subscribeToTrips();
+        subscribeToDangerZones();
         
         // Start real-time weather updates
         startRealTimeWeatherUpdates();
@@ -208,6 +226,10 @@ public class HomeController {
         
         // Add series to chart
         fishPriceChart.getData().addAll(salmonSeries, tunaSeries, mackerelSeries);
+        seriesSpecies.clear();
+        seriesSpecies.put(salmonSeries, Dictionaries.species().find("Salmon"));
+        seriesSpecies.put(tunaSeries, Dictionaries.species().find("Tuna"));
+        seriesSpecies.put(mackerelSeries, Dictionaries.species().find("Mackerel"));
         
         // Add tooltips to data points
         addTooltipsToSeries(salmonSeries, "Salmon");
@@ -225,20 +247,100 @@ public class HomeController {
     private void updateChart() {
         String selectedFishType = fishTypeCombo.getValue();
         String selectedTimeRange = timeRangeCombo.getValue();
+
+        // A single species with recorded prices gets its real history and forecast band
+        if (!"All Fish Types".equals(selectedFishType) && showPriceForecast(selectedFishType, selectedTimeRange)) {
+            return;
+        }
         
         // Clear and reload chart based on selections
         setupEnhancedChart();
         
         // Filter chart data based on fish type selection
         if (!"All Fish Types".equals(selectedFishType)) {
-            fishPriceChart.getData().removeIf(series -> 
-                !series.getName().toLowerCase().contains(selectedFishType.toLowerCase()));
+            // Looked up only, so chart labels never become species ids
+            int selectedSpecies = Dictionaries.species().find(selectedFishType);
+            fishPriceChart.getData().removeIf(series ->
+                    selectedSpecies < 0 || seriesSpecies.getOrDefault(series, -1) != selectedSpecies);
         }
         
         // You can add time range filtering logic here based on your database structure
         System.out.println("Chart updated for: " + selectedFishType + " - " + selectedTimeRange);
     }
 
+    /**
+     * Fit the forecast models in the background, then redraw the chart
+     */
+    private void loadPriceForecasts() {
+        Thread fitThread = new Thread(() -> {
+            PriceForecaster.getInstance().ensureFitted();
+            Platform.runLater(this::updateChart);
+        }, "price-forecast");
+        fitThread.setDaemon(true);
+        fitThread.start();
+    }
+
+    /**
+     * Draw price history for the selected range followed by a week of forecast and its band.
+     * Returns false when there is nothing to forecast from.
+     */
+    private boolean showPriceForecast(String species, String timeRange) {
+        PriceForecaster forecaster = PriceForecaster.getInstance();
+        if (!forecaster.isLoaded()) {
+            return false;
+        }
+        Map<LocalDate, Double> history = forecaster.history(species, null, LocalDate.now().minusDays(rangeDays(timeRange)));
+        PriceForecaster.Forecast forecast = forecaster.forecast(species, null, FORECAST_DAYS);
+        if (history.isEmpty() || forecast == null) {
+            return false;
+        }
+
+        DateTimeFormatter dayFormat = DateTimeFormatter.ofPattern("MMM d");
+        XYChart.Series<String, Number> historySeries = new XYChart.Series<>();
+        historySeries.setName(species + " (LKR)");
+        history.forEach((day, price) -> historySeries.getData().add(new XYChart.Data<>(day.format(dayFormat), price)));
+
+        XYChart.Series<String, Number> forecastSeries = new XYChart.Series<>();
+        forecastSeries.setName(species + " forecast");
+        XYChart.Series<String, Number> upperSeries = new XYChart.Series<>();
+        upperSeries.setName("Upper band");
+        XYChart.Series<String, Number> lowerSeries = new XYChart.Series<>();
+        lowerSeries.setName("Lower band");
+
+        // Start the forecast lines at the last observed price so they join the history
+        XYChart.Data<String, Number> last = historySeries.getData().get(historySeries.getData().size() - 1);
+        for (XYChart.Series<String, Number> series : List.of(forecastSeries, upperSeries, lowerSeries)) {
+            series.getData().add(new XYChart.Data<>(last.getXValue(), last.getYValue()));
+        }
+        for (int i = 0; i < FORECAST_DAYS; i++) {
+            String label = forecast.getDates()[i].format(dayFormat);
+            forecastSeries.getData().add(new XYChart.Data<>(label, Math.round(forecast.getMean()[i])));
+            upperSeries.getData().add(new XYChart.Data<>(label, Math.round(forecast.getUpper()[i])));
+            lowerSeries.getData().add(new XYChart.Data<>(label, Math.round(forecast.getLower()[i])));
+        }
+
+        fishPriceChart.getData().setAll(List.of(historySeries, forecastSeries, upperSeries, lowerSeries));
+        forecastSeries.getNode().setStyle("-fx-stroke-dash-array: 8 4;");
+        upperSeries.getNode().setStyle("-fx-stroke-dash-array: 2 4; -fx-opacity: 0.6;");
+        lowerSeries.getNode().setStyle("-fx-stroke-dash-array: 2 4; -fx-opacity: 0.6;");
+        addTooltipsToSeries(historySeries, species);
+        addTooltipsToSeries(forecastSeries, species + " forecast");
+        return true;
+    }
+
+    private static int rangeDays(String timeRange) {
+        if (timeRange == null) {
+            return 90;
+        }
+        switch (timeRange) {
+            case "Last 7 days": return 7;
+            case "Last 30 days": return 30;
+            case "Last 6 months": return 182;
+            case "Last year": return 365;
+            default: return 90;
+        }
+    }
+
     @FXML
     public void openFromSidebar(javafx.event.ActionEvent event) {
        // WeatherController.loadWeatherPage((Stage) ((Node) event.getSource()).getScene().getWindow());
@@ -270,7 +372,26 @@ public class HomeController {
             e.printStackTrace();
         }
 
-        agreementTable.setItems(data);
+        allPrices.clear();
+        for (FishPrice price : data) {
+            allPrices.put(price.getId(), price);
+        }
+        showRows(data);
+    }
+
+    /**
+     * Replace the table content and rebuild the id index
+     */
+    private void showRows(List<FishPrice> rows) {
+        priceRows.setAll(rows);
+        reindexRows();
+    }
+
+    private void reindexRows() {
+        rowIndexById.clear();
+        for (int i = 0; i < priceRows.size(); i++) {
+            rowIndexById.put(priceRows.get(i).getId(), i);
+        }
     }
 
 
@@ -297,51 +418,25 @@ public class HomeController {
                     setGraphic(null);
                 } else {
                     setGraphic(btn);
+                    // Cells exist only for visible rows, so this prefetches what the user can click
+                    FishPrice fish = getTableView().getItems().get(getIndex());
+                    FishImageService.getInstance().prefetch(fish.getImage());
                 }
             }
         });
     }
 
     private void showFishDetailsPopup(FishPrice fish) {
-        Stage popupStage = new Stage();
-        popupStage.initModality(Modality.APPLICATION_MODAL);
-        popupStage.setTitle("Fish Details");
-        String imagePath = "/images/" + fish.getImage(); // image/ is your folder
-        Image image = new Image(getClass().getResourceAsStream(imagePath));
-        ImageView imageView = new ImageView(image);
-        imageView.setFitWidth(200);
-        imageView.setPreserveRatio(true);
-        imageView.getStyleClass().add("popup-image");
-
-
-        VBox layout = new VBox(10);
-
-
-
-
-        layout.setPadding(new Insets(20));
-        layout.getStyleClass().add("popup-pane");
-        layout.setAlignment(Pos.CENTER);
-
-
-        Label name = new Label("Name: " + fish.getFishName());
-        Label details = new Label("Details: " + fish.getFishDetails());
-        Label price = new Label("Price: Rs. " + fish.getTodayPrice());
-        Label place = new Label("Place: " + fish.getPlace());
-        Label status = new Label("Status: " + fish.getStatus());
-        Label date = new Label("Date: " + fish.getDate());
-
-
-        Button closeBtn = new Button("Close");
-        closeBtn.setOnAction(e -> popupStage.close());
-
-        layout.getChildren().addAll(imageView,name, details, price, place, status, date, closeBtn);
-
-        Scene scene = new Scene(layout, 300, 500);
-        scene.getStylesheets().add(getClass().getResource("/com/example/demo3/style.css").toExternalForm());
-        popupStage.setScene(scene);
-        popupStage.showAndWait();
-
+        // One window per page, refilled for each fish instead of rebuilt per click
+        if (detailPopup == null) {
+            detailPopup = new FishDetailPopup(agreementTable.getScene().getWindow());
+            agreementTable.sceneProperty().addListener((obs, oldScene, newScene) -> {
+                if (newScene == null) {
+                    detailPopup.close();
+                }
+            });
+        }
+        detailPopup.show(fish);
     }
 
     @FXML
@@ -376,7 +471,7 @@ public class HomeController {
 
         // If the input is empty, load all data
         if (input.isEmpty()) {
-            loadFishPriceData(); // This should load all data into the table
+            showRows(new ArrayList<>(allPrices.values()));
             return;
         }
 
@@ -412,7 +507,7 @@ public class HomeController {
                 ));
             }
 
-            agreementTable.setItems(fishdata);
+            showRows(fishdata);
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -420,54 +515,261 @@ public class HomeController {
     }
 
     private void adddata() {
-        try (Connection conn = getConnection()) {
-            String fishname = "";
-            double fishprice = 0.0;
-
-            // Fix: Replace 'name' and 'price' with your actual column names
-            PreparedStatement stmt = conn.prepareStatement(
-                    "SELECT fish_name, today_price FROM fish_price ORDER BY today_price DESC LIMIT 1"
-            );
-
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                fishname = rs.getString("fish_name");
-                fishprice = rs.getDouble("today_price");
-
-                lbelname.setText(fishname);
-                lbelprice.setText(String.format("%.2f", fishprice)); // Format price nicely
-            } else {
-                lbelname.setText("No Data");
-                lbelprice.setText("0.00");
+        // Today's statistics are seeded once per day and then maintained from price events;
+        // the seed queries the database, so it runs in the background
+        Thread seedThread = new Thread(() -> {
+            PriceStatistics.getInstance().ensureSeeded();
+            Platform.runLater(this::showTodayStatistics);
+        }, "price-statistics");
+        seedThread.setDaemon(true);
+        seedThread.start();
+    }
+
+    /**
+     * Redraw the today cards, unless today's rows are unchanged since they were last drawn
+     */
+    private void showTodayStatistics() {
+        long version = PriceStatistics.getInstance().getVersion();
+        if (version == shownStatisticsVersion) {
+            return;
+        }
+        shownStatisticsVersion = version;
+        showTodayMaxPrice();
+        showMarketInsights();
+    }
+
+    /**
+     * Top species, cheapest harbors and price bands from today's live summary
+     */
+    private void showMarketInsights() {
+        String[] texts = PriceStatistics.getInstance().readTodaySummary(HomeController::insightTexts);
+        topSpeciesLabel.setText(texts[0]);
+        cheapestHarborsLabel.setText(texts[1]);
+        priceBandsLabel.setText(texts[2]);
+    }
+
+    /**
+     * Texts of the top species, cheapest harbors and price band cards
+     */
+    private static String[] insightTexts(PriceAnalytics.Summary summary) {
+        if (summary.getCount() == 0) {
+            return new String[]{"No Data", "No Data", "No Data"};
+        }
+
+        StringBuilder top = new StringBuilder();
+        int rank = 1;
+        for (PriceAnalytics.Ranked species : summary.topSpecies(10)) {
+            top.append(String.format("%d. %s - %.2f%n", rank++, species.getName(), species.getPrice()));
+        }
+
+        StringBuilder cheapest = new StringBuilder();
+        StringBuilder bands = new StringBuilder(String.format("All: %.2f / %.2f%n",
+                summary.percentile(0.5), summary.percentile(0.9)));
+        for (String species : summary.getSpecies()) {
+            List<PriceAnalytics.Ranked> harbors = summary.cheapestHarbors(species, 3);
+            cheapest.append(species).append(": ");
+            for (int i = 0; i < harbors.size(); i++) {
+                cheapest.append(i == 0 ? "" : ", ")
+                        .append(String.format("%s (%.2f)", harbors.get(i).getName(), harbors.get(i).getPrice()));
+            }
+            cheapest.append("\n");
+            bands.append(String.format("%s: %.2f / %.2f%n", species,
+                    summary.percentile(species, 0.5), summary.percentile(species, 0.9)));
+        }
+        return new String[]{top.toString().trim(), cheapest.toString().trim(), bands.toString().trim()};
+    }
+
+    private void showTodayMaxPrice() {
+        IndexedPriceHeap.Entry max = PriceStatistics.getInstance().getTodayMax();
+        if (max != null) {
+            lbelname.setText(max.getFishName());
+            lbelprice.setText(String.format("%.2f", max.getPrice())); // Format price nicely
+        } else {
+            lbelname.setText("No Data");
+            lbelprice.setText("0.00");
+        }
+    }
+
+    /**
+     * Apply price feed changes to the table and max price card without reloading
+     */
+    private void subscribeToPriceChanges() {
+        // Events are coalesced so a burst reaches the table as one update per pulse
+        Runnable unsubscribe = PriceEventBus.getInstance().subscribe(priceBatcher::addAll);
+
+        // Controllers are recreated on every navigation, so drop the subscription with the page
+        agreementTable.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                unsubscribe.run();
+            }
+        });
+    }
+
+    private void applyPriceEvents(List<PriceEvent> events) {
+        // Only the latest event per row matters within one pulse
+        Map<Integer, PriceEvent> latest = new LinkedHashMap<>();
+        for (PriceEvent event : events) {
+            latest.put(event.getPrice().getId(), event);
+        }
+        boolean filtered = !text_field.getText().trim().isEmpty();
+
+        List<FishPrice> added = new ArrayList<>();
+        List<FishPrice> removed = new ArrayList<>();
+        // Species whose prices moved, before and after the change
+        Set<Integer> changedSpecies = new HashSet<>();
+        for (PriceEvent event : latest.values()) {
+            FishPrice price = event.getPrice();
+            FishPrice old = event.getType() == PriceEvent.Type.DELETED ? allPrices.remove(price.getId())
+                    : allPrices.put(price.getId(), price);
+            changedSpecies.add(price.getSpeciesId());
+            if (old != null) {
+                changedSpecies.add(old.getSpeciesId());
             }
+            Integer index = rowIndexById.get(price.getId());
+            if (event.getType() == PriceEvent.Type.DELETED) {
+                if (index != null) {
+                    removed.add(priceRows.get(index));
+                }
+            } else if (index != null) {
+                priceRows.set(index, price);
+            } else if (!filtered) {
+                added.add(price);
+            }
+        }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (!removed.isEmpty()) {
+            priceRows.removeAll(removed);
+        }
+        if (!added.isEmpty()) {
+            priceRows.addAll(added);
+        }
+        if (!removed.isEmpty()) {
+            reindexRows();
+        } else {
+            for (int i = priceRows.size() - added.size(); i < priceRows.size(); i++) {
+                rowIndexById.put(priceRows.get(i).getId(), i);
+            }
+        }
+
+        // PriceStatistics has already applied these events to today's max and summary
+        showTodayStatistics();
+
+        // The forecaster has advanced its cached models too; redraw an open forecast of a changed species
+        String selectedFishType = fishTypeCombo.getValue();
+        if (!"All Fish Types".equals(selectedFishType)
+                && changedSpecies.contains(Dictionaries.species().find(selectedFishType))) {
+            updateChart();
         }
     }
 
-    // Counter methods for Active Boats
-    @FXML
-    private void increaseBoats() {
-        // Find the boats value label and increment it
-        updateCardValue("boats", 1);
+    /**
+     * Feed the Active Boats card from the fleet tracker; counts are read in O(1) once per pulse
+     */
+    private void subscribeToFleet() {
+        FxBatcher<Integer> boatBatcher = new FxBatcher<>(counts -> showActiveBoats());
+        Runnable unsubscribe = FleetTracker.getInstance().addCountListener(boatBatcher::add);
+        boatsValueLabel.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                unsubscribe.run();
+            }
+        });
+        showActiveBoats();
     }
 
-    @FXML
-    private void decreaseBoats() {
-        // Find the boats value label and decrement it
-        updateCardValue("boats", -1);
+    private void showActiveBoats() {
+        FleetTracker fleet = FleetTracker.getInstance();
+        boatsValueLabel.setText(String.valueOf(fleet.getActiveCount()));
+
+        StringBuilder byHarbor = new StringBuilder("Boats at sea by harbor");
+        fleet.getActiveByHarbor().forEach((harbor, count) ->
+                byHarbor.append('\n').append(harbor).append(": ").append(count));
+        boatsValueLabel.setTooltip(new Tooltip(byHarbor.toString()));
     }
 
-    // Counter methods for Fishing Trips
-    @FXML
-    private void increaseTrips() {
-        updateCardValue("trips", 1);
+    /**
+     * Feed the Fishing Trips card from the in-memory trip counters
+     */
+    private void subscribeToTrips() {
+        FxBatcher<Boolean> tripBatcher = new FxBatcher<>(changes -> showTrips());
+        Runnable unsubscribe = TripLog.getInstance().addListener(() -> tripBatcher.add(Boolean.TRUE));
+        tripsValueLabel.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                unsubscribe.run();
+            }
+        });
+        showTrips();
     }
 
-    @FXML
-    private void decreaseTrips() {
-        updateCardValue("trips", -1);
+    private void showTrips() {
+        TripLog trips = TripLog.getInstance();
+        tripsValueLabel.setText(String.valueOf(trips.getCompletedToday()));
+        tripsValueLabel.setTooltip(new Tooltip(trips.getActiveTrips() + " trips in progress"));
+    }
+
+    /**
+     * Show per-vessel weather alerts in the banner; the monitor only reports level changes
+     */
+    private void subscribeToDangerZones() {
+        FxBatcher<DangerZoneMonitor.VesselAlert> alertBatcher = new FxBatcher<>(this::showVesselAlerts);
+        Runnable unsubscribe = DangerZoneMonitor.getInstance().addListener(alertBatcher::addAll);
+        weatherAlertBanner.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                unsubscribe.run();
+            }
+        });
+    }
+
+    private void showVesselAlerts(List<DangerZoneMonitor.VesselAlert> alerts) {
+        DangerZoneMonitor monitor = DangerZoneMonitor.getInstance();
+        int inDanger = monitor.getCount(SafetyRules.DANGER);
+        int inCaution = monitor.getCount(SafetyRules.CAUTION);
+
+        // Headline the most severe change of this batch
+        DangerZoneMonitor.VesselAlert worst = alerts.get(0);
+        for (DangerZoneMonitor.VesselAlert alert : alerts) {
+            if (alert.getLevel() > worst.getLevel()) {
+                worst = alert;
+            }
+        }
+
+        if (inDanger == 0 && inCaution == 0) {
+            updateWeatherAlertBanner("Weather Alert: All boats at sea are in safe conditions",
+                    "No vessel is inside a danger zone at the moment", "☀️");
+            return;
+        }
+
+        String title = inDanger > 0
+                ? String.format("Weather Alert: %d boat%s in dangerous conditions", inDanger, inDanger == 1 ? "" : "s")
+                : String.format("Weather Alert: %d boat%s should take caution", inCaution, inCaution == 1 ? "" : "s");
+        String near = worst.getHarbor().isEmpty() ? "" : " near " + worst.getHarbor();
+        SafetyRules.Assessment assessment = worst.getAssessment();
+        String subtitle;
+        String icon;
+        switch (assessment.getInput()) {
+            case SafetyRules.WAVE:
+                subtitle = String.format("Vessel %d%s: %s, %.1fm", worst.getVesselId(), near, assessment.getMessage(), assessment.getValue());
+                icon = "🌊";
+                break;
+            case SafetyRules.WIND:
+                subtitle = String.format("Vessel %d%s: %s, %.0f km/h", worst.getVesselId(), near, assessment.getMessage(), assessment.getValue());
+                icon = "💨";
+                break;
+            case SafetyRules.VISIBILITY:
+                subtitle = String.format("Vessel %d%s: %s, %.1fkm", worst.getVesselId(), near, assessment.getMessage(), assessment.getValue());
+                icon = "🌫️";
+                break;
+            case -1:
+                subtitle = String.format("Vessel %d%s is back in safe conditions", worst.getVesselId(), near);
+                icon = "⚠️";
+                break;
+            default:
+                subtitle = String.format("Vessel %d%s: %s", worst.getVesselId(), near, assessment.getMessage());
+                icon = "⚠️";
+        }
+        if (inDanger > 0 && inCaution > 0) {
+            subtitle += String.format(" - %d more boat%s in caution", inCaution, inCaution == 1 ? "" : "s");
+        }
+        updateWeatherAlertBanner(title, subtitle, icon);
     }
 
     // Counter methods for Active Fishermen
@@ -485,18 +787,6 @@ public class HomeController {
     private void updateCardValue(String cardType, int change) {
         try {
             switch (cardType) {
-                case "boats":
-                    int currentBoats = Integer.parseInt(boatsValueLabel.getText());
-                    int newBoats = Math.max(0, currentBoats + change); // Prevent negative values
-                    boatsValueLabel.setText(String.valueOf(newBoats));
-                    System.out.println("Boats count updated to: " + newBoats);
-                    break;
-                case "trips":
-                    int currentTrips = Integer.parseInt(tripsValueLabel.getText());
-                    int newTrips = Math.max(0, currentTrips + change); // Prevent negative values
-                    tripsValueLabel.setText(String.valueOf(newTrips));
-                    System.out.println("Trips count updated to: " + newTrips);
-                    break;
                 case "fishermen":
                     // Handle comma-separated numbers (e.g., "1,120")
                     String fishermenText = fishermenValueLabel.getText().replace(",", "");
@@ -523,13 +813,6 @@ public class HomeController {
         );
         weatherUpdater.setCycleCount(Timeline.INDEFINITE);
         weatherUpdater.play();
-        
-        // Check for weather alerts every 45 seconds
-        Timeline alertChecker = new Timeline(
-            new KeyFrame(Duration.seconds(45), e -> checkAndShowWeatherAlerts())
-        );
-        alertChecker.setCycleCount(Timeline.INDEFINITE);
-        alertChecker.play();
     }
     
     /**
@@ -597,52 +880,6 @@ public class HomeController {
             String.format("%.1f°C", currentTemperature));
     }
     
-    /**
-     * Check for dangerous weather conditions and update alert banner
-     */
-    private void checkAndShowWeatherAlerts() {
-        Platform.runLater(() -> {
-            boolean isDangerous = false;
-            String alertMessage = "";
-            String alertSubtitleText = "";
-            String alertIconText = "⚠️";
-            
-            // Check for dangerous conditions
-            if (currentWaveHeight > WAVE_DANGER_THRESHOLD) {
-                isDangerous = true;
-                alertMessage = "Weather Alert: High waves detected - Exercise extreme caution";
-                alertSubtitleText = String.format("Wave height: %.1fm - Fishing boats advised to stay in harbor", currentWaveHeight);
-                alertIconText = "🌊";
-            } else if (currentWindSpeed > WIND_DANGER_THRESHOLD) {
-                isDangerous = true;
-                alertMessage = "Weather Alert: Strong winds detected - Consider postponing trips";
-                alertSubtitleText = String.format("Wind speed: %.0f km/h - Small boats should avoid open waters", currentWindSpeed);
-                alertIconText = "💨";
-            } else if (currentVisibility < VISIBILITY_DANGER_THRESHOLD) {
-                isDangerous = true;
-                alertMessage = "Weather Alert: Low visibility conditions - Use navigation aids";
-                alertSubtitleText = String.format("Visibility: %.1fkm - Exercise extreme caution when navigating", currentVisibility);
-                alertIconText = "🌫️";
-            } else if (random.nextDouble() < 0.15) { // 15% chance for general weather updates
-                String randomAlert = weatherAlerts[random.nextInt(weatherAlerts.length)];
-                if (randomAlert.contains("Excellent") || randomAlert.contains("Calm")) {
-                    alertMessage = randomAlert;
-                    alertSubtitleText = "Perfect conditions for fishing - Clear skies and calm seas reported";
-                    alertIconText = "☀️";
-                } else {
-                    alertMessage = randomAlert;
-                    alertSubtitleText = "Monitor weather conditions and follow safety guidelines";
-                    alertIconText = "⚠️";
-                }
-            }
-            
-            // Update alert banner instead of showing popup
-            if (isDangerous || random.nextDouble() < 0.15) {
-                updateWeatherAlertBanner(alertMessage, alertSubtitleText, alertIconText);
-            }
-        });
-    }
-    
     /**
      * Show weather alert dialog
      */
@@ -687,25 +924,15 @@ public class HomeController {
      * Check if current weather conditions are safe for fishing
      */
     public boolean isSafeForFishing() {
-        return currentWaveHeight < WAVE_DANGER_THRESHOLD && 
-               currentWindSpeed < WIND_DANGER_THRESHOLD && 
-               currentVisibility > VISIBILITY_DANGER_THRESHOLD;
+        return getWeatherSafetyLevel() < SafetyRules.DANGER;
     }
     
     /**
      * Get weather safety level (0=safe, 1=caution, 2=danger)
      */
     public int getWeatherSafetyLevel() {
-        if (currentWaveHeight > WAVE_DANGER_THRESHOLD || 
-            currentWindSpeed > WIND_DANGER_THRESHOLD || 
-            currentVisibility < VISIBILITY_DANGER_THRESHOLD) {
-            return 2; // Danger
-        } else if (currentWaveHeight > WAVE_DANGER_THRESHOLD * 0.7 || 
-                   currentWindSpeed > WIND_DANGER_THRESHOLD * 0.7 || 
-                   currentVisibility < VISIBILITY_DANGER_THRESHOLD * 1.5) {
-            return 1; // Caution
-        }
-        return 0; // Safe
+        return SafetyRules.getInstance().level(currentWaveHeight, currentWindSpeed, currentVisibility,
+                Double.NaN, Double.NaN);
     }
     
     /**
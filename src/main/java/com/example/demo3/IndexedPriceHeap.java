@@ -0,0 +1,165 @@
+package com.example.demo3;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary heap of prices keyed by fish_price id.
+ * Keeps a position index so a row's price can be changed or removed in O(log n),
+ * while the top entry is available in O(1). Works as a max-heap or a min-heap.
+ */
+public class IndexedPriceHeap {
+
+    /**
+     * A row tracked by the heap
+     */
+    public static class Entry {
+        private final int id;
+        private final String fishName;
+        private final String place;
+        private double price;
+
+        Entry(int id, String fishName, String place, double price) {
+            this.id = id;
+            this.fishName = fishName;
+            this.place = place;
+            this.price = price;
+        }
+
+        public int getId() { return id; }
+        public String getFishName() { return fishName; }
+        public String getPlace() { return place; }
+        public double getPrice() { return price; }
+
+        Entry copy() {
+            return new Entry(id, fishName, place, price);
+        }
+    }
+
+    private final boolean maxHeap;
+    private final Map<Integer, Integer> positions = new HashMap<>();
+    private Entry[] heap = new Entry[16];
+    private int size;
+
+    public IndexedPriceHeap(boolean maxHeap) {
+        this.maxHeap = maxHeap;
+    }
+
+    /**
+     * Independent copy, entries included
+     */
+    public IndexedPriceHeap(IndexedPriceHeap other) {
+        this.maxHeap = other.maxHeap;
+        this.heap = new Entry[other.heap.length];
+        this.size = other.size;
+        for (int i = 0; i < size; i++) {
+            heap[i] = other.heap[i].copy();
+        }
+        positions.putAll(other.positions);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Entry peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    public boolean contains(int id) {
+        return positions.containsKey(id);
+    }
+
+    /**
+     * Insert a row, or move it if its price changed
+     */
+    public void put(int id, String fishName, String place, double price) {
+        Integer index = positions.get(id);
+        if (index != null) {
+            Entry entry = heap[index];
+            double old = entry.price;
+            entry.price = price;
+            if (above(price, old)) {
+                siftUp(index);
+            } else {
+                siftDown(index);
+            }
+            return;
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        heap[size] = new Entry(id, fishName, place, price);
+        positions.put(id, size);
+        siftUp(size++);
+    }
+
+    /**
+     * Remove a row if present
+     */
+    public void remove(int id) {
+        Integer index = positions.remove(id);
+        if (index == null) {
+            return;
+        }
+        size--;
+        if (index == size) {
+            heap[size] = null;
+            return;
+        }
+        heap[index] = heap[size];
+        heap[size] = null;
+        positions.put(heap[index].id, index);
+        siftDown(index);
+        siftUp(index);
+    }
+
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        positions.clear();
+        size = 0;
+    }
+
+    private boolean above(double a, double b) {
+        return maxHeap ? a > b : a < b;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!above(heap[index].price, heap[parent].price)) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int best = left;
+            int right = left + 1;
+            if (right < size && above(heap[right].price, heap[left].price)) {
+                best = right;
+            }
+            if (!above(heap[best].price, heap[index].price)) {
+                return;
+            }
+            swap(index, best);
+            index = best;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Entry tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+        positions.put(heap[a].id, a);
+        positions.put(heap[b].id, b);
+    }
+}
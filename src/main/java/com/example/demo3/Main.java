@@ -26,12 +26,48 @@ public class Main extends Application {
 
             primaryStage.show();
 
+            // Generate scheduled reports in the background while the app is open
+            ReportScheduler.getInstance().start();
+
+            // Pick up market price files dropped by the harbors
+            PriceFeedService.getInstance().start();
+
+            // Poll the tables for changed rows so screens update without full reloads
+            ChangeTracker.getInstance().start();
+
+            // Follow boat position reports for the Active Boats card
+            FleetTracker.getInstance().start();
+            TripLog.getInstance().start();
+
+            // Hourly forecasts per harbor for trip planning, and on a grid for any point
+            HarborForecasts.getInstance().start();
+            ForecastGrid.getInstance().start();
+
+            // Keep every harbor forecast, rolled up into hourly and daily history
+            WeatherHistory.getInstance().start();
+
+            // Check the forecast at each boat's position and alert on changes
+            DangerZoneMonitor.getInstance().start();
+
         } catch (Exception e) {
             e.printStackTrace();
 
         }
     }
 
+    @Override
+    public void stop() {
+        ReportScheduler.getInstance().stop();
+        PriceFeedService.getInstance().stop();
+        ChangeTracker.getInstance().stop();
+        FleetTracker.getInstance().stop();
+        TripLog.getInstance().stop();
+        DangerZoneMonitor.getInstance().stop();
+        HarborForecasts.getInstance().stop();
+        ForecastGrid.getInstance().stop();
+        WeatherHistory.getInstance().stop();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,30 @@
+package com.example.demo3;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Helpers for the memory-mapped stores (price archive, weather history)
+ */
+final class MappedFiles {
+
+    private MappedFiles() {
+    }
+
+    /**
+     * Release a mapping now rather than whenever the buffer is collected, so its file can be
+     * truncated or deleted (Windows refuses while a mapping exists). The buffer must not be
+     * touched afterwards; callers only unmap under the lock their readers hold.
+     */
+    static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Left to the garbage collector
+        }
+    }
+}
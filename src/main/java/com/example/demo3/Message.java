@@ -6,6 +6,7 @@ import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -14,8 +15,15 @@ import javafx.stage.Stage;
 import javafx.util.Duration;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
 
 import static Connection.DBConnection.getConnection;
 
@@ -29,9 +37,12 @@ public class Message {
     public String name;
     
     // Real-time update components
-    private Timeline realTimeUpdater;
-    private Timeline userListUpdater;
-    private int lastMessageCount = 0;
+    private final FxBatcher<Map<String, Object>> messageChanges = new FxBatcher<>(this::applyMessageChanges);
+    private final Map<String, Label> senderLabels = new LinkedHashMap<>();
+    // Bubbles of the open conversation per message row id (see ChangeTracker.keyOf)
+    private final Map<String, List<Node>> bubblesByRow = new HashMap<>();
+    private Runnable unsubscribe;
+    private Runnable unsubscribeDeletes;
     private Random random = new Random();
     
     // Sample messages for simulation
@@ -56,6 +67,7 @@ public class Message {
 
     public void loadUserList() {
         userListVBox.getChildren().clear();
+        senderLabels.clear();
         String sql = "SELECT DISTINCT sender_username FROM message";
 
         try (Connection conn = getConnection();
@@ -63,32 +75,40 @@ public class Message {
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                String senderName = rs.getString("sender_username");
-
-                Label userLabel = new Label(senderName);
-                userLabel.getStyleClass().add("list-item");
-                userLabel.setMaxWidth(Double.MAX_VALUE);
-                VBox.setVgrow(userLabel, Priority.ALWAYS);
-                userLabel.setAlignment(Pos.CENTER_LEFT);
-
-                userLabel.setOnMouseClicked(event -> {
-                    loadMessages(senderName);
-                    name = senderName;
-                });
-                userListVBox.getChildren().add(userLabel);
-                userListVBox.getStyleClass().add("userlistvbox");
-
+                addSenderLabel(rs.getString("sender_username"));
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
+    private void addSenderLabel(String senderName) {
+        if (senderName == null || senderLabels.containsKey(senderName)) {
+            return;
+        }
+        Label userLabel = new Label(senderName);
+        userLabel.getStyleClass().add("list-item");
+        userLabel.setMaxWidth(Double.MAX_VALUE);
+        VBox.setVgrow(userLabel, Priority.ALWAYS);
+        userLabel.setAlignment(Pos.CENTER_LEFT);
+
+        userLabel.setOnMouseClicked(event -> {
+            loadMessages(senderName);
+            name = senderName;
+        });
+        senderLabels.put(senderName, userLabel);
+        userListVBox.getChildren().add(userLabel);
+        if (!userListVBox.getStyleClass().contains("userlistvbox")) {
+            userListVBox.getStyleClass().add("userlistvbox");
+        }
+    }
+
     public void loadMessages(String selectedUser) {
         sendname = selectedUser;
         btn.setVisible(true);
         txt.setVisible(true);
         messageContainer.getChildren().clear();
+        bubblesByRow.clear();
         messageContainer.getStyleClass().add("messageContainer");
         String sql = "SELECT * FROM message WHERE sender_username = ? OR resiver_name = ? ORDER BY timestamp";
 
@@ -99,23 +119,49 @@ public class Message {
             stmt.setString(2, selectedUser);
 
             ResultSet rs = stmt.executeQuery();
+            ResultSetMetaData meta = rs.getMetaData();
             while (rs.next()) {
-                String senderMessage = rs.getString("senser_message");
-                String userMessage = rs.getString("usermessage");
-
-                if (senderMessage != null && !senderMessage.isBlank()) {
-                    createMessageBubble(senderMessage, false);
-                }
-                if (userMessage != null && !userMessage.isBlank()) {
-                    createMessageBubble(userMessage, true);
+                Map<String, Object> row = new HashMap<>();
+                for (int c = 1; c <= meta.getColumnCount(); c++) {
+                    row.put(meta.getColumnLabel(c), rs.getObject(c));
                 }
+                showMessageRow(row);
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Append the bubbles of a message row, or replace them in place when the row is already shown
+     */
+    private void showMessageRow(Map<String, Object> row) {
+        List<Node> children = messageContainer.getChildren();
+        List<Node> old = bubblesByRow.remove(ChangeTracker.keyOf(row));
+        int at = old == null || old.isEmpty() ? children.size() : children.indexOf(old.get(0));
+        if (old != null) {
+            children.removeAll(old);
+            at = Math.min(Math.max(at, 0), children.size());
+        }
+
+        List<Node> bubbles = new ArrayList<>();
+        String senderMessage = (String) row.get("senser_message");
+        String userMessage = (String) row.get("usermessage");
+        if (senderMessage != null && !senderMessage.isBlank()) {
+            bubbles.add(messageBubble(senderMessage, false));
+        }
+        if (userMessage != null && !userMessage.isBlank()) {
+            bubbles.add(messageBubble(userMessage, true));
+        }
+        children.addAll(at, bubbles);
+        bubblesByRow.put(ChangeTracker.keyOf(row), bubbles);
+    }
+
     private void createMessageBubble(String message, boolean isUserMessage) {
+        messageContainer.getChildren().add(messageBubble(message, isUserMessage));
+    }
+
+    private HBox messageBubble(String message, boolean isUserMessage) {
         HBox messageBox = new HBox();
         messageBox.setPrefWidth(Double.MAX_VALUE);
         Label messageLabel = new Label(message);
@@ -130,8 +176,7 @@ public class Message {
         } else {
             messageBox.getChildren().addAll(messageLabel, spacer);
         }
-
-        messageContainer.getChildren().add(messageBox);
+        return messageBox;
     }
 
     @FXML
@@ -142,14 +187,25 @@ public class Message {
         String sql = "INSERT INTO message (sender_username, resiver_name, usermessage) VALUES (?, ?, ?)";
 
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setString(1, sendname);
             stmt.setString(2, "Numidu");
             stmt.setString(3, text);
             stmt.executeUpdate();
             txt.clear();
-            loadMessages(sendname);
+
+            // Show the bubble now under the row id; the change tracker's copy replaces it in place
+            Map<String, Object> row = new HashMap<>();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    row.put("id", keys.getInt(1));
+                }
+            }
+            row.put("sender_username", sendname);
+            row.put("resiver_name", "Numidu");
+            row.put("usermessage", text);
+            showMessageRow(row);
 
         } catch (SQLException e) {
             e.printStackTrace();
@@ -172,7 +228,7 @@ public class Message {
                     stmt.setString(1, name);
                     stmt.setString(2, "Numidu");
                     stmt.executeUpdate();
-                    loadUserList();
+                    addSenderLabel(name);
 
                 } catch (SQLException e) {
                     e.printStackTrace();
@@ -198,7 +254,10 @@ public class Message {
 
                 stmt.setString(1, name);
                 stmt.executeUpdate();
-                loadUserList();
+                Label removed = senderLabels.remove(name);
+                if (removed != null) {
+                    userListVBox.getChildren().remove(removed);
+                }
                 messageContainer.getChildren().clear();
 
             } catch (SQLException e) {
@@ -232,19 +291,13 @@ public class Message {
      * Start real-time updates for messages and user list
      */
     private void startRealTimeUpdates() {
-        // Check for new messages every 5 seconds
-        realTimeUpdater = new Timeline(
-            new KeyFrame(Duration.seconds(5), e -> checkForNewMessages())
-        );
-        realTimeUpdater.setCycleCount(Timeline.INDEFINITE);
-        realTimeUpdater.play();
-        
-        // Update user list every 10 seconds
-        userListUpdater = new Timeline(
-            new KeyFrame(Duration.seconds(10), e -> Platform.runLater(this::loadUserList))
-        );
-        userListUpdater.setCycleCount(Timeline.INDEFINITE);
-        userListUpdater.play();
+        // New and edited message rows arrive from the change tracker, batched per pulse
+        unsubscribe = ChangeTracker.getInstance().subscribe("message", messageChanges::addAll);
+        // Rows deleted on other clients; the remaining senders are read on the tracker thread
+        unsubscribeDeletes = ChangeTracker.getInstance().subscribeDeletes("message", ids -> {
+            Set<String> senders = remainingSenders();
+            Platform.runLater(() -> applyMessageDeletes(ids, senders));
+        });
         
         // Simulate incoming messages every 20-60 seconds
         simulateIncomingMessages();
@@ -254,43 +307,68 @@ public class Message {
      * Stop all real-time updates
      */
     private void stopRealTimeUpdates() {
-        if (realTimeUpdater != null) {
-            realTimeUpdater.stop();
+        if (unsubscribe != null) {
+            unsubscribe.run();
+            unsubscribe = null;
         }
-        if (userListUpdater != null) {
-            userListUpdater.stop();
+        if (unsubscribeDeletes != null) {
+            unsubscribeDeletes.run();
+            unsubscribeDeletes = null;
         }
     }
     
     /**
-     * Check for new messages in the database
+     * Add new senders to the list; append new rows of the open conversation and update edited ones in place
      */
-    private void checkForNewMessages() {
-        if (sendname == null) return;
-        
-        Platform.runLater(() -> {
-            String sql = "SELECT COUNT(*) FROM message WHERE sender_username = ? OR resiver_name = ?";
-            
-            try (Connection conn = getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-                
-                stmt.setString(1, sendname);
-                stmt.setString(2, sendname);
-                
-                ResultSet rs = stmt.executeQuery();
-                if (rs.next()) {
-                    int currentCount = rs.getInt(1);
-                    if (currentCount > lastMessageCount) {
-                        loadMessages(sendname); // Reload messages if new ones found
-                        lastMessageCount = currentCount;
-                    }
-                }
-            } catch (SQLException e) {
-                e.printStackTrace();
+    private void applyMessageChanges(List<Map<String, Object>> rows) {
+        for (Map<String, Object> row : rows) {
+            String sender = (String) row.get("sender_username");
+            addSenderLabel(sender);
+            if (sendname != null && (sendname.equals(sender) || sendname.equals(row.get("resiver_name")))) {
+                showMessageRow(row);
             }
-        });
+        }
     }
     
+    /**
+     * Drop the bubbles of deleted rows and the senders that no longer have any message
+     */
+    private void applyMessageDeletes(Set<Integer> ids, Set<String> senders) {
+        for (Integer id : ids) {
+            List<Node> bubbles = bubblesByRow.remove(String.valueOf(id));
+            if (bubbles != null) {
+                messageContainer.getChildren().removeAll(bubbles);
+            }
+        }
+        if (senders == null) {
+            return;
+        }
+        senderLabels.entrySet().removeIf(entry -> {
+            if (senders.contains(entry.getKey())) {
+                return false;
+            }
+            userListVBox.getChildren().remove(entry.getValue());
+            return true;
+        });
+    }
+
+    /**
+     * Senders that still have messages, or null when the database cannot be read
+     */
+    private static Set<String> remainingSenders() {
+        Set<String> senders = new HashSet<>();
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT DISTINCT sender_username FROM message")) {
+            while (rs.next()) {
+                senders.add(rs.getString(1));
+            }
+        } catch (SQLException | NullPointerException e) {
+            return null;
+        }
+        return senders;
+    }
+
     /**
      * Simulate incoming messages for demonstration
      */
@@ -325,9 +403,6 @@ public class Message {
             stmt.setString(3, randomMessage);
             stmt.executeUpdate();
             
-            // Refresh messages on UI thread
-            Platform.runLater(() -> loadMessages(sendname));
-            
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -33,66 +33,38 @@ public class PDFReportService {
      */
     public static String generateFisheriesReport(String username, WeatherData weatherData, 
                                                List<String> recentActivities, String outputPath) {
-        try {
-            String fileName = "Fisheries_Report_" + 
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".pdf";
-            String fullPath = outputPath + File.separator + fileName;
-            
-            Document document = new Document(PageSize.A4);
-            PdfWriter writer = PdfWriter.getInstance(document, new FileOutputStream(fullPath));
-            document.open();
-            
-            // Add header
-            addReportHeader(document, "Smart Fisheries Management System - Comprehensive Report");
-            
-            // Add user information
-            addUserSection(document, username);
-            
-            // Add weather information
-            addWeatherSection(document, weatherData);
-            
-            // Add recent activities
-            addActivitiesSection(document, recentActivities);
-            
-            // Add safety recommendations
-            addSafetySection(document, weatherData);
-            
-            // Add footer
-            addReportFooter(document);
-            
-            document.close();
-            return fullPath;
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
-        }
+        ReportModel model = ReportModel.create(ReportModel.COMPREHENSIVE, username, "", weatherData,
+                recentActivities, true, true, true);
+        return generateReport(model, outputPath);
     }
     
     /**
      * Generate a weather-specific report PDF
      */
     public static String generateWeatherReport(WeatherData weatherData, String location, String outputPath) {
+        ReportModel model = ReportModel.create(ReportModel.WEATHER, "", location, weatherData,
+                null, true, false, false);
+        return generateReport(model, outputPath);
+    }
+    
+    /**
+     * Write any report model to a PDF file in the output directory
+     */
+    public static String generateReport(ReportModel model, String outputPath) {
         try {
-            String fileName = "Weather_Report_" + location.replace(" ", "_") + "_" +
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".pdf";
-            String fullPath = outputPath + File.separator + fileName;
+            String fullPath = outputPath + File.separator + model.getFileName();
             
             Document document = new Document(PageSize.A4);
             PdfWriter writer = PdfWriter.getInstance(document, new FileOutputStream(fullPath));
             document.open();
             
             // Add header
-            addReportHeader(document, "Marine Weather Report - " + location);
-            
-            // Add detailed weather information
-            addDetailedWeatherSection(document, weatherData, location);
+            addReportHeader(document, model.getTitle());
             
-            // Add marine conditions
-            addMarineConditionsSection(document, weatherData);
-            
-            // Add fishing recommendations
-            addFishingRecommendationsSection(document, weatherData);
+            // Add every section included in the model
+            for (ReportModel.Section section : model.getSections()) {
+                addSection(document, section);
+            }
             
             // Add footer
             addReportFooter(document);
@@ -143,214 +115,70 @@ public class PDFReportService {
     }
     
     /**
-     * Add user information section
-     */
-    private static void addUserSection(Document document, String username) throws DocumentException {
-        document.add(new Paragraph("User Information", HEADER_FONT));
-        document.add(new Paragraph(" ")); // Add space
-        
-        PdfPTable userTable = new PdfPTable(2);
-        userTable.setWidthPercentage(100);
-        userTable.setWidths(new float[]{1, 2});
-        
-        addTableRow(userTable, "Username:", username);
-        addTableRow(userTable, "Report Generated:", 
-            LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm:ss")));
-        addTableRow(userTable, "System:", "Smart Fisheries Management System v1.0");
-        
-        document.add(userTable);
-        document.add(new Paragraph(" ")); // Add space
-    }
-    
-    /**
-     * Add weather information section
+     * Add one report section by rendering each of its blocks
      */
-    private static void addWeatherSection(Document document, WeatherData weatherData) throws DocumentException {
-        document.add(new Paragraph("Current Weather Conditions", HEADER_FONT));
-        document.add(new Paragraph(" ")); // Add space
-        
-        PdfPTable weatherTable = new PdfPTable(4);
-        weatherTable.setWidthPercentage(100);
-        weatherTable.setWidths(new float[]{1, 1, 1, 1});
-        
-        // Header row
-        weatherTable.addCell(createHeaderCell("Condition"));
-        weatherTable.addCell(createHeaderCell("Temperature"));
-        weatherTable.addCell(createHeaderCell("Wave Height"));
-        weatherTable.addCell(createHeaderCell("Wind Speed"));
-        
-        // Data row
-        weatherTable.addCell(createDataCell(weatherData.getCondition()));
-        weatherTable.addCell(createDataCell(weatherData.getTemperature() + "°C"));
-        weatherTable.addCell(createDataCell(weatherData.getWaveHeight() + "m"));
-        weatherTable.addCell(createDataCell(weatherData.getWindSpeed() + " km/h"));
-        
-        document.add(weatherTable);
-        document.add(new Paragraph(" ")); // Add space
-    }
-    
-    /**
-     * Add detailed weather section for weather-specific reports
-     */
-    private static void addDetailedWeatherSection(Document document, WeatherData weatherData, String location) throws DocumentException {
-        document.add(new Paragraph("Detailed Weather Analysis", HEADER_FONT));
-        document.add(new Paragraph(" ")); // Add space
-        
-        PdfPTable detailTable = new PdfPTable(2);
-        detailTable.setWidthPercentage(100);
-        detailTable.setWidths(new float[]{1, 2});
-        
-        addTableRow(detailTable, "Location:", location);
-        addTableRow(detailTable, "Current Condition:", weatherData.getCondition());
-        addTableRow(detailTable, "Temperature:", weatherData.getTemperature() + "°C");
-        addTableRow(detailTable, "Sea Temperature:", weatherData.getSeaTemperature() + "°C");
-        addTableRow(detailTable, "Wave Height:", weatherData.getWaveHeight() + "m");
-        addTableRow(detailTable, "Wind Speed:", weatherData.getWindSpeed() + " km/h");
-        addTableRow(detailTable, "Visibility:", weatherData.getVisibility() + " km");
-        addTableRow(detailTable, "Humidity:", weatherData.getHumidity() + "%");
-        addTableRow(detailTable, "Pressure:", weatherData.getPressure() + " hPa");
-        addTableRow(detailTable, "UV Index:", String.valueOf(weatherData.getUvIndex()));
-        addTableRow(detailTable, "Tide Status:", weatherData.getTideStatus());
-        
-        document.add(detailTable);
-        document.add(new Paragraph(" ")); // Add space
-    }
-    
-    /**
-     * Add marine conditions section
-     */
-    private static void addMarineConditionsSection(Document document, WeatherData weatherData) throws DocumentException {
-        document.add(new Paragraph("Marine Conditions Assessment", HEADER_FONT));
-        document.add(new Paragraph(" ")); // Add space
-        
-        // Safety status
-        String safetyStatus = weatherData.isSafeForFishing() ? "✅ SAFE FOR FISHING" : "⚠️ USE CAUTION";
-        BaseColor statusColor = weatherData.isSafeForFishing() ? ACCENT_COLOR : new BaseColor(239, 68, 68);
-        
-        document.add(new Paragraph(safetyStatus, new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD, statusColor)));
-        document.add(new Paragraph(" ")); // Add space
-        
-        // Conditions breakdown
-        PdfPTable conditionsTable = new PdfPTable(3);
-        conditionsTable.setWidthPercentage(100);
-        conditionsTable.setWidths(new float[]{1, 1, 2});
-        
-        conditionsTable.addCell(createHeaderCell("Parameter"));
-        conditionsTable.addCell(createHeaderCell("Status"));
-        conditionsTable.addCell(createHeaderCell("Recommendation"));
-        
-        // Wave conditions
-        String waveStatus = weatherData.getWaveHeight() < 1.5 ? "Good" : 
-                           weatherData.getWaveHeight() < 2.5 ? "Moderate" : "Poor";
-        String waveRec = weatherData.getWaveHeight() < 1.5 ? "Ideal for all boats" : 
-                        weatherData.getWaveHeight() < 2.5 ? "Suitable for larger boats" : "Small boats avoid";
-        conditionsTable.addCell(createDataCell("Wave Conditions"));
-        conditionsTable.addCell(createDataCell(waveStatus));
-        conditionsTable.addCell(createDataCell(waveRec));
-        
-        // Wind conditions
-        String windStatus = weatherData.getWindSpeed() < 15 ? "Safe" : 
-                           weatherData.getWindSpeed() < 25 ? "Moderate" : "High";
-        String windRec = weatherData.getWindSpeed() < 15 ? "Excellent conditions" : 
-                        weatherData.getWindSpeed() < 25 ? "Exercise caution" : "Consider postponing";
-        conditionsTable.addCell(createDataCell("Wind Conditions"));
-        conditionsTable.addCell(createDataCell(windStatus));
-        conditionsTable.addCell(createDataCell(windRec));
-        
-        // Visibility
-        String visStatus = weatherData.getVisibility() > 8 ? "Excellent" : 
-                          weatherData.getVisibility() > 5 ? "Good" : "Poor";
-        String visRec = weatherData.getVisibility() > 8 ? "Clear navigation" : 
-                       weatherData.getVisibility() > 5 ? "Good for fishing" : "Use navigation aids";
-        conditionsTable.addCell(createDataCell("Visibility"));
-        conditionsTable.addCell(createDataCell(visStatus));
-        conditionsTable.addCell(createDataCell(visRec));
-        
-        document.add(conditionsTable);
-        document.add(new Paragraph(" ")); // Add space
-    }
-    
-    /**
-     * Add fishing recommendations section
-     */
-    private static void addFishingRecommendationsSection(Document document, WeatherData weatherData) throws DocumentException {
-        document.add(new Paragraph("Fishing Recommendations", HEADER_FONT));
-        document.add(new Paragraph(" ")); // Add space
-        
-        com.itextpdf.text.List recommendations = new com.itextpdf.text.List(com.itextpdf.text.List.UNORDERED);
-        
-        if (weatherData.isSafeForFishing()) {
-            recommendations.add(new ListItem("✅ Current conditions are favorable for fishing activities", NORMAL_FONT));
-            recommendations.add(new ListItem("🎣 Best fishing times: Early morning (5:00-10:00 AM) and evening (4:00-7:00 PM)", NORMAL_FONT));
-            recommendations.add(new ListItem("🌊 Wave conditions are suitable for all vessel types", NORMAL_FONT));
-        } else {
-            recommendations.add(new ListItem("⚠️ Current conditions require extra caution", NORMAL_FONT));
-            recommendations.add(new ListItem("🚤 Recommend larger, more stable vessels only", NORMAL_FONT));
-            recommendations.add(new ListItem("📡 Maintain constant communication with harbor authorities", NORMAL_FONT));
-        }
-        
-        // Weather-specific recommendations
-        if (weatherData.getWindSpeed() > 20) {
-            recommendations.add(new ListItem("💨 High winds detected - secure all equipment properly", NORMAL_FONT));
-        }
-        if (weatherData.getWaveHeight() > 2.0) {
-            recommendations.add(new ListItem("🌊 High waves - avoid shallow water areas", NORMAL_FONT));
-        }
-        if (weatherData.getVisibility() < 5) {
-            recommendations.add(new ListItem("🌫️ Limited visibility - use radar and GPS navigation", NORMAL_FONT));
-        }
-        
-        // General recommendations
-        recommendations.add(new ListItem("🧥 Always wear appropriate safety gear and life jackets", NORMAL_FONT));
-        recommendations.add(new ListItem("📱 Carry emergency communication devices", NORMAL_FONT));
-        recommendations.add(new ListItem("⛽ Ensure adequate fuel and supplies before departure", NORMAL_FONT));
-        
-        document.add(recommendations);
-        document.add(new Paragraph(" ")); // Add space
-    }
-    
-    /**
-     * Add recent activities section
-     */
-    private static void addActivitiesSection(Document document, List<String> activities) throws DocumentException {
-        document.add(new Paragraph("Recent System Activities", HEADER_FONT));
-        document.add(new Paragraph(" ")); // Add space
-        
-        if (activities == null || activities.isEmpty()) {
-            document.add(new Paragraph("No recent activities recorded.", 
-                new Font(Font.FontFamily.HELVETICA, 12, Font.ITALIC, BaseColor.GRAY)));
-        } else {
-            com.itextpdf.text.List activityList = new com.itextpdf.text.List(com.itextpdf.text.List.UNORDERED);
-            for (String activity : activities) {
-                activityList.add(new ListItem(activity, NORMAL_FONT));
+    private static void addSection(Document document, ReportModel.Section section) throws DocumentException {
+        document.add(new Paragraph(section.getTitle(), HEADER_FONT));
+        document.add(new Paragraph(" ")); // Add space
+        
+        for (ReportModel.Block block : section.getBlocks()) {
+            switch (block.getType()) {
+                case KEY_VALUE:
+                    PdfPTable kvTable = new PdfPTable(2);
+                    kvTable.setWidthPercentage(100);
+                    kvTable.setWidths(new float[]{1, 2});
+                    for (String[] row : block.getRows()) {
+                        addTableRow(kvTable, row[0], row[1]);
+                    }
+                    document.add(kvTable);
+                    break;
+                    
+                case TABLE:
+                    int columns = block.getHeaders().size();
+                    PdfPTable table = new PdfPTable(columns);
+                    table.setWidthPercentage(100);
+                    float[] widths = new float[columns];
+                    for (int i = 0; i < columns; i++) {
+                        // Wide last column for three-column recommendation tables
+                        widths[i] = (columns == 3 && i == 2) ? 2 : 1;
+                    }
+                    table.setWidths(widths);
+                    for (String header : block.getHeaders()) {
+                        table.addCell(createHeaderCell(header));
+                    }
+                    for (String[] row : block.getRows()) {
+                        for (String value : row) {
+                            table.addCell(createDataCell(value));
+                        }
+                    }
+                    document.add(table);
+                    break;
+                    
+                case STATUS:
+                    BaseColor statusColor = block.isPositive() ? ACCENT_COLOR : new BaseColor(239, 68, 68);
+                    document.add(new Paragraph(block.getText(), new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD, statusColor)));
+                    document.add(new Paragraph(" ")); // Add space
+                    break;
+                    
+                case BULLETS:
+                    com.itextpdf.text.List list = new com.itextpdf.text.List(com.itextpdf.text.List.UNORDERED);
+                    for (String[] row : block.getRows()) {
+                        list.add(new ListItem(row[0], NORMAL_FONT));
+                    }
+                    if (block.getText() != null) {
+                        list.add(new ListItem(block.getText(), 
+                            new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, new BaseColor(239, 68, 68))));
+                    }
+                    document.add(list);
+                    break;
+                    
+                case NOTE:
+                    document.add(new Paragraph(block.getText(), 
+                        new Font(Font.FontFamily.HELVETICA, 12, Font.ITALIC, BaseColor.GRAY)));
+                    break;
             }
-            document.add(activityList);
-        }
-        
-        document.add(new Paragraph(" ")); // Add space
-    }
-    
-    /**
-     * Add safety section
-     */
-    private static void addSafetySection(Document document, WeatherData weatherData) throws DocumentException {
-        document.add(new Paragraph("Safety Guidelines", HEADER_FONT));
-        document.add(new Paragraph(" ")); // Add space
-        
-        com.itextpdf.text.List safetyList = new com.itextpdf.text.List(com.itextpdf.text.List.UNORDERED);
-        safetyList.add(new ListItem("🚨 Always check weather conditions before departure", NORMAL_FONT));
-        safetyList.add(new ListItem("📞 Inform harbor authorities of your fishing plans", NORMAL_FONT));
-        safetyList.add(new ListItem("🧭 Carry proper navigation equipment (GPS, compass, charts)", NORMAL_FONT));
-        safetyList.add(new ListItem("📡 Maintain VHF radio contact with other vessels and shore", NORMAL_FONT));
-        safetyList.add(new ListItem("🆘 Know emergency procedures and contact numbers", NORMAL_FONT));
-        safetyList.add(new ListItem("⚓ Anchor safely in designated areas during rough weather", NORMAL_FONT));
-        
-        if (!weatherData.isSafeForFishing()) {
-            safetyList.add(new ListItem("⚠️ CURRENT CONDITIONS: Exercise extreme caution or consider postponing trip", 
-                new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, new BaseColor(239, 68, 68))));
         }
         
-        document.add(safetyList);
         document.add(new Paragraph(" ")); // Add space
     }
     
@@ -0,0 +1,188 @@
+package com.example.demo3;
+
+import Model.Dictionaries;
+import Model.FishPrice;
+import Model.StringDictionary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * One-pass price analytics: most expensive species, cheapest harbors per species
+ * and p50/p90 price bands. Summaries are built per harbor and merged, so the
+ * coast-wide view is the merge of the harbor views. A summary can also take rows
+ * back out, so PriceStatistics keeps today's summary current from price events.
+ */
+public class PriceAnalytics {
+
+    /**
+     * A ranked (name, price) pair
+     */
+    public static class Ranked {
+        private final String name;
+        private final double price;
+
+        Ranked(String name, double price) {
+            this.name = name;
+            this.price = price;
+        }
+
+        public String getName() { return name; }
+        public double getPrice() { return price; }
+    }
+
+    /**
+     * Mergeable aggregate for a set of price rows
+     */
+    public static class Summary {
+        // Keyed by species and harbor dictionary ids; names are looked up only for results.
+        // Prices are counted per (species, harbor) so a removed row can give up the max or min.
+        private final Map<Integer, Map<Integer, TreeMap<Double, Integer>>> prices = new HashMap<>();
+        private final Map<Integer, QuantileSketch> speciesSketch = new HashMap<>();
+        private final QuantileSketch overallSketch = new QuantileSketch();
+
+        void add(FishPrice row) {
+            int species = row.getSpeciesId();
+            double price = row.getTodayPrice();
+
+            count(species, row.getPlaceId(), price, 1);
+            speciesSketch.computeIfAbsent(species, k -> new QuantileSketch()).add(price);
+            overallSketch.add(price);
+        }
+
+        private void count(int species, int harbor, double price, int rows) {
+            prices.computeIfAbsent(species, k -> new HashMap<>())
+                    .computeIfAbsent(harbor, k -> new TreeMap<>())
+                    .merge(price, rows, Integer::sum);
+        }
+
+        /**
+         * Take out a row added earlier; rows that were never added are ignored
+         */
+        void remove(FishPrice row) {
+            int species = row.getSpeciesId();
+            double price = row.getTodayPrice();
+            Map<Integer, TreeMap<Double, Integer>> harbors = prices.get(species);
+            TreeMap<Double, Integer> counts = harbors == null ? null : harbors.get(row.getPlaceId());
+            if (counts == null || !counts.containsKey(price)) {
+                return;
+            }
+            if (counts.merge(price, -1, Integer::sum) == 0) {
+                counts.remove(price);
+                if (counts.isEmpty()) {
+                    harbors.remove(row.getPlaceId());
+                }
+            }
+            QuantileSketch sketch = speciesSketch.get(species);
+            sketch.remove(price);
+            overallSketch.remove(price);
+            if (harbors.isEmpty()) {
+                prices.remove(species);
+                speciesSketch.remove(species);
+            }
+        }
+
+        /**
+         * Fold another summary into this one
+         */
+        public Summary merge(Summary other) {
+            other.prices.forEach((species, harbors) -> harbors.forEach((harbor, counts) ->
+                    counts.forEach((price, rows) -> count(species, harbor, price, rows))));
+            other.speciesSketch.forEach((species, sketch) ->
+                    speciesSketch.computeIfAbsent(species, k -> new QuantileSketch()).merge(sketch));
+            overallSketch.merge(other.overallSketch);
+            return this;
+        }
+
+        /**
+         * The k species with the highest price, most expensive first
+         */
+        public List<Ranked> topSpecies(int k) {
+            Map<Integer, Double> speciesMax = new HashMap<>();
+            prices.forEach((species, harbors) -> harbors.values().forEach(counts ->
+                    speciesMax.merge(species, counts.lastKey(), Math::max)));
+            return topK(speciesMax, Dictionaries.species(), k, true);
+        }
+
+        /**
+         * The k harbors selling a species at the lowest price, cheapest first
+         */
+        public List<Ranked> cheapestHarbors(String species, int k) {
+            Map<Integer, TreeMap<Double, Integer>> harbors = prices.get(Dictionaries.species().find(species));
+            if (harbors == null) {
+                return Collections.emptyList();
+            }
+            Map<Integer, Double> harborMin = new HashMap<>();
+            harbors.forEach((harbor, counts) -> harborMin.put(harbor, counts.firstKey()));
+            return topK(harborMin, Dictionaries.harbors(), k, false);
+        }
+
+        public List<String> getSpecies() {
+            List<String> names = new ArrayList<>();
+            for (int species : prices.keySet()) {
+                names.add(Dictionaries.species().nameOf(species));
+            }
+            names.sort(String.CASE_INSENSITIVE_ORDER);
+            return names;
+        }
+
+        public double percentile(double q) {
+            return overallSketch.quantile(q);
+        }
+
+        public double percentile(String species, double q) {
+            QuantileSketch sketch = speciesSketch.get(Dictionaries.species().find(species));
+            return sketch == null ? Double.NaN : sketch.quantile(q);
+        }
+
+        public long getCount() {
+            return overallSketch.getCount();
+        }
+    }
+
+    /**
+     * Build one summary per harbor in a single pass over the rows
+     */
+    public static Map<Integer, Summary> summarizeByHarbor(Iterable<FishPrice> rows) {
+        Map<Integer, Summary> byHarbor = new HashMap<>();
+        for (FishPrice row : rows) {
+            byHarbor.computeIfAbsent(row.getPlaceId(), k -> new Summary()).add(row);
+        }
+        return byHarbor;
+    }
+
+    /**
+     * Coast-wide summary obtained by merging the harbor summaries
+     */
+    public static Summary summarize(Iterable<FishPrice> rows) {
+        Summary total = new Summary();
+        for (Summary harbor : summarizeByHarbor(rows).values()) {
+            total.merge(harbor);
+        }
+        return total;
+    }
+
+    /**
+     * Bounded heap selection of the k best entries of a map
+     */
+    private static List<Ranked> topK(Map<Integer, Double> values, StringDictionary names, int k, boolean highest) {
+        // Heap root is the worst entry kept so far, so it is the one evicted
+        Comparator<Ranked> byPrice = Comparator.comparingDouble(Ranked::getPrice);
+        PriorityQueue<Ranked> heap = new PriorityQueue<>(k + 1, highest ? byPrice : byPrice.reversed());
+        for (Map.Entry<Integer, Double> entry : values.entrySet()) {
+            heap.offer(new Ranked(names.nameOf(entry.getKey()), entry.getValue()));
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+        List<Ranked> result = new ArrayList<>(heap);
+        result.sort(highest ? byPrice.reversed() : byPrice);
+        return result;
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.demo3;
+
+import Model.Dictionaries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import static Connection.DBConnection.getConnection;
+
+/**
+ * Long-term fish price history in memory-mapped files, one file per month.
+ * Each record is 16 bytes: epoch day (int), species id (int), harbor id (int), price (float),
+ * appended in date order so a range scan is a binary search followed by a sequential read.
+ * Scans read straight from the mapped pages through a visitor and allocate nothing per record.
+ * Closed days (before today) are copied in from fish_price by {@link #sync()}.
+ * Species and harbor ids are those of {@link Dictionaries}.
+ * Scans hold the read lock while they touch mapped pages; a mapping is only unmapped,
+ * and a file only truncated, under the write lock.
+ */
+public class PriceArchive {
+
+    private static final PriceArchive INSTANCE = new PriceArchive();
+
+    public static final int RECORD_SIZE = 16;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final String SUFFIX = ".prices";
+
+    /**
+     * Receives archived records; called once per matching record
+     */
+    public interface RecordVisitor {
+        void visit(int epochDay, int speciesId, int harborId, float price);
+    }
+
+    /**
+     * A mapped partition and the file length it was mapped at
+     */
+    private static class Partition {
+        final MappedByteBuffer buffer;
+        final long size;
+
+        Partition(MappedByteBuffer buffer, long size) {
+            this.buffer = buffer;
+            this.size = size;
+        }
+
+        int count() {
+            return (int) (size / RECORD_SIZE);
+        }
+
+        int day(int index) {
+            return buffer.getInt(index * RECORD_SIZE);
+        }
+    }
+
+    private final Path dir;
+    // Guarded by itself
+    private final Map<YearMonth, Partition> partitions = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private PriceArchive() {
+        dir = Paths.get(System.getProperty("fisheries.archiveDir",
+                System.getProperty("user.home") + "/FisheriesData/price_archive"));
+    }
+
+    public static PriceArchive getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Append closed days from fish_price that are not archived yet; returns the number of records written.
+     * The newest archived day is rewritten each time so an interrupted append never leaves it half done.
+     */
+    public synchronized int sync() {
+        long start = System.currentTimeMillis();
+        int written = 0;
+        try {
+            Files.createDirectories(dir);
+            LocalDate from = truncateNewestDay();
+            String sql = "SELECT fish_name, place, date, today_price FROM fish_price " +
+                    "WHERE date >= ? AND date < ? ORDER BY date";
+
+            try (Connection conn = getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql,
+                         ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+                stmt.setFetchSize(Integer.MIN_VALUE);
+                stmt.setDate(1, java.sql.Date.valueOf(from));
+                stmt.setDate(2, java.sql.Date.valueOf(LocalDate.now()));
+
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                YearMonth month = null;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        LocalDate date = rs.getDate("date").toLocalDate();
+                        YearMonth recordMonth = YearMonth.from(date);
+                        if (!recordMonth.equals(month) || buffer.remaining() < RECORD_SIZE) {
+                            flush(month, buffer);
+                            month = recordMonth;
+                        }
+                        buffer.putInt((int) date.toEpochDay());
+                        buffer.putInt(Dictionaries.species().idOf(rs.getString("fish_name")));
+                        buffer.putInt(Dictionaries.harbors().idOf(rs.getString("place")));
+                        buffer.putFloat((float) rs.getDouble("today_price"));
+                        written++;
+                    }
+                }
+                flush(month, buffer);
+            }
+            System.out.println(String.format("Archived %,d price records in %d ms",
+                    written, System.currentTimeMillis() - start));
+        } catch (IOException | SQLException | NullPointerException e) {
+            System.out.println("Price archive sync failed: " + e.getMessage());
+        }
+        return written;
+    }
+
+    private void flush(YearMonth month, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        if (month != null && buffer.hasRemaining()) {
+            try (FileChannel channel = FileChannel.open(fileOf(month),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            drop(month);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Drop the newest archived day (and any torn record) and return the first day to fetch again
+     */
+    private LocalDate truncateNewestDay() throws IOException {
+        YearMonth newest;
+        try (Stream<Path> files = Files.list(dir)) {
+            newest = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> YearMonth.parse(name.substring(0, name.length() - SUFFIX.length())))
+                    .max(YearMonth::compareTo)
+                    .orElse(null);
+        }
+        if (newest == null) {
+            return LocalDate.of(1970, 1, 1);
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Read through the channel rather than a mapping; the file is truncated right after
+            drop(newest);
+            try (FileChannel channel = FileChannel.open(fileOf(newest), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                int count = (int) (channel.size() / RECORD_SIZE);
+                if (count > 0) {
+                    int newestDay = dayAt(channel, count - 1);
+                    int low = 0;
+                    int high = count - 1;
+                    while (low < high) {
+                        int mid = (low + high) >>> 1;
+                        if (dayAt(channel, mid) < newestDay) {
+                            low = mid + 1;
+                        } else {
+                            high = mid;
+                        }
+                    }
+                    channel.truncate((long) low * RECORD_SIZE);
+                    return LocalDate.ofEpochDay(newestDay);
+                }
+            }
+            // The month holds no complete record: delete it once closed and try the month before
+            Files.deleteIfExists(fileOf(newest));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return truncateNewestDay();
+    }
+
+    private static int dayAt(FileChannel channel, int index) throws IOException {
+        ByteBuffer day = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        while (day.hasRemaining()) {
+            if (channel.read(day, (long) index * RECORD_SIZE + day.position()) < 0) {
+                throw new IOException("unexpected end of price archive");
+            }
+        }
+        return day.getInt(0);
+    }
+
+    /**
+     * Forget and unmap a month's mapping
+     */
+    private void drop(YearMonth month) {
+        Partition partition;
+        synchronized (partitions) {
+            partition = partitions.remove(month);
+        }
+        if (partition == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            MappedFiles.unmap(partition.buffer);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Visit every record between two dates (inclusive); -1 for species or harbor matches all.
+     * Returns the number of records visited.
+     */
+    public long scan(LocalDate from, LocalDate to, int speciesId, int harborId, RecordVisitor visitor) {
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        long visited = 0;
+
+        lock.readLock().lock();
+        try {
+            for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+                Partition partition;
+                try {
+                    partition = partition(month);
+                } catch (IOException e) {
+                    System.out.println("Price archive partition " + month + " unreadable: " + e.getMessage());
+                    continue;
+                }
+                if (partition == null) {
+                    continue;
+                }
+                MappedByteBuffer buffer = partition.buffer;
+                int count = partition.count();
+                for (int i = lowerBound(partition, fromDay); i < count; i++) {
+                    int offset = i * RECORD_SIZE;
+                    int day = buffer.getInt(offset);
+                    if (day > toDay) {
+                        break;
+                    }
+                    int speciesOf = buffer.getInt(offset + 4);
+                    int harborOf = buffer.getInt(offset + 8);
+                    if ((speciesId < 0 || speciesOf == speciesId) && (harborId < 0 || harborOf == harborId)) {
+                        visitor.visit(day, speciesOf, harborOf, buffer.getFloat(offset + 12));
+                        visited++;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return visited;
+    }
+
+    /**
+     * Average price per day between two dates (inclusive), NaN on days without records
+     */
+    public double[] dailyAverages(LocalDate from, LocalDate to, int speciesId, int harborId) {
+        int firstDay = (int) from.toEpochDay();
+        int days = (int) (to.toEpochDay() - firstDay + 1);
+        double[] sums = new double[days];
+        int[] counts = new int[days];
+        scan(from, to, speciesId, harborId, (day, speciesOf, harborOf, price) -> {
+            sums[day - firstDay] += price;
+            counts[day - firstDay]++;
+        });
+        for (int i = 0; i < days; i++) {
+            sums[i] = counts[i] == 0 ? Double.NaN : sums[i] / counts[i];
+        }
+        return sums;
+    }
+
+    /**
+     * Index of the first record on or after the given day
+     */
+    private static int lowerBound(Partition partition, int day) {
+        int low = 0;
+        int high = partition.count();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (partition.day(mid) < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Mapped view of a month, remapped when the file has grown; null when the month has no file
+     */
+    private Partition partition(YearMonth month) throws IOException {
+        synchronized (partitions) {
+            Path file = fileOf(month);
+            if (!Files.exists(file)) {
+                return null;
+            }
+            long size = Files.size(file) / RECORD_SIZE * RECORD_SIZE;
+            Partition partition = partitions.get(month);
+            if (partition == null || partition.size != size) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    buffer.order(ByteOrder.LITTLE_ENDIAN);
+                    partition = new Partition(buffer, size);
+                }
+                partitions.put(month, partition);
+            }
+            return partition;
+        }
+    }
+
+    private Path fileOf(YearMonth month) {
+        return dir.resolve(month + SUFFIX);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo3;
+
+import Model.FishPrice;
+
+/**
+ * A single change to a row of fish_price
+ */
+public class PriceEvent {
+
+    public enum Type {
+        INSERTED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final FishPrice price;
+    private final double previousPrice;
+
+    public PriceEvent(Type type, FishPrice price, double previousPrice) {
+        this.type = type;
+        this.price = price;
+        this.previousPrice = previousPrice;
+    }
+
+    public Type getType() { return type; }
+    public FishPrice getPrice() { return price; }
+    /** Price before the change, NaN for inserts */
+    public double getPreviousPrice() { return previousPrice; }
+
+    @Override
+    public String toString() {
+        return type + " " + price.getFishName() + " @ " + price.getPlace() + " " + price.getDate()
+                + " = " + price.getTodayPrice();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo3;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process publish/subscribe channel for fish_price changes.
+ * Events are delivered on the publishing thread; UI subscribers must hop to the FX thread.
+ */
+public class PriceEventBus {
+
+    private static final PriceEventBus INSTANCE = new PriceEventBus();
+
+    private final List<Consumer<List<PriceEvent>>> subscribers = new CopyOnWriteArrayList<>();
+
+    private PriceEventBus() {
+    }
+
+    public static PriceEventBus getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register a subscriber; run the returned handle to unsubscribe
+     */
+    public Runnable subscribe(Consumer<List<PriceEvent>> subscriber) {
+        subscribers.add(subscriber);
+        return () -> subscribers.remove(subscriber);
+    }
+
+    /**
+     * Register a subscriber that only receives the given event types
+     */
+    public Runnable subscribe(Set<PriceEvent.Type> types, Consumer<List<PriceEvent>> subscriber) {
+        EnumSet<PriceEvent.Type> accepted = EnumSet.copyOf(types);
+        return subscribe(events -> {
+            List<PriceEvent> matching = new ArrayList<>();
+            for (PriceEvent event : events) {
+                if (accepted.contains(event.getType())) {
+                    matching.add(event);
+                }
+            }
+            if (!matching.isEmpty()) {
+                subscriber.accept(matching);
+            }
+        });
+    }
+
+    /**
+     * Publish a single event
+     */
+    public void publish(PriceEvent event) {
+        publish(List.of(event));
+    }
+
+    /**
+     * Deliver a batch of events to every subscriber
+     */
+    public void publish(List<PriceEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        for (Consumer<List<PriceEvent>> subscriber : subscribers) {
+            try {
+                subscriber.accept(events);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package com.example.demo3;
+
+import Model.Dictionaries;
+import Model.FishPrice;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static Connection.DBConnection.getConnection;
+
+/**
+ * Watches a drop folder for daily market price files and upserts them into fish_price.
+ *
+ * File format (CSV, header optional):
+ *   fish_name,place,date,today_price[,status][,fish_details][,image]
+ *
+ * Files are parsed in parallel, deduplicated on (fish_name, place, date) against each other
+ * and against the rows already stored, and only real changes are written and published
+ * on the PriceEventBus. Processed files are moved to processed/ or failed/.
+ * The upsert relies on a unique key over (fish_name, place, date), created on first start.
+ */
+public class PriceFeedService {
+
+    private static final PriceFeedService INSTANCE = new PriceFeedService();
+
+    private static final int BATCH_SIZE = 500;
+    private static final long SETTLE_MILLIS = 1000;
+    private static final long KEY_FIELD_MASK = (1L << 21) - 1;
+    /** MySQL error for adding an index whose name is already taken */
+    private static final int ER_DUP_KEYNAME = 1061;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO fish_price (fish_name, fish_details, today_price, place, status, date, image) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE today_price = VALUES(today_price), status = VALUES(status)";
+
+    /**
+     * One parsed line of a price file
+     */
+    private static class FeedRow {
+        final String fishName;
+        final String place;
+        final LocalDate date;
+        final double price;
+        final String status;
+        final String details;
+        final String image;
+
+        FeedRow(String fishName, String place, LocalDate date, double price,
+                String status, String details, String image) {
+            this.fishName = fishName;
+            this.place = place;
+            this.date = date;
+            this.price = price;
+            this.status = status;
+            this.details = details;
+            this.image = image;
+        }
+
+        long key() {
+            return PriceFeedService.key(fishName, place, date);
+        }
+    }
+
+    private volatile ExecutorService parsers;
+    private Path dropDir;
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    private PriceFeedService() {
+    }
+
+    public static PriceFeedService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Start watching the drop folder (fisheries.priceFeedDir, default ~/FisheriesData/price_feed)
+     */
+    public synchronized void start() {
+        if (watcherThread != null) {
+            return;
+        }
+        dropDir = Paths.get(System.getProperty("fisheries.priceFeedDir",
+                System.getProperty("user.home") + "/FisheriesData/price_feed"));
+        try {
+            Files.createDirectories(dropDir.resolve("processed"));
+            Files.createDirectories(dropDir.resolve("failed"));
+            watchService = FileSystems.getDefault().newWatchService();
+            dropDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        parsers = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors() / 2), r -> {
+            Thread thread = new Thread(r, "price-feed-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcherThread = new Thread(this::watchLoop, "price-feed-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        System.out.println("Price feed watching " + dropDir);
+    }
+
+    public synchronized void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        if (parsers != null) {
+            parsers.shutdownNow();
+            parsers = null;
+        }
+        watcherThread = null;
+    }
+
+    private void watchLoop() {
+        ensureUniqueKey();
+        processPending(listDropFiles());
+
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Set<Path> pending = new LinkedHashSet<>();
+                collect(key, pending);
+
+                // Wait until the folder settles so half-copied files are not picked up
+                WatchKey next;
+                while ((next = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(next, pending);
+                }
+                processPending(new ArrayList<>(pending));
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            System.out.println("Price feed watcher stopped");
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> pending) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path) {
+                Path file = dropDir.resolve((Path) event.context());
+                if (isPriceFile(file)) {
+                    pending.add(file);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    private List<Path> listDropFiles() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dropDir)) {
+            for (Path file : stream) {
+                if (isPriceFile(file)) {
+                    files.add(file);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return files;
+    }
+
+    private static boolean isPriceFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return (name.endsWith(".csv") || name.endsWith(".txt")) && Files.isRegularFile(file);
+    }
+
+    /**
+     * Parse, deduplicate, upsert and publish a set of dropped files
+     */
+    public void processPending(List<Path> files) {
+        if (files.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+
+        // Parse files in parallel
+        ExecutorService pool = parsers;
+        Map<Path, Future<List<FeedRow>>> parsed = new LinkedHashMap<>();
+        try {
+            for (Path file : files) {
+                parsed.put(file, pool.submit(() -> parseFile(file)));
+            }
+        } catch (RejectedExecutionException | NullPointerException e) {
+            // Stopped; the files stay in the drop folder for the next start
+            return;
+        }
+
+        // Later files win when the same (fish, place, date) appears twice
+        Map<Long, FeedRow> rows = new LinkedHashMap<>();
+        List<Path> done = new ArrayList<>();
+        for (Map.Entry<Path, Future<List<FeedRow>>> entry : parsed.entrySet()) {
+            try {
+                for (FeedRow row : entry.getValue().get()) {
+                    rows.put(row.key(), row);
+                }
+                done.add(entry.getKey());
+            } catch (Exception e) {
+                System.out.println("Price file " + entry.getKey().getFileName() + " rejected: " + e.getMessage());
+                moveTo(entry.getKey(), "failed");
+            }
+        }
+
+        try {
+            List<PriceEvent> events = upsert(rows.values());
+            for (Path file : done) {
+                moveTo(file, "processed");
+            }
+            System.out.println(String.format("Price feed: %d files, %d rows, %d changes in %d ms",
+                    done.size(), rows.size(), events.size(), System.currentTimeMillis() - start));
+            PriceEventBus.getInstance().publish(events);
+        } catch (SQLException | NullPointerException e) {
+            // Leave the files in place so they are retried on the next change or restart
+            e.printStackTrace();
+        }
+    }
+
+    private List<FeedRow> parseFile(Path file) throws IOException {
+        List<FeedRow> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = FishermanImportService.splitCsvLine(line);
+                if (lineNumber == 1 && "fish_name".equalsIgnoreCase(fields.get(0).trim())) {
+                    continue;
+                }
+                if (fields.size() < 4) {
+                    throw new IOException("line " + lineNumber + " has " + fields.size() + " columns");
+                }
+                try {
+                    rows.add(new FeedRow(
+                            fields.get(0).trim(),
+                            fields.get(1).trim(),
+                            LocalDate.parse(fields.get(2).trim()),
+                            Double.parseDouble(fields.get(3).trim()),
+                            fields.size() > 4 ? fields.get(4).trim() : "Available",
+                            fields.size() > 5 ? fields.get(5).trim() : "",
+                            fields.size() > 6 ? fields.get(6).trim() : ""));
+                } catch (RuntimeException e) {
+                    throw new IOException("line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Write only new or changed rows and return the resulting events
+     */
+    private List<PriceEvent> upsert(Iterable<FeedRow> feedRows) throws SQLException {
+        Set<LocalDate> dates = new LinkedHashSet<>();
+        for (FeedRow row : feedRows) {
+            dates.add(row.date);
+        }
+
+        try (Connection conn = getConnection()) {
+            Map<Long, FishPrice> existing = loadByDates(conn, dates);
+
+            List<FeedRow> changed = new ArrayList<>();
+            Map<Long, Double> previous = new HashMap<>();
+            for (FeedRow row : feedRows) {
+                FishPrice current = existing.get(row.key());
+                if (current == null) {
+                    changed.add(row);
+                } else if (current.getTodayPrice() != row.price || !Objects.equals(current.getStatus(), row.status)) {
+                    changed.add(row);
+                    previous.put(row.key(), current.getTodayPrice());
+                }
+            }
+            if (changed.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(UPSERT_SQL)) {
+                int pending = 0;
+                for (FeedRow row : changed) {
+                    stmt.setString(1, row.fishName);
+                    stmt.setString(2, row.details);
+                    stmt.setDouble(3, row.price);
+                    stmt.setString(4, row.place);
+                    stmt.setString(5, row.status);
+                    stmt.setDate(6, java.sql.Date.valueOf(row.date));
+                    stmt.setString(7, row.image);
+                    stmt.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        stmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    stmt.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            // Re-read so events carry database ids and stored details
+            Map<Long, FishPrice> stored = loadByDates(conn, dates);
+            List<PriceEvent> events = new ArrayList<>();
+            for (FeedRow row : changed) {
+                FishPrice price = stored.get(row.key());
+                if (price == null) {
+                    continue;
+                }
+                Double old = previous.get(row.key());
+                events.add(old == null
+                        ? new PriceEvent(PriceEvent.Type.INSERTED, price, Double.NaN)
+                        : new PriceEvent(PriceEvent.Type.UPDATED, price, old));
+            }
+            return events;
+        }
+    }
+
+    private static Map<Long, FishPrice> loadByDates(Connection conn, Set<LocalDate> dates) throws SQLException {
+        Map<Long, FishPrice> rows = new HashMap<>();
+        if (dates.isEmpty()) {
+            return rows;
+        }
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, fish_name, fish_details, today_price, place, status, date, image FROM fish_price WHERE date IN (");
+        for (int i = 0; i < dates.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (LocalDate date : dates) {
+                stmt.setDate(index++, java.sql.Date.valueOf(date));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Dictionaries.registerPrice(rs.getString("fish_name"), rs.getString("place"),
+                            rs.getString("status"));
+                    FishPrice price = new FishPrice(
+                            rs.getInt("id"),
+                            rs.getString("fish_name"),
+                            rs.getString("fish_details"),
+                            rs.getDouble("today_price"),
+                            rs.getString("place"),
+                            rs.getString("status"),
+                            rs.getDate("date").toLocalDate(),
+                            rs.getString("image"));
+                    rows.put(key(price.getSpeciesId(), price.getPlaceId(), price.getDate()), price);
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Add the unique key the upsert depends on unless it already exists
+     */
+    private void ensureUniqueKey() {
+        String existsSql = "SELECT 1 FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = 'fish_price' AND index_name = 'uq_fish_place_date'";
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(existsSql)) {
+                if (rs.next()) {
+                    return;
+                }
+            }
+            stmt.executeUpdate("ALTER TABLE fish_price ADD UNIQUE KEY uq_fish_place_date (fish_name, place, date)");
+        } catch (SQLException e) {
+            if (e.getErrorCode() != ER_DUP_KEYNAME) {
+                // e.g. existing duplicate rows: the feed would then insert instead of update
+                System.out.println("Price feed unique key could not be added: " + e.getMessage());
+            }
+        } catch (NullPointerException e) {
+            System.out.println("Price feed unique key not checked, database unavailable");
+        }
+    }
+
+    private void moveTo(Path file, String folder) {
+        try {
+            Files.move(file, dropDir.resolve(folder).resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Row key from species id, harbor id and epoch day (low 21 bits each)
+     */
+    private static long key(String fishName, String place, LocalDate date) {
+        return key(Dictionaries.species().idOf(fishName), Dictionaries.harbors().idOf(place), date);
+    }
+
+    private static long key(int speciesId, int placeId, LocalDate date) {
+        return ((speciesId & KEY_FIELD_MASK) << 42) | ((placeId & KEY_FIELD_MASK) << 21)
+                | (date.toEpochDay() & KEY_FIELD_MASK);
+    }
+}
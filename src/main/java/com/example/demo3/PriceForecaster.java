@@ -0,0 +1,365 @@
+package com.example.demo3;
+
+import Model.Dictionaries;
+import Model.FishPrice;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static Connection.DBConnection.getConnection;
+
+/**
+ * Daily price forecasts per (species, harbor) and per species across all harbors.
+ * Price history for the last year is loaded once (closed days from the {@link PriceArchive},
+ * today's rows from fish_price), every series is fitted with
+ * {@link HoltWintersModel} in parallel on a ForkJoinPool, and the fitted models
+ * are cached. Price events then update the history and advance the cached model
+ * by one step; parameters are searched again only after a week of new days.
+ * Each series is guarded by its own monitor: a fit holds it from snapshot to install, so an
+ * update never advances a model that a running fit is about to replace.
+ */
+public class PriceForecaster {
+
+    private static final PriceForecaster INSTANCE = new PriceForecaster();
+
+    /** Harbor id of the per-species series that averages all harbors */
+    public static final int ALL_HARBORS = -1;
+
+    private static final int HISTORY_DAYS = 365;
+    private static final int REFIT_AFTER_DAYS = 7;
+
+    /**
+     * Forecast for the days after the last observation
+     */
+    public static class Forecast {
+        private final LocalDate[] dates;
+        private final double[] mean;
+        private final double[] lower;
+        private final double[] upper;
+
+        Forecast(int horizon) {
+            dates = new LocalDate[horizon];
+            mean = new double[horizon];
+            lower = new double[horizon];
+            upper = new double[horizon];
+        }
+
+        public LocalDate[] getDates() { return dates; }
+        public double[] getMean() { return mean; }
+        public double[] getLower() { return lower; }
+        public double[] getUpper() { return upper; }
+    }
+
+    /**
+     * Daily average prices of one series plus its cached model; guarded by its own monitor
+     */
+    private static class Series {
+        // epoch day -> {sum, count}
+        final NavigableMap<Long, double[]> days = new TreeMap<>();
+        HoltWintersModel model;
+        long modelLastDay = Long.MIN_VALUE;
+        int daysSinceFit;
+
+        void add(long day, double price, int sign) {
+            double[] cell = days.computeIfAbsent(day, k -> new double[2]);
+            cell[0] += sign * price;
+            cell[1] += sign;
+            if (cell[1] <= 0) {
+                days.remove(day);
+            }
+        }
+
+        /**
+         * Dense daily series from the first to the last day, gaps carried forward
+         */
+        double[] dense() {
+            if (days.isEmpty()) {
+                return new double[0];
+            }
+            long first = days.firstKey();
+            double[] y = new double[(int) (days.lastKey() - first + 1)];
+            double last = 0;
+            for (int i = 0; i < y.length; i++) {
+                double[] cell = days.get(first + i);
+                if (cell != null) {
+                    last = cell[0] / cell[1];
+                }
+                y[i] = last;
+            }
+            return y;
+        }
+    }
+
+    /**
+     * Where a row's price was counted, so updates and deletes can take it back out
+     */
+    private static class RowPoint {
+        final int species;
+        final int harbor;
+        final long day;
+        final double price;
+
+        RowPoint(int species, int harbor, long day, double price) {
+            this.species = species;
+            this.harbor = harbor;
+            this.day = day;
+            this.price = price;
+        }
+    }
+
+    // Keyed by species id in the high half and harbor id in the low half
+    private final Map<Long, Series> series = new ConcurrentHashMap<>();
+    private final Map<Integer, RowPoint> rows = new HashMap<>();
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private volatile boolean loaded;
+
+    private PriceForecaster() {
+        PriceEventBus.getInstance().subscribe(this::onPriceEvents);
+    }
+
+    public static PriceForecaster getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Load history and fit every series once; later calls return immediately.
+     * Blocks while fitting, so call it off the FX thread.
+     */
+    public void ensureFitted() {
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            loadHistory();
+            loaded = true;
+        }
+        fitAll();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    private void loadHistory() {
+        LocalDate today = LocalDate.now();
+        PriceArchive archive = PriceArchive.getInstance();
+        archive.sync();
+        long archived = archive.scan(today.minusDays(HISTORY_DAYS), today.minusDays(1), -1, -1,
+                (day, speciesId, harborId, price) -> count(new RowPoint(speciesId, harborId, day, price), 1, null));
+        // Without an archive (first start, sync failed) the whole year comes from the database
+        LocalDate from = archived > 0 ? today : today.minusDays(HISTORY_DAYS);
+
+        String sql = "SELECT id, fish_name, place, date, today_price FROM fish_price WHERE date >= ?";
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(from));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    record(rs.getInt("id"), rs.getString("fish_name"), rs.getString("place"),
+                            rs.getDate("date").toLocalDate(), rs.getDouble("today_price"));
+                }
+            }
+        } catch (SQLException | NullPointerException e) {
+            System.out.println("Price history could not be loaded: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fit every series in parallel and cache the models
+     */
+    private void fitAll() {
+        long start = System.currentTimeMillis();
+        List<Map.Entry<Long, Series>> entries = new ArrayList<>(series.entrySet());
+        pool.submit(() -> entries.parallelStream().forEach(entry -> fit(entry.getValue()))).join();
+        System.out.println(String.format("Fitted %d price series in %d ms",
+                entries.size(), System.currentTimeMillis() - start));
+    }
+
+    private void fit(Series target) {
+        synchronized (target) {
+            double[] y = target.dense();
+            target.model = HoltWintersModel.fit(y, y.length);
+            target.modelLastDay = target.days.isEmpty() ? Long.MIN_VALUE : target.days.lastKey();
+            target.daysSinceFit = 0;
+        }
+    }
+
+    private void onPriceEvents(List<PriceEvent> events) {
+        if (!loaded) {
+            return;
+        }
+        List<Series> refit = new ArrayList<>();
+        synchronized (this) {
+            // Earliest day changed in each series
+            Map<Series, Long> touched = new HashMap<>();
+            for (PriceEvent event : events) {
+                FishPrice price = event.getPrice();
+                RowPoint old = rows.remove(price.getId());
+                if (old == null && price.getDate() != null && event.getType() != PriceEvent.Type.INSERTED) {
+                    // A row of an archived day, loaded without its id: take out what the event says it was
+                    double was = event.getType() == PriceEvent.Type.DELETED ? price.getTodayPrice()
+                            : event.getPreviousPrice();
+                    if (!Double.isNaN(was) && price.getDate().isBefore(LocalDate.now())) {
+                        old = new RowPoint(price.getSpeciesId(), price.getPlaceId(), price.getDate().toEpochDay(), was);
+                    }
+                }
+                if (old != null) {
+                    count(old, -1, touched);
+                }
+                if (event.getType() != PriceEvent.Type.DELETED && price.getDate() != null) {
+                    RowPoint point = new RowPoint(price.getSpeciesId(), price.getPlaceId(),
+                            price.getDate().toEpochDay(), price.getTodayPrice());
+                    rows.put(price.getId(), point);
+                    count(point, 1, touched);
+                }
+            }
+            touched.forEach((target, firstChangedDay) -> {
+                if (update(target, firstChangedDay)) {
+                    refit.add(target);
+                }
+            });
+        }
+        if (!refit.isEmpty()) {
+            pool.execute(() -> refit.parallelStream().forEach(this::fit));
+        }
+    }
+
+    /**
+     * Bring a cached model up to date; returns true when its parameters are due for a new search
+     */
+    private boolean update(Series target, long firstChangedDay) {
+        synchronized (target) {
+            HoltWintersModel model = target.model;
+            if (model == null || target.days.isEmpty()) {
+                // Series seen for the first time
+                return !target.days.isEmpty();
+            }
+            long lastDay = target.days.lastKey();
+            if (firstChangedDay > target.modelLastDay) {
+                // Fitted on an empty series, or every day it saw has been deleted: nothing to carry forward
+                Map.Entry<Long, double[]> carried = target.modelLastDay == Long.MIN_VALUE ? null
+                        : target.days.floorEntry(target.modelLastDay);
+                if (carried == null) {
+                    return true;
+                }
+                // New days only: fold them in with the cached parameters
+                double carry = average(carried.getValue());
+                for (long day = target.modelLastDay + 1; day <= lastDay; day++) {
+                    double[] cell = target.days.get(day);
+                    if (cell != null) {
+                        carry = average(cell);
+                    }
+                    model.advance(carry);
+                }
+                target.daysSinceFit += (int) (lastDay - target.modelLastDay);
+                target.modelLastDay = lastDay;
+            } else {
+                // A past day changed: replay the series with the cached parameters
+                double[] y = target.dense();
+                target.model = model.refilter(y, y.length);
+                target.modelLastDay = lastDay;
+            }
+            return target.daysSinceFit >= REFIT_AFTER_DAYS;
+        }
+    }
+
+    private static double average(double[] cell) {
+        return cell[0] / cell[1];
+    }
+
+    private void record(int id, String fishName, String place, LocalDate date, double price) {
+        RowPoint point = new RowPoint(Dictionaries.species().idOf(fishName), Dictionaries.harbors().idOf(place),
+                date.toEpochDay(), price);
+        rows.put(id, point);
+        count(point, 1, null);
+    }
+
+    private void count(RowPoint point, int sign, Map<Series, Long> touched) {
+        for (int harbor : new int[]{point.harbor, ALL_HARBORS}) {
+            Series target = seriesFor(point.species, harbor);
+            synchronized (target) {
+                target.add(point.day, point.price, sign);
+            }
+            if (touched != null) {
+                touched.merge(target, point.day, Math::min);
+            }
+        }
+    }
+
+    private Series seriesFor(int species, int harbor) {
+        return series.computeIfAbsent(seriesKey(species, harbor), k -> new Series());
+    }
+
+    private static long seriesKey(int species, int harbor) {
+        return ((long) species << 32) | (harbor & 0xffffffffL);
+    }
+
+    /**
+     * Series of a species at a harbor, or across all harbors when harbor is null
+     */
+    private Series lookup(String species, String harbor) {
+        int speciesId = Dictionaries.species().find(species);
+        int harborId = harbor == null ? ALL_HARBORS : Dictionaries.harbors().find(harbor);
+        if (speciesId < 0 || (harbor != null && harborId < 0)) {
+            return null;
+        }
+        return series.get(seriesKey(speciesId, harborId));
+    }
+
+    /**
+     * Forecast the next days for a species, at one harbor or across all of them when harbor is null
+     */
+    public Forecast forecast(String species, String harbor, int horizon) {
+        Series target = lookup(species, harbor);
+        if (target == null) {
+            return null;
+        }
+        synchronized (target) {
+            return forecast(target, horizon);
+        }
+    }
+
+    private static Forecast forecast(Series target, int horizon) {
+        if (target.model == null || target.modelLastDay == Long.MIN_VALUE || target.days.isEmpty()) {
+            return null;
+        }
+        Forecast forecast = new Forecast(horizon);
+        LocalDate lastDay = LocalDate.ofEpochDay(target.modelLastDay);
+        for (int h = 1; h <= horizon; h++) {
+            double mean = target.model.forecast(h);
+            double band = target.model.bandWidth(h);
+            forecast.dates[h - 1] = lastDay.plusDays(h);
+            forecast.mean[h - 1] = mean;
+            forecast.lower[h - 1] = Math.max(0.0, mean - band);
+            forecast.upper[h - 1] = mean + band;
+        }
+        return forecast;
+    }
+
+    /**
+     * Daily average prices since a date, for the history part of a chart
+     */
+    public NavigableMap<LocalDate, Double> history(String species, String harbor, LocalDate from) {
+        NavigableMap<LocalDate, Double> result = new TreeMap<>();
+        Series target = lookup(species, harbor);
+        if (target != null) {
+            synchronized (target) {
+                target.days.tailMap(from.toEpochDay(), true).forEach((day, cell) ->
+                        result.put(LocalDate.ofEpochDay(day), average(cell)));
+            }
+        }
+        return result;
+    }
+}
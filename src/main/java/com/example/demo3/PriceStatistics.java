@@ -0,0 +1,305 @@
+package com.example.demo3;
+
+import Model.Dictionaries;
+import Model.FishPrice;
+import Model.StringDictionary;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static Connection.DBConnection.getConnection;
+
+/**
+ * Live max/min/average of today's fish prices, overall, per species and per harbor.
+ * Seeded once per day from a date-scoped query, then kept current from PriceEventBus
+ * events; each change costs O(log n). The first event after midnight reseeds for the new day.
+ * Today's PriceAnalytics summary is kept current the same way rather than rebuilt from the rows.
+ * Readers get copies, so they can be used outside the lock; the seed queries the database,
+ * so call ensureSeeded off the FX thread.
+ */
+public class PriceStatistics {
+
+    private static final PriceStatistics INSTANCE = new PriceStatistics();
+
+    /**
+     * Running statistics for one group of rows
+     */
+    public static class GroupStats {
+        private final IndexedPriceHeap maxHeap;
+        private final IndexedPriceHeap minHeap;
+        private final Map<Integer, Double> prices;
+        private double sum;
+
+        GroupStats() {
+            maxHeap = new IndexedPriceHeap(true);
+            minHeap = new IndexedPriceHeap(false);
+            prices = new HashMap<>();
+        }
+
+        private GroupStats(GroupStats other) {
+            maxHeap = new IndexedPriceHeap(other.maxHeap);
+            minHeap = new IndexedPriceHeap(other.minHeap);
+            prices = new HashMap<>(other.prices);
+            sum = other.sum;
+        }
+
+        void put(FishPrice price) {
+            Double old = prices.put(price.getId(), price.getTodayPrice());
+            if (old != null) {
+                sum -= old;
+            }
+            sum += price.getTodayPrice();
+            maxHeap.put(price.getId(), price.getFishName(), price.getPlace(), price.getTodayPrice());
+            minHeap.put(price.getId(), price.getFishName(), price.getPlace(), price.getTodayPrice());
+        }
+
+        void remove(int id) {
+            Double old = prices.remove(id);
+            if (old != null) {
+                sum -= old;
+                maxHeap.remove(id);
+                minHeap.remove(id);
+            }
+        }
+
+        public IndexedPriceHeap.Entry getMax() { return maxHeap.peek(); }
+        public IndexedPriceHeap.Entry getMin() { return minHeap.peek(); }
+        public int getCount() { return prices.size(); }
+
+        public double getAverage() {
+            return prices.isEmpty() ? 0.0 : sum / prices.size();
+        }
+    }
+
+    private final GroupStats overall = new GroupStats();
+    // Keyed by dictionary id (see Dictionaries)
+    private final Map<Integer, GroupStats> bySpecies = new HashMap<>();
+    private final Map<Integer, GroupStats> byHarbor = new HashMap<>();
+    // Species and harbor ids each row was filed under, so an update can move it between groups
+    private final Map<Integer, int[]> rowGroups = new HashMap<>();
+    private final Map<Integer, FishPrice> todayRows = new HashMap<>();
+    private PriceAnalytics.Summary todaySummary = new PriceAnalytics.Summary();
+    // Bumped on every change to today's rows, so readers can skip redrawing when nothing changed
+    private long version;
+
+    private LocalDate day;
+    private boolean indexChecked;
+
+    private PriceStatistics() {
+        PriceEventBus.getInstance().subscribe(this::onPriceEvents);
+    }
+
+    public static PriceStatistics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Seed from the database if today's statistics have not been loaded yet
+     */
+    public synchronized void ensureSeeded() {
+        LocalDate today = LocalDate.now();
+        if (today.equals(day)) {
+            return;
+        }
+        seed(today);
+    }
+
+    private void seed(LocalDate today) {
+        clear();
+        day = today;
+        ensureDateIndex();
+
+        String sql = "SELECT id, fish_name, fish_details, today_price, place, status, date, image " +
+                "FROM fish_price WHERE date = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(today));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Dictionaries.registerPrice(rs.getString("fish_name"), rs.getString("place"),
+                            rs.getString("status"));
+                    apply(new FishPrice(
+                            rs.getInt("id"),
+                            rs.getString("fish_name"),
+                            rs.getString("fish_details"),
+                            rs.getDouble("today_price"),
+                            rs.getString("place"),
+                            rs.getString("status"),
+                            rs.getDate("date").toLocalDate(),
+                            rs.getString("image")));
+                }
+            }
+        } catch (SQLException | NullPointerException e) {
+            System.out.println("Price statistics seed failed: " + e.getMessage());
+        }
+    }
+
+    private synchronized void onPriceEvents(List<PriceEvent> events) {
+        if (day == null) {
+            // Not seeded yet; the seed will read these rows from the database
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        if (!today.equals(day)) {
+            // New day: start from today's rows, then apply the batch on top
+            seed(today);
+        }
+        for (PriceEvent event : events) {
+            FishPrice price = event.getPrice();
+            if (event.getType() == PriceEvent.Type.DELETED || !day.equals(price.getDate())) {
+                remove(price.getId());
+            } else {
+                apply(price);
+            }
+        }
+    }
+
+    private void apply(FishPrice price) {
+        int[] groups = rowGroups.get(price.getId());
+        int species = price.getSpeciesId();
+        int harbor = price.getPlaceId();
+        if (groups != null && (groups[0] != species || groups[1] != harbor)) {
+            remove(price.getId());
+        }
+        rowGroups.put(price.getId(), new int[]{species, harbor});
+        FishPrice old = todayRows.put(price.getId(), price);
+        if (old != null) {
+            todaySummary.remove(old);
+        }
+        todaySummary.add(price);
+        version++;
+        overall.put(price);
+        bySpecies.computeIfAbsent(species, k -> new GroupStats()).put(price);
+        byHarbor.computeIfAbsent(harbor, k -> new GroupStats()).put(price);
+    }
+
+    private void remove(int id) {
+        int[] groups = rowGroups.remove(id);
+        if (groups == null) {
+            return;
+        }
+        todaySummary.remove(todayRows.remove(id));
+        version++;
+        overall.remove(id);
+        removeFrom(bySpecies, groups[0], id);
+        removeFrom(byHarbor, groups[1], id);
+    }
+
+    private static void removeFrom(Map<Integer, GroupStats> groups, int key, int id) {
+        GroupStats stats = groups.get(key);
+        if (stats != null) {
+            stats.remove(id);
+            if (stats.getCount() == 0) {
+                groups.remove(key);
+            }
+        }
+    }
+
+    private void clear() {
+        overall.maxHeap.clear();
+        overall.minHeap.clear();
+        overall.prices.clear();
+        overall.sum = 0;
+        bySpecies.clear();
+        byHarbor.clear();
+        rowGroups.clear();
+        todayRows.clear();
+        todaySummary = new PriceAnalytics.Summary();
+        version++;
+    }
+
+    public synchronized GroupStats getOverall() {
+        return new GroupStats(overall);
+    }
+
+    public synchronized GroupStats getSpecies(int speciesId) {
+        return copyOf(bySpecies.get(speciesId));
+    }
+
+    public synchronized GroupStats getSpecies(String fishName) {
+        return copyOf(bySpecies.get(Dictionaries.species().find(fishName)));
+    }
+
+    public synchronized GroupStats getHarbor(int harborId) {
+        return copyOf(byHarbor.get(harborId));
+    }
+
+    public synchronized GroupStats getHarbor(String place) {
+        return copyOf(byHarbor.get(Dictionaries.harbors().find(place)));
+    }
+
+    private static GroupStats copyOf(GroupStats stats) {
+        return stats == null ? null : new GroupStats(stats);
+    }
+
+    public synchronized Map<String, GroupStats> getAllSpecies() {
+        return byName(bySpecies, Dictionaries.species());
+    }
+
+    public synchronized Map<String, GroupStats> getAllHarbors() {
+        return byName(byHarbor, Dictionaries.harbors());
+    }
+
+    private static Map<String, GroupStats> byName(Map<Integer, GroupStats> groups, StringDictionary dictionary) {
+        Map<String, GroupStats> named = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        groups.forEach((id, stats) -> named.put(dictionary.nameOf(id), new GroupStats(stats)));
+        return Collections.unmodifiableMap(named);
+    }
+
+    /**
+     * Snapshot of today's rows
+     */
+    public synchronized List<FishPrice> getTodayRows() {
+        return new ArrayList<>(todayRows.values());
+    }
+
+    /**
+     * Read today's analytics summary under the statistics lock; the summary must not escape the reader
+     */
+    public synchronized <T> T readTodaySummary(Function<PriceAnalytics.Summary, T> reader) {
+        return reader.apply(todaySummary);
+    }
+
+    /**
+     * Changes whenever today's rows change
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Today's most expensive row, or null when no prices were recorded today
+     */
+    public synchronized IndexedPriceHeap.Entry getTodayMax() {
+        IndexedPriceHeap.Entry max = overall.getMax();
+        return max == null ? null : max.copy();
+    }
+
+    /**
+     * Index used by the seed query; ignored when it already exists
+     */
+    private void ensureDateIndex() {
+        if (indexChecked) {
+            return;
+        }
+        indexChecked = true;
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE fish_price ADD INDEX idx_fish_price_date (date)");
+        } catch (SQLException | NullPointerException e) {
+            // Index already exists or database unavailable
+        }
+    }
+}
@@ -11,7 +11,9 @@ import java.io.File;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller for the Print/PDF Generation functionality
@@ -23,6 +25,7 @@ public class PrintController {
     @FXML private TextField outputPathField;
     @FXML private Button browseButton;
     @FXML private Button generateButton;
+    @FXML private Button exportButton;
     @FXML private TextArea reportPreview;
     @FXML private ProgressBar progressBar;
     @FXML private Label statusLabel;
@@ -35,6 +38,12 @@ public class PrintController {
     private String currentUsername = "User";
     private WeatherController weatherController;
     
+    // Preview state: rendered text per section so a toggle only replaces what changed
+    private ReportModel previewModel;
+    private final Map<ReportModel.Part, String> previewSections = new EnumMap<>(ReportModel.Part.class);
+    private String previewHeader = "";
+    private String previewFooter = "";
+    
     @FXML
     public void initialize() {
         setupReportTypes();
@@ -90,13 +99,14 @@ public class PrintController {
     private void setupEventHandlers() {
         browseButton.setOnAction(e -> browseOutputDirectory());
         generateButton.setOnAction(e -> generatePDFReport());
+        exportButton.setOnAction(e -> exportRawData());
         
         reportTypeCombo.setOnAction(e -> updateReportPreview());
         
-        // Update preview when checkboxes change
-        includeWeatherCheck.setOnAction(e -> updateReportPreview());
-        includeActivitiesCheck.setOnAction(e -> updateReportPreview());
-        includeSafetyCheck.setOnAction(e -> updateReportPreview());
+        // Update only the preview sections that changed when checkboxes change
+        includeWeatherCheck.setOnAction(e -> updatePreviewSections());
+        includeActivitiesCheck.setOnAction(e -> updatePreviewSections());
+        includeSafetyCheck.setOnAction(e -> updatePreviewSections());
         
         // Initial preview
         updateReportPreview();
@@ -152,6 +162,7 @@ public class PrintController {
         
         final String finalUsername = username.isEmpty() ? "User" : username;
         final String finalLocation = location.isEmpty() ? "Unknown Location" : location;
+        final ReportModel model = buildReportModel(reportType, finalUsername, finalLocation);
         
         // Show progress
         progressBar.setVisible(true);
@@ -163,7 +174,7 @@ public class PrintController {
         Task<String> pdfTask = new Task<String>() {
             @Override
             protected String call() throws Exception {
-                return generateSelectedReport(reportType, finalUsername, finalLocation, outputPath);
+                return PDFReportService.generateReport(model, outputPath);
             }
             
             @Override
@@ -196,36 +207,66 @@ public class PrintController {
     }
     
     /**
-     * Generate the selected type of report
+     * Export raw table data as CSV and binary columnar files
      */
-    private String generateSelectedReport(String reportType, String username, String location, String outputPath) {
-        try {
-            // Get current weather data (simulated for now)
-            WeatherData weatherData = getCurrentWeatherData();
+    @FXML
+    private void exportRawData() {
+        String outputPath = outputPathField.getText();
+        if (outputPath == null || outputPath.isEmpty()) {
+            showAlert("Error", "Please specify an output directory.");
+            return;
+        }
+        
+        final String exportPath = outputPath + File.separator + "Export_" +
+            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        
+        progressBar.setVisible(true);
+        progressBar.setProgress(-1);
+        exportButton.setDisable(true);
+        statusLabel.setText("Exporting raw data...");
+        
+        Task<List<DataExportService.ExportResult>> exportTask = new Task<>() {
+            @Override
+            protected List<DataExportService.ExportResult> call() {
+                return DataExportService.exportAll(exportPath);
+            }
             
-            // Get recent activities (simulated)
-            List<String> recentActivities = getRecentActivities();
+            @Override
+            protected void succeeded() {
+                progressBar.setVisible(false);
+                exportButton.setDisable(false);
+                
+                StringBuilder summary = new StringBuilder();
+                for (DataExportService.ExportResult result : getValue()) {
+                    summary.append(result).append("\n");
+                }
+                statusLabel.setText("✅ Raw data export finished");
+                showAlert("Export Complete", summary + "\nFiles saved to:\n" + exportPath);
+            }
             
-            switch (reportType) {
-                case "Comprehensive Fisheries Report":
-                    return PDFReportService.generateFisheriesReport(username, weatherData, recentActivities, outputPath);
-                    
-                case "Weather Conditions Report":
-                    return PDFReportService.generateWeatherReport(weatherData, location, outputPath);
-                    
-                case "Safety Assessment Report":
-                    return PDFReportService.generateFisheriesReport(username, weatherData, recentActivities, outputPath);
-                    
-                case "Daily Activity Summary":
-                    return PDFReportService.generateFisheriesReport(username, weatherData, recentActivities, outputPath);
-                    
-                default:
-                    return PDFReportService.generateFisheriesReport(username, weatherData, recentActivities, outputPath);
+            @Override
+            protected void failed() {
+                progressBar.setVisible(false);
+                exportButton.setDisable(false);
+                statusLabel.setText("❌ Error exporting raw data");
+                showAlert("Error", "An error occurred while exporting data:\n" + getException().getMessage());
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
-        }
+        };
+        
+        Thread exportThread = new Thread(exportTask);
+        exportThread.setDaemon(true);
+        exportThread.start();
+    }
+    
+    /**
+     * Build the shared report model from the current options
+     */
+    private ReportModel buildReportModel(String reportType, String username, String location) {
+        return ReportModel.create(reportType, username, location,
+                getCurrentWeatherData(), getRecentActivities(),
+                includeWeatherCheck.isSelected(),
+                includeActivitiesCheck.isSelected(),
+                includeSafetyCheck.isSelected());
     }
     
     /**
@@ -263,134 +304,107 @@ public class PrintController {
     }
     
     /**
-     * Update the report preview based on selected options
+     * Rebuild the whole report preview (report type changed or first load)
      */
     private void updateReportPreview() {
-        StringBuilder preview = new StringBuilder();
         String reportType = reportTypeCombo.getValue();
-        WeatherData sampleWeather = getCurrentWeatherData();
+        String username = userNameField.getText().isEmpty() ? "User" : userNameField.getText();
+        String location = locationField.getText().isEmpty() ? "Unknown" : locationField.getText();
+        previewModel = buildReportModel(reportType, username, location);
+        previewHeader = buildPreviewHeader();
         
-        preview.append("📋 DETAILED REPORT PREVIEW\n");
-        preview.append("==========================\n\n");
+        previewSections.clear();
+        StringBuilder preview = new StringBuilder(previewHeader);
+        for (ReportModel.Section section : previewModel.getSections()) {
+            String text = ReportModel.toPlainText(section);
+            previewSections.put(section.getPart(), text);
+            preview.append(text);
+        }
+        previewFooter = buildPreviewFooter();
+        preview.append(previewFooter);
         
-        // Header Information
-        preview.append("🏢 SMART FISHERIES MANAGEMENT SYSTEM\n");
-        preview.append("Report Type: ").append(reportType).append("\n");
-        preview.append("Generated: ").append(LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm"))).append("\n");
-        preview.append("User: ").append(userNameField.getText().isEmpty() ? "User" : userNameField.getText()).append("\n");
-        preview.append("Location: ").append(locationField.getText().isEmpty() ? "Unknown" : locationField.getText()).append("\n\n");
+        reportPreview.setText(preview.toString());
+    }
+    
+    /**
+     * Rebuild the model and splice into the preview only the parts whose text changed:
+     * toggled sections, and any other section, header or footer whose data moved on
+     */
+    private void updatePreviewSections() {
+        if (previewModel == null) {
+            updateReportPreview();
+            return;
+        }
+        previewModel = buildReportModel(previewModel.getReportType(), previewModel.getUsername(), previewModel.getLocation());
         
-        // User Information Section
-        preview.append("👤 USER INFORMATION\n");
-        preview.append("-------------------\n");
-        preview.append("Username: ").append(userNameField.getText().isEmpty() ? "User" : userNameField.getText()).append("\n");
-        preview.append("Report Generated: ").append(LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm:ss"))).append("\n");
-        preview.append("System: Smart Fisheries Management System v1.0\n\n");
+        String header = buildPreviewHeader();
+        int offset = splicePreview(0, previewHeader, header);
+        previewHeader = header;
         
-        // Weather Conditions Section
-        if (includeWeatherCheck.isSelected()) {
-            preview.append("🌤️ CURRENT WEATHER CONDITIONS\n");
-            preview.append("-----------------------------\n");
-            preview.append("Condition: ").append(sampleWeather.getCondition()).append("\n");
-            preview.append("Temperature: ").append(sampleWeather.getTemperature()).append("°C\n");
-            preview.append("Sea Temperature: ").append(sampleWeather.getSeaTemperature()).append("°C\n");
-            preview.append("Wave Height: ").append(sampleWeather.getWaveHeight()).append("m\n");
-            preview.append("Wind Speed: ").append(sampleWeather.getWindSpeed()).append(" km/h\n");
-            preview.append("Visibility: ").append(sampleWeather.getVisibility()).append(" km\n");
-            preview.append("Humidity: ").append(sampleWeather.getHumidity()).append("%\n");
-            preview.append("Pressure: ").append(sampleWeather.getPressure()).append(" hPa\n");
-            preview.append("UV Index: ").append(sampleWeather.getUvIndex()).append("\n");
-            preview.append("Tide Status: ").append(sampleWeather.getTideStatus()).append("\n\n");
-            
-            // Marine Conditions Assessment
-            preview.append("🌊 MARINE CONDITIONS ASSESSMENT\n");
-            preview.append("-------------------------------\n");
-            String safetyStatus = sampleWeather.isSafeForFishing() ? "✅ SAFE FOR FISHING" : "⚠️ USE CAUTION";
-            preview.append("Safety Status: ").append(safetyStatus).append("\n\n");
-            
-            preview.append("Parameter Analysis:\n");
-            preview.append("• Wave Conditions: ").append(sampleWeather.getWaveHeight() < 1.5 ? "Good - Ideal for all boats" : 
-                          sampleWeather.getWaveHeight() < 2.5 ? "Moderate - Suitable for larger boats" : "Poor - Small boats avoid").append("\n");
-            preview.append("• Wind Conditions: ").append(sampleWeather.getWindSpeed() < 15 ? "Safe - Excellent conditions" : 
-                          sampleWeather.getWindSpeed() < 25 ? "Moderate - Exercise caution" : "High - Consider postponing").append("\n");
-            preview.append("• Visibility: ").append(sampleWeather.getVisibility() > 8 ? "Excellent - Clear navigation" : 
-                          sampleWeather.getVisibility() > 5 ? "Good - Good for fishing" : "Poor - Use navigation aids").append("\n\n");
-            
-            // Fishing Recommendations
-            preview.append("🎣 FISHING RECOMMENDATIONS\n");
-            preview.append("--------------------------\n");
-            if (sampleWeather.isSafeForFishing()) {
-                preview.append("✅ Current conditions are favorable for fishing activities\n");
-                preview.append("🎣 Best fishing times: Early morning (5:00-10:00 AM) and evening (4:00-7:00 PM)\n");
-                preview.append("🌊 Wave conditions are suitable for all vessel types\n");
+        for (ReportModel.Part part : ReportModel.Part.values()) {
+            String oldText = previewSections.getOrDefault(part, "");
+            String newText = previewModel.includes(part)
+                    ? ReportModel.toPlainText(previewModel.buildSection(part)) : "";
+            offset = splicePreview(offset, oldText, newText);
+            if (newText.isEmpty()) {
+                previewSections.remove(part);
             } else {
-                preview.append("⚠️ Current conditions require extra caution\n");
-                preview.append("🚤 Recommend larger, more stable vessels only\n");
-                preview.append("📡 Maintain constant communication with harbor authorities\n");
-            }
-            
-            if (sampleWeather.getWindSpeed() > 20) {
-                preview.append("💨 High winds detected - secure all equipment properly\n");
-            }
-            if (sampleWeather.getWaveHeight() > 2.0) {
-                preview.append("🌊 High waves - avoid shallow water areas\n");
-            }
-            if (sampleWeather.getVisibility() < 5) {
-                preview.append("🌫️ Limited visibility - use radar and GPS navigation\n");
-            }
-            
-            preview.append("🧥 Always wear appropriate safety gear and life jackets\n");
-            preview.append("📱 Carry emergency communication devices\n");
-            preview.append("⛽ Ensure adequate fuel and supplies before departure\n\n");
-        }
-        
-        // Recent Activities Section
-        if (includeActivitiesCheck.isSelected()) {
-            preview.append("📊 RECENT SYSTEM ACTIVITIES\n");
-            preview.append("---------------------------\n");
-            List<String> activities = getRecentActivities();
-            for (String activity : activities) {
-                preview.append("• ").append(activity).append("\n");
+                previewSections.put(part, newText);
             }
-            preview.append("\n");
         }
         
-        // Safety Guidelines Section
-        if (includeSafetyCheck.isSelected()) {
-            preview.append("🚨 SAFETY GUIDELINES\n");
-            preview.append("--------------------\n");
-            preview.append("🚨 Always check weather conditions before departure\n");
-            preview.append("📞 Inform harbor authorities of your fishing plans\n");
-            preview.append("🧭 Carry proper navigation equipment (GPS, compass, charts)\n");
-            preview.append("📡 Maintain VHF radio contact with other vessels and shore\n");
-            preview.append("🆘 Know emergency procedures and contact numbers\n");
-            preview.append("⚓ Anchor safely in designated areas during rough weather\n");
-            
-            if (!sampleWeather.isSafeForFishing()) {
-                preview.append("⚠️ CURRENT CONDITIONS: Exercise extreme caution or consider postponing trip\n");
-            }
-            preview.append("\n");
+        String footer = buildPreviewFooter();
+        splicePreview(offset, previewFooter, footer);
+        previewFooter = footer;
+    }
+    
+    /**
+     * Replace one piece of the preview starting at offset if its text differs;
+     * returns the offset just after the new text
+     */
+    private int splicePreview(int offset, String oldText, String newText) {
+        if (!oldText.equals(newText)) {
+            reportPreview.replaceText(offset, offset + oldText.length(), newText);
         }
+        return offset + newText.length();
+    }
+    
+    /**
+     * Report type, time, user and location shown above the sections
+     */
+    private String buildPreviewHeader() {
+        StringBuilder header = new StringBuilder();
+        header.append("📋 DETAILED REPORT PREVIEW\n");
+        header.append("==========================\n\n");
+        header.append("🏢 SMART FISHERIES MANAGEMENT SYSTEM\n");
+        header.append("Report Type: ").append(previewModel.getReportType()).append("\n");
+        header.append("Generated: ").append(previewModel.getGeneratedAt().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm"))).append("\n");
+        header.append("User: ").append(previewModel.getUsername()).append("\n");
+        header.append("Location: ").append(previewModel.getLocation()).append("\n\n");
+        return header.toString();
+    }
+    
+    /**
+     * Static description of the PDF output shown under the sections
+     */
+    private String buildPreviewFooter() {
+        StringBuilder footer = new StringBuilder();
+        footer.append("📄 PDF DOCUMENT FEATURES\n");
+        footer.append("------------------------\n");
+        footer.append("✅ Professional header with company branding\n");
+        footer.append("✅ Color-coded sections and tables\n");
+        footer.append("✅ Structured data presentation\n");
+        footer.append("✅ Safety status indicators\n");
+        footer.append("✅ Comprehensive weather analysis\n");
+        footer.append("✅ Marine conditions assessment\n");
+        footer.append("✅ Fishing recommendations based on conditions\n");
+        footer.append("✅ Emergency contact information\n");
+        footer.append("✅ Professional footer with disclaimers\n");
+        footer.append("✅ Print-ready A4 format\n\n");
         
-        // PDF Format Information
-        preview.append("📄 PDF DOCUMENT FEATURES\n");
-        preview.append("------------------------\n");
-        preview.append("✅ Professional header with company branding\n");
-        preview.append("✅ Color-coded sections and tables\n");
-        preview.append("✅ Structured data presentation\n");
-        preview.append("✅ Safety status indicators\n");
-        preview.append("✅ Comprehensive weather analysis\n");
-        preview.append("✅ Marine conditions assessment\n");
-        preview.append("✅ Fishing recommendations based on conditions\n");
-        preview.append("✅ Emergency contact information\n");
-        preview.append("✅ Professional footer with disclaimers\n");
-        preview.append("✅ Print-ready A4 format\n\n");
-        
-        preview.append("📁 File will be saved as: Fisheries_Report_").append(
-            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"))).append(".pdf\n");
-        preview.append("📂 Location: ").append(outputPathField.getText()).append("\n");
-        
-        reportPreview.setText(preview.toString());
+        footer.append("📁 File will be saved as: ").append(previewModel.getFileName()).append("\n");
+        footer.append("📂 Location: ").append(outputPathField.getText()).append("\n");
+        return footer.toString();
     }
     
     /**
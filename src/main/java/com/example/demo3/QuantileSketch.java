@@ -0,0 +1,118 @@
+package com.example.demo3;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch with relative error guarantees (DDSketch style).
+ * Positive values are counted in logarithmic buckets, so memory depends on the
+ * price range rather than the number of rows, and two sketches merge by adding counts.
+ */
+public class QuantileSketch {
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private long[] counts = new long[0];
+    private int minIndex;
+    private long zeroCount;
+    private long count;
+
+    public QuantileSketch() {
+        this(0.01);
+    }
+
+    public QuantileSketch(double relativeAccuracy) {
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(double value) {
+        count++;
+        if (value <= 0) {
+            zeroCount++;
+            return;
+        }
+        int index = (int) Math.ceil(Math.log(value) / logGamma);
+        ensure(index);
+        counts[index - minIndex]++;
+    }
+
+    /**
+     * Take back a value added earlier, e.g. when a row's price changes; unknown values are ignored
+     */
+    public void remove(double value) {
+        if (value <= 0) {
+            if (zeroCount > 0) {
+                zeroCount--;
+                count--;
+            }
+            return;
+        }
+        int slot = (int) Math.ceil(Math.log(value) / logGamma) - minIndex;
+        if (slot >= 0 && slot < counts.length && counts[slot] > 0) {
+            counts[slot]--;
+            count--;
+        }
+    }
+
+    /**
+     * Add all counts of another sketch built with the same accuracy
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+        }
+        count += other.count;
+        zeroCount += other.zeroCount;
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] != 0) {
+                int index = other.minIndex + i;
+                ensure(index);
+                counts[index - minIndex] += other.counts[i];
+            }
+        }
+    }
+
+    /**
+     * Approximate value at quantile q (0..1); NaN when the sketch is empty
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (q * (count - 1));
+        if (rank < zeroCount) {
+            return 0.0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return 2 * Math.pow(gamma, minIndex + i) / (gamma + 1);
+            }
+        }
+        return 2 * Math.pow(gamma, minIndex + counts.length - 1) / (gamma + 1);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    private void ensure(int index) {
+        if (counts.length == 0) {
+            counts = new long[16];
+            minIndex = index - 8;
+            return;
+        }
+        if (index < minIndex) {
+            int shift = Math.max(minIndex - index, counts.length / 2);
+            long[] grown = new long[counts.length + shift];
+            System.arraycopy(counts, 0, grown, shift, counts.length);
+            counts = grown;
+            minIndex -= shift;
+        } else if (index - minIndex >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index - minIndex + 1, counts.length + counts.length / 2));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demo3;
+
+import Model.PriceSummary;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static Connection.DBConnection.getConnection;
+
+/**
+ * Current weather per harbor and pre-computed weekly price aggregates.
+ * Scheduled reports read from here so a job never waits on the weather API or a table scan.
+ * Weather comes from the hourly HarborForecasts; there is no made-up fallback, so a
+ * location without a forecast has no weather and its report is not written.
+ */
+public class ReportDataCache {
+
+    private static final ReportDataCache INSTANCE = new ReportDataCache();
+
+    private volatile List<PriceSummary> weeklyPrices = Collections.emptyList();
+    private volatile LocalDateTime pricesRefreshedAt;
+
+    private ReportDataCache() {
+    }
+
+    public static ReportDataCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Weather at a harbor for the current hour, or null when no loaded forecast covers it.
+     * Values the forecast does not have are NaN (tide status null), never sample values.
+     */
+    public WeatherData getWeather(String location) {
+        if (location == null) {
+            return null;
+        }
+        int comma = location.indexOf(',');
+        HarborForecasts.Forecast forecast = HarborForecasts.getInstance()
+                .getForecast(comma >= 0 ? location.substring(0, comma) : location);
+        if (forecast == null) {
+            return null;
+        }
+        int hour = forecast.hourOf(HarborForecasts.now());
+        if (hour < 0) {
+            return null;
+        }
+        double[][] columns = forecast.getColumns();
+        double[][] report = forecast.getReportColumns();
+        double uvIndex = report[HarborForecasts.UV_INDEX][hour];
+        return new WeatherData(
+                conditionOf(report[HarborForecasts.WEATHER_CODE][hour], columns[SafetyRules.RAIN][hour]),
+                report[HarborForecasts.TEMPERATURE][hour],
+                report[HarborForecasts.SEA_TEMPERATURE][hour],
+                columns[SafetyRules.WAVE][hour],
+                columns[SafetyRules.WIND][hour],
+                columns[SafetyRules.VISIBILITY][hour],
+                report[HarborForecasts.HUMIDITY][hour],
+                report[HarborForecasts.PRESSURE][hour],
+                Double.isNaN(uvIndex) ? -1 : (int) Math.round(uvIndex),
+                null);
+    }
+
+    /**
+     * Condition text from a WMO weather code, or from rainfall when the code is missing
+     */
+    private static String conditionOf(double code, double rainfall) {
+        if (Double.isNaN(code)) {
+            if (Double.isNaN(rainfall)) {
+                return null;
+            }
+            boolean heavyRain = SafetyRules.getInstance().inputLevel(SafetyRules.RAIN, rainfall) == SafetyRules.DANGER;
+            return heavyRain ? "Heavy Rain" : rainfall > 0.5 ? "Light Rain" : "Clear";
+        }
+        int wmo = (int) code;
+        if (wmo == 0) return "Clear";
+        if (wmo <= 2) return "Partly Cloudy";
+        if (wmo == 3) return "Cloudy";
+        if (wmo == 45 || wmo == 48) return "Fog";
+        if (wmo >= 95) return "Thunderstorm";
+        if (wmo == 65 || wmo == 67 || wmo == 82) return "Heavy Rain";
+        if (wmo >= 51 && wmo <= 82) return "Light Rain";
+        return "Cloudy";
+    }
+
+    /**
+     * Recompute the last seven days of price aggregates with a single grouped query
+     */
+    public void refreshPriceSummary() {
+        List<PriceSummary> summaries = new ArrayList<>();
+        String sql = "SELECT fish_name, MIN(today_price) AS min_price, MAX(today_price) AS max_price, " +
+                "AVG(today_price) AS avg_price, COUNT(*) AS cnt FROM fish_price " +
+                "WHERE date >= ? GROUP BY fish_name ORDER BY fish_name";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(LocalDate.now().minusDays(7)));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    summaries.add(new PriceSummary(
+                            rs.getString("fish_name"),
+                            rs.getDouble("min_price"),
+                            rs.getDouble("max_price"),
+                            rs.getDouble("avg_price"),
+                            rs.getInt("cnt")));
+                }
+            }
+            weeklyPrices = Collections.unmodifiableList(summaries);
+            pricesRefreshedAt = LocalDateTime.now();
+
+        } catch (SQLException | NullPointerException e) {
+            // Keep the previous aggregates if the database is unavailable
+            System.out.println("Price summary refresh failed: " + e.getMessage());
+        }
+    }
+
+    public List<PriceSummary> getWeeklyPrices() {
+        return weeklyPrices;
+    }
+
+    public LocalDateTime getPricesRefreshedAt() {
+        return pricesRefreshedAt;
+    }
+}
@@ -0,0 +1,413 @@
+package com.example.demo3;
+
+import Model.PriceSummary;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Format-independent description of a fisheries report.
+ * Both the PDF writer and the on-screen preview render from this model
+ * so the wording and thresholds only live in one place.
+ */
+public class ReportModel {
+
+    public static final String COMPREHENSIVE = "Comprehensive Fisheries Report";
+    public static final String WEATHER = "Weather Conditions Report";
+    public static final String SAFETY = "Safety Assessment Report";
+    public static final String DAILY_ACTIVITY = "Daily Activity Summary";
+    public static final String PRICE_SUMMARY = "Weekly Price Summary";
+
+    private static final String NOT_AVAILABLE = "n/a";
+
+    /**
+     * Sections a report can contain, in the order they are rendered
+     */
+    public enum Part {
+        USER,
+        WEATHER_SUMMARY,
+        WEATHER_DETAIL,
+        MARINE,
+        RECOMMENDATIONS,
+        PRICES,
+        ACTIVITIES,
+        SAFETY
+    }
+
+    /**
+     * Kind of content held by a block
+     */
+    public enum BlockType {
+        KEY_VALUE,   // label / value rows
+        TABLE,       // header row followed by data rows
+        STATUS,      // single highlighted status line
+        BULLETS,     // unordered list, optional warning as last item
+        NOTE         // muted single line
+    }
+
+    /**
+     * One renderable piece of a section
+     */
+    public static class Block {
+        private final BlockType type;
+        private final List<String> headers;
+        private final List<String[]> rows;
+        private final String text;
+        private final boolean positive;
+
+        private Block(BlockType type, List<String> headers, List<String[]> rows, String text, boolean positive) {
+            this.type = type;
+            this.headers = headers;
+            this.rows = rows;
+            this.text = text;
+            this.positive = positive;
+        }
+
+        public BlockType getType() { return type; }
+        public List<String> getHeaders() { return headers; }
+        public List<String[]> getRows() { return rows; }
+        /** Status text, note text, or bullet-list warning (may be null) */
+        public String getText() { return text; }
+        public boolean isPositive() { return positive; }
+    }
+
+    /**
+     * A titled group of blocks
+     */
+    public static class Section {
+        private final Part part;
+        private final String title;
+        private final String icon;
+        private final List<Block> blocks = new ArrayList<>();
+
+        Section(Part part, String title, String icon) {
+            this.part = part;
+            this.title = title;
+            this.icon = icon;
+        }
+
+        public Part getPart() { return part; }
+        public String getTitle() { return title; }
+        public String getIcon() { return icon; }
+        public List<Block> getBlocks() { return Collections.unmodifiableList(blocks); }
+
+        Section keyValues(String[]... pairs) {
+            List<String[]> rows = new ArrayList<>();
+            Collections.addAll(rows, pairs);
+            blocks.add(new Block(BlockType.KEY_VALUE, Collections.emptyList(), rows, null, true));
+            return this;
+        }
+
+        Section table(List<String> headers, List<String[]> rows) {
+            blocks.add(new Block(BlockType.TABLE, headers, rows, null, true));
+            return this;
+        }
+
+        Section status(String text, boolean positive) {
+            blocks.add(new Block(BlockType.STATUS, Collections.emptyList(), Collections.emptyList(), text, positive));
+            return this;
+        }
+
+        Section bullets(List<String> items, String warning) {
+            List<String[]> rows = new ArrayList<>();
+            for (String item : items) {
+                rows.add(new String[]{item});
+            }
+            blocks.add(new Block(BlockType.BULLETS, Collections.emptyList(), rows, warning, true));
+            return this;
+        }
+
+        Section note(String text) {
+            blocks.add(new Block(BlockType.NOTE, Collections.emptyList(), Collections.emptyList(), text, true));
+            return this;
+        }
+    }
+
+    private final String reportType;
+    private final String title;
+    private final String username;
+    private final String location;
+    private final LocalDateTime generatedAt;
+    private final WeatherData weatherData;
+    private final List<String> activities;
+    private final List<PriceSummary> prices;
+    private final Set<Part> parts;
+
+    private ReportModel(String reportType, String title, String username, String location,
+                        LocalDateTime generatedAt, WeatherData weatherData,
+                        List<String> activities, List<PriceSummary> prices, Set<Part> parts) {
+        this.reportType = reportType;
+        this.title = title;
+        this.username = username;
+        this.location = location;
+        this.generatedAt = generatedAt;
+        this.weatherData = weatherData;
+        this.activities = activities;
+        this.prices = prices;
+        this.parts = parts;
+    }
+
+    /**
+     * Build the model for a report type, keeping only the parts whose option is enabled
+     */
+    public static ReportModel create(String reportType, String username, String location,
+                                     WeatherData weatherData, List<String> activities,
+                                     boolean includeWeather, boolean includeActivities, boolean includeSafety) {
+        Set<Part> parts = EnumSet.noneOf(Part.class);
+        String title;
+
+        if (WEATHER.equals(reportType)) {
+            title = "Marine Weather Report - " + location;
+            parts.add(Part.WEATHER_DETAIL);
+            parts.add(Part.MARINE);
+            parts.add(Part.RECOMMENDATIONS);
+        } else {
+            title = "Smart Fisheries Management System - Comprehensive Report";
+            parts.add(Part.USER);
+            if (includeWeather) {
+                parts.add(Part.WEATHER_SUMMARY);
+            }
+            if (includeActivities) {
+                parts.add(Part.ACTIVITIES);
+            }
+            if (includeSafety) {
+                parts.add(Part.SAFETY);
+            }
+        }
+
+        return new ReportModel(reportType, title, username, location, LocalDateTime.now(),
+                weatherData, activities, Collections.emptyList(), parts);
+    }
+
+    /**
+     * Build a weekly price summary report from pre-computed aggregates
+     */
+    public static ReportModel createPriceSummary(String username, List<PriceSummary> prices) {
+        return new ReportModel(PRICE_SUMMARY, "Weekly Fish Price Summary", username, "",
+                LocalDateTime.now(), new WeatherData(), null, prices, EnumSet.of(Part.PRICES));
+    }
+
+    public String getReportType() { return reportType; }
+    public String getTitle() { return title; }
+    public String getUsername() { return username; }
+    public String getLocation() { return location; }
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public WeatherData getWeatherData() { return weatherData; }
+
+    public boolean includes(Part part) {
+        return parts.contains(part);
+    }
+
+    /**
+     * File name prefix used when the report is written to disk
+     */
+    public String getFileName() {
+        String stamp = generatedAt.format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        if (PRICE_SUMMARY.equals(reportType)) {
+            return "Price_Summary_" + stamp + ".pdf";
+        }
+        if (WEATHER.equals(reportType)) {
+            return "Weather_Report_" + location.replace(" ", "_") + "_" + stamp + ".pdf";
+        }
+        return "Fisheries_Report_" + stamp + ".pdf";
+    }
+
+    /**
+     * All included sections in render order
+     */
+    public List<Section> getSections() {
+        List<Section> sections = new ArrayList<>();
+        for (Part part : Part.values()) {
+            if (parts.contains(part)) {
+                sections.add(buildSection(part));
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * Build a single section; used by the preview to re-render only what changed
+     */
+    public Section buildSection(Part part) {
+        WeatherData w = weatherData;
+        switch (part) {
+            case USER:
+                return new Section(part, "User Information", "👤").keyValues(
+                        new String[]{"Username:", username},
+                        new String[]{"Report Generated:", generatedAt.format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm:ss"))},
+                        new String[]{"System:", "Smart Fisheries Management System v1.0"});
+
+            case WEATHER_SUMMARY: {
+                List<String[]> rows = new ArrayList<>();
+                rows.add(new String[]{text(w.getCondition()), measure(w.getTemperature(), "°C"),
+                        measure(w.getWaveHeight(), "m"), measure(w.getWindSpeed(), " km/h")});
+                return new Section(part, "Current Weather Conditions", "🌤️").table(
+                        List.of("Condition", "Temperature", "Wave Height", "Wind Speed"), rows);
+            }
+
+            case WEATHER_DETAIL:
+                return new Section(part, "Detailed Weather Analysis", "🌤️").keyValues(
+                        new String[]{"Location:", location},
+                        new String[]{"Current Condition:", text(w.getCondition())},
+                        new String[]{"Temperature:", measure(w.getTemperature(), "°C")},
+                        new String[]{"Sea Temperature:", measure(w.getSeaTemperature(), "°C")},
+                        new String[]{"Wave Height:", measure(w.getWaveHeight(), "m")},
+                        new String[]{"Wind Speed:", measure(w.getWindSpeed(), " km/h")},
+                        new String[]{"Visibility:", measure(w.getVisibility(), " km")},
+                        new String[]{"Humidity:", measure(w.getHumidity(), "%")},
+                        new String[]{"Pressure:", measure(w.getPressure(), " hPa")},
+                        new String[]{"UV Index:", w.getUvIndex() < 0 ? NOT_AVAILABLE : String.valueOf(w.getUvIndex())},
+                        new String[]{"Tide Status:", text(w.getTideStatus())});
+
+            case MARINE: {
+                SafetyRules rules = SafetyRules.getInstance();
+                int wave = rules.inputLevel(SafetyRules.WAVE, w.getWaveHeight());
+                int wind = rules.inputLevel(SafetyRules.WIND, w.getWindSpeed());
+                int visibility = rules.inputLevel(SafetyRules.VISIBILITY, w.getVisibility());
+                List<String[]> rows = new ArrayList<>();
+                rows.add(new String[]{"Wave Conditions",
+                        new String[]{"Good", "Moderate", "Poor"}[wave],
+                        new String[]{"Ideal for all boats", "Suitable for larger boats", "Small boats avoid"}[wave]});
+                rows.add(new String[]{"Wind Conditions",
+                        new String[]{"Safe", "Moderate", "High"}[wind],
+                        new String[]{"Excellent conditions", "Exercise caution", "Consider postponing"}[wind]});
+                rows.add(new String[]{"Visibility",
+                        new String[]{"Good", "Fair", "Poor"}[visibility],
+                        new String[]{"Clear navigation", "Keep a careful lookout", "Use navigation aids"}[visibility]});
+                return new Section(part, "Marine Conditions Assessment", "🌊")
+                        .status(w.isSafeForFishing() ? "✅ SAFE FOR FISHING" : "⚠️ USE CAUTION", w.isSafeForFishing())
+                        .table(List.of("Parameter", "Status", "Recommendation"), rows);
+            }
+
+            case RECOMMENDATIONS: {
+                List<String> items = new ArrayList<>();
+                if (w.isSafeForFishing()) {
+                    items.add("✅ Current conditions are favorable for fishing activities");
+                    items.add("🎣 Best fishing times: Early morning (5:00-10:00 AM) and evening (4:00-7:00 PM)");
+                    items.add("🌊 Wave conditions are suitable for all vessel types");
+                } else {
+                    items.add("⚠️ Current conditions require extra caution");
+                    items.add("🚤 Recommend larger, more stable vessels only");
+                    items.add("📡 Maintain constant communication with harbor authorities");
+                }
+                SafetyRules rules = SafetyRules.getInstance();
+                if (rules.inputLevel(SafetyRules.WIND, w.getWindSpeed()) >= SafetyRules.CAUTION) {
+                    items.add("💨 High winds detected - secure all equipment properly");
+                }
+                if (rules.inputLevel(SafetyRules.WAVE, w.getWaveHeight()) >= SafetyRules.CAUTION) {
+                    items.add("🌊 High waves - avoid shallow water areas");
+                }
+                if (rules.inputLevel(SafetyRules.VISIBILITY, w.getVisibility()) >= SafetyRules.CAUTION) {
+                    items.add("🌫️ Limited visibility - use radar and GPS navigation");
+                }
+                items.add("🧥 Always wear appropriate safety gear and life jackets");
+                items.add("📱 Carry emergency communication devices");
+                items.add("⛽ Ensure adequate fuel and supplies before departure");
+                return new Section(part, "Fishing Recommendations", "🎣").bullets(items, null);
+            }
+
+            case PRICES: {
+                Section section = new Section(part, "Fish Prices - Last 7 Days", "💰");
+                if (prices == null || prices.isEmpty()) {
+                    return section.note("No price data recorded this week.");
+                }
+                List<String[]> rows = new ArrayList<>();
+                for (PriceSummary price : prices) {
+                    rows.add(new String[]{price.getFishName(),
+                            String.format("%.2f", price.getMinPrice()),
+                            String.format("%.2f", price.getMaxPrice()),
+                            String.format("%.2f", price.getAvgPrice()),
+                            String.valueOf(price.getCount())});
+                }
+                return section.table(List.of("Fish", "Min (LKR)", "Max (LKR)", "Avg (LKR)", "Records"), rows);
+            }
+
+            case ACTIVITIES: {
+                Section section = new Section(part, "Recent System Activities", "📊");
+                if (activities == null || activities.isEmpty()) {
+                    return section.note("No recent activities recorded.");
+                }
+                return section.bullets(activities, null);
+            }
+
+            case SAFETY:
+                return new Section(part, "Safety Guidelines", "🚨").bullets(List.of(
+                        "🚨 Always check weather conditions before departure",
+                        "📞 Inform harbor authorities of your fishing plans",
+                        "🧭 Carry proper navigation equipment (GPS, compass, charts)",
+                        "📡 Maintain VHF radio contact with other vessels and shore",
+                        "🆘 Know emergency procedures and contact numbers",
+                        "⚓ Anchor safely in designated areas during rough weather"),
+                        w.isSafeForFishing() ? null
+                                : "⚠️ CURRENT CONDITIONS: Exercise extreme caution or consider postponing trip");
+
+            default:
+                throw new IllegalArgumentException("Unknown report part: " + part);
+        }
+    }
+
+    /**
+     * A measured value with its unit; NaN means the source had no value
+     */
+    private static String measure(double value, String unit) {
+        return Double.isNaN(value) ? NOT_AVAILABLE : String.format("%.1f%s", value, unit);
+    }
+
+    private static String text(String value) {
+        return value == null ? NOT_AVAILABLE : value;
+    }
+
+    /**
+     * Render one section as plain text for the preview area
+     */
+    public static String toPlainText(Section section) {
+        StringBuilder out = new StringBuilder();
+        String heading = section.getIcon() + " " + section.getTitle().toUpperCase();
+        out.append(heading).append("\n");
+        out.append("-".repeat(section.getTitle().length() + 3)).append("\n");
+
+        for (Block block : section.getBlocks()) {
+            switch (block.getType()) {
+                case KEY_VALUE:
+                    for (String[] row : block.getRows()) {
+                        out.append(row[0]).append(" ").append(row[1]).append("\n");
+                    }
+                    break;
+                case TABLE:
+                    if (block.getRows().size() == 1) {
+                        String[] row = block.getRows().get(0);
+                        for (int i = 0; i < row.length; i++) {
+                            out.append(block.getHeaders().get(i)).append(": ").append(row[i]).append("\n");
+                        }
+                    } else {
+                        for (String[] row : block.getRows()) {
+                            out.append("• ").append(row[0]).append(": ").append(String.join(" - ",
+                                    Arrays.copyOfRange(row, 1, row.length))).append("\n");
+                        }
+                    }
+                    break;
+                case STATUS:
+                    out.append("Safety Status: ").append(block.getText()).append("\n");
+                    break;
+                case BULLETS:
+                    for (String[] row : block.getRows()) {
+                        out.append("• ").append(row[0]).append("\n");
+                    }
+                    if (block.getText() != null) {
+                        out.append("• ").append(block.getText()).append("\n");
+                    }
+                    break;
+                case NOTE:
+                    out.append(block.getText()).append("\n");
+                    break;
+            }
+        }
+        return out.append("\n").toString();
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.demo3;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless service that generates configured PDF reports on a schedule.
+ * Jobs are read from report-jobs.properties and render from ReportDataCache,
+ * so the morning shift finds ready-made reports instead of waiting on generation.
+ * A job whose data is not there yet (no harbor forecast, no price aggregates) is retried
+ * a few minutes later and skipped with a log line if the data never comes; runs missed
+ * while the application was down are made up once at start.
+ */
+public class ReportScheduler {
+
+    private static final ReportScheduler INSTANCE = new ReportScheduler();
+
+    private static final int RETRY_MINUTES = 5;
+
+    /**
+     * One configured report job
+     */
+    public static class ReportJob {
+        private final String name;
+        private final String type;
+        private final String location;
+        private final DayOfWeek dayOfWeek; // null for daily jobs
+        private final LocalTime time;
+        private final int keep;
+
+        public ReportJob(String name, String type, String location, DayOfWeek dayOfWeek, LocalTime time, int keep) {
+            this.name = name;
+            this.type = type;
+            this.location = location;
+            this.dayOfWeek = dayOfWeek;
+            this.time = time;
+            this.keep = keep;
+        }
+
+        public String getName() { return name; }
+        public String getType() { return type; }
+        public String getLocation() { return location; }
+        public int getKeep() { return keep; }
+
+        /**
+         * Next time this job should run, strictly after the given time
+         */
+        public LocalDateTime nextRunAfter(LocalDateTime now) {
+            LocalDateTime next = now.toLocalDate().atTime(time);
+            if (dayOfWeek == null) {
+                return next.isAfter(now) ? next : next.plusDays(1);
+            }
+            next = next.with(TemporalAdjusters.nextOrSame(dayOfWeek));
+            return next.isAfter(now) ? next : next.plusWeeks(1);
+        }
+    }
+
+    private final List<ReportJob> jobs = new ArrayList<>();
+    private ScheduledExecutorService executor;
+    private String outputDir;
+
+    private ReportScheduler() {
+    }
+
+    public static ReportScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Load job configuration and start the background executor
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        loadJobs();
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "report-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Keep price aggregates warm so jobs never query fish_price at run time
+        executor.scheduleWithFixedDelay(() -> ReportDataCache.getInstance().refreshPriceSummary(),
+                0, 1, TimeUnit.HOURS);
+
+        // Copy closed days into the long-term price archive
+        executor.scheduleWithFixedDelay(() -> PriceArchive.getInstance().sync(), 1, 60, TimeUnit.MINUTES);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (ReportJob job : jobs) {
+            LocalDateTime lastRun = lastRun(job);
+            if (lastRun != null && !job.nextRunAfter(lastRun).isAfter(now)) {
+                // Queued behind the first price refresh on this single thread
+                LocalDateTime due = job.nextRunAfter(lastRun);
+                System.out.println("Report '" + job.getName() + "' missed its run at " + due + ", catching up");
+                executor.execute(() -> attempt(job, due));
+            } else {
+                scheduleNext(job);
+            }
+        }
+        System.out.println("Report scheduler started with " + jobs.size() + " jobs");
+    }
+
+    /**
+     * Run every job once, after the price refresh start() queued; jobs without data are reported and skipped
+     */
+    public synchronized void runAllNow() {
+        if (executor == null) {
+            return;
+        }
+        executor.execute(() -> {
+            for (ReportJob job : jobs) {
+                try {
+                    runJob(job);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
+    /**
+     * Stop the executor; jobs already running are allowed to finish
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    public List<ReportJob> getJobs() {
+        return jobs;
+    }
+
+    /**
+     * Run a job immediately and return the path of the generated PDF,
+     * or null when it failed or was skipped because its data is missing
+     */
+    public String runJob(ReportJob job) {
+        String missing = missingData(job);
+        if (missing != null) {
+            System.out.println("Scheduled report '" + job.getName() + "' skipped: " + missing);
+            return null;
+        }
+
+        File jobDir = new File(outputDir, job.getName());
+        if (!jobDir.exists()) {
+            jobDir.mkdirs();
+        }
+
+        ReportDataCache cache = ReportDataCache.getInstance();
+        ReportModel model;
+        if ("prices".equals(job.getType())) {
+            model = ReportModel.createPriceSummary("Scheduler", cache.getWeeklyPrices());
+        } else {
+            model = ReportModel.create(ReportModel.WEATHER, "Scheduler", job.getLocation(),
+                    cache.getWeather(job.getLocation()), null, true, false, false);
+        }
+
+        String path = PDFReportService.generateReport(model, jobDir.getAbsolutePath());
+        if (path != null) {
+            rotate(jobDir, job.getKeep());
+            System.out.println("Scheduled report '" + job.getName() + "' written to " + path);
+        } else {
+            System.out.println("Scheduled report '" + job.getName() + "' failed");
+        }
+        return path;
+    }
+
+    /**
+     * Why a job cannot be rendered right now, or null when its data is there
+     */
+    private static String missingData(ReportJob job) {
+        ReportDataCache cache = ReportDataCache.getInstance();
+        if ("prices".equals(job.getType())) {
+            return cache.getPricesRefreshedAt() == null ? "price aggregates could not be loaded" : null;
+        }
+        return cache.getWeather(job.getLocation()) == null
+                ? "no harbor forecast for '" + job.getLocation() + "'" : null;
+    }
+
+    /**
+     * Run a job that was due at the given time; while its data is missing, retry every
+     * few minutes until the next regular run would come first
+     */
+    private void attempt(ReportJob job, LocalDateTime due) {
+        try {
+            String missing = missingData(job);
+            if (missing != null && LocalDateTime.now().plusMinutes(RETRY_MINUTES).isBefore(job.nextRunAfter(due))) {
+                System.out.println("Scheduled report '" + job.getName() + "' waiting: " + missing);
+                synchronized (this) {
+                    if (executor != null) {
+                        executor.schedule(() -> attempt(job, due), RETRY_MINUTES, TimeUnit.MINUTES);
+                    }
+                }
+                return;
+            }
+            runJob(job);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        synchronized (this) {
+            if (executor != null) {
+                scheduleNext(job);
+            }
+        }
+    }
+
+    private void scheduleNext(ReportJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime due = job.nextRunAfter(now);
+        executor.schedule(() -> attempt(job, due), Duration.between(now, due).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Time of the newest report in the job folder, or null when the job never ran
+     */
+    private LocalDateTime lastRun(ReportJob job) {
+        File[] files = new File(outputDir, job.getName()).listFiles((dir, name) -> name.endsWith(".pdf"));
+        if (files == null || files.length == 0) {
+            return null;
+        }
+        long newest = 0;
+        for (File file : files) {
+            newest = Math.max(newest, file.lastModified());
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(newest), ZoneId.systemDefault());
+    }
+
+    /**
+     * Delete the oldest reports in a job folder beyond the retention count
+     */
+    private void rotate(File jobDir, int keep) {
+        File[] files = jobDir.listFiles((dir, name) -> name.endsWith(".pdf"));
+        if (files == null || files.length <= keep) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+        for (int i = keep; i < files.length; i++) {
+            if (!files[i].delete()) {
+                System.out.println("Could not delete old report " + files[i].getName());
+            }
+        }
+    }
+
+    private void loadJobs() {
+        jobs.clear();
+        Properties props = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/com/example/demo3/report-jobs.properties")) {
+            if (in != null) {
+                props.load(in);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        outputDir = props.getProperty("output.dir",
+                "${user.home}/Documents/Fisheries_Reports/scheduled")
+                .replace("${user.home}", System.getProperty("user.home"))
+                .replace("/", File.separator);
+
+        for (String key : props.stringPropertyNames()) {
+            if (!key.startsWith("job.") || !key.endsWith(".type")) {
+                continue;
+            }
+            String name = key.substring(4, key.length() - 5);
+            try {
+                String[] schedule = props.getProperty("job." + name + ".schedule", "daily 05:00").trim().split("\\s+");
+                DayOfWeek day = null;
+                LocalTime time;
+                if ("weekly".equalsIgnoreCase(schedule[0])) {
+                    day = DayOfWeek.valueOf(schedule[1].toUpperCase());
+                    time = LocalTime.parse(schedule[2]);
+                } else {
+                    time = LocalTime.parse(schedule[1]);
+                }
+                jobs.add(new ReportJob(name,
+                        props.getProperty(key).trim(),
+                        props.getProperty("job." + name + ".location", ""),
+                        day, time,
+                        Integer.parseInt(props.getProperty("job." + name + ".keep", "7").trim())));
+            } catch (RuntimeException e) {
+                System.out.println("Skipping invalid report job '" + name + "': " + e.getMessage());
+            }
+        }
+        jobs.sort(Comparator.comparing(ReportJob::getName));
+    }
+
+    /**
+     * Run the scheduler without the UI, e.g. on the harbor office server
+     */
+    public static void main(String[] args) throws InterruptedException {
+        // Weather jobs render from the harbor forecasts, which the UI would otherwise start
+        CountDownLatch forecastsLoaded = new CountDownLatch(1);
+        HarborForecasts.getInstance().addListener(forecastsLoaded::countDown);
+        HarborForecasts.getInstance().start();
+
+        ReportScheduler scheduler = getInstance();
+        scheduler.start();
+        if (args.length > 0 && "--run-now".equals(args[0])) {
+            if (!forecastsLoaded.await(2, TimeUnit.MINUTES)) {
+                System.out.println("Harbor forecasts not loaded, weather reports will be skipped");
+            }
+            scheduler.runAllNow();
+        }
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.demo3;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Fishing safety thresholds shared by every screen, report and alert.
+ * Rules come from safety-rules.properties (optionally overridden by a file in ~/FisheriesData)
+ * and are compiled into flat arrays: a "below" rule is stored negated so that every rule is
+ * a "value above limit" test, and a rule's level is simply the number of limits crossed.
+ * Missing inputs are passed as NaN and never trigger a rule.
+ */
+public final class SafetyRules {
+
+    public static final int SAFE = 0;
+    public static final int CAUTION = 1;
+    public static final int DANGER = 2;
+
+    public static final int WAVE = 0;
+    public static final int WIND = 1;
+    public static final int VISIBILITY = 2;
+    public static final int RAIN = 3;
+    public static final int WIND_WAVE = 4;
+    public static final int INPUT_COUNT = 5;
+
+    /** Points per block in batch evaluation; five columns of this size fit in L1 */
+    private static final int BLOCK = 512;
+
+    /** Batch evaluation uses SafetyRulesVector when the JVM was started with the incubator module */
+    static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private static final String[] INPUT_NAMES = {"wave", "wind", "visibility", "rain", "windWave"};
+
+    private static volatile SafetyRules instance;
+
+    /**
+     * Level of a set of conditions and the rule that decided it
+     */
+    public static class Assessment {
+        private final int level;
+        private final int input;
+        private final String message;
+        private final double value;
+
+        Assessment(int level, int input, String message, double value) {
+            this.level = level;
+            this.input = input;
+            this.message = message;
+            this.value = value;
+        }
+
+        public int getLevel() { return level; }
+        /** Input of the deciding rule, or -1 when conditions are safe */
+        public int getInput() { return input; }
+        public String getMessage() { return message; }
+        public double getValue() { return value; }
+        public boolean isSafe() { return level < DANGER; }
+    }
+
+    // Compiled rules, in priority order
+    private final String[] messages;
+    private final int[] inputs;
+    private final double[] signs;
+    private final double[] dangerLimits;
+    private final double[] cautionLimits;
+    private final int count;
+
+    private SafetyRules(List<String> messages, List<Integer> inputs, List<Double> signs,
+                        List<Double> dangerLimits, List<Double> cautionLimits) {
+        this.count = messages.size();
+        this.messages = messages.toArray(new String[0]);
+        this.inputs = new int[count];
+        this.signs = new double[count];
+        this.dangerLimits = new double[count];
+        this.cautionLimits = new double[count];
+        for (int r = 0; r < count; r++) {
+            this.inputs[r] = inputs.get(r);
+            this.signs[r] = signs.get(r);
+            this.dangerLimits[r] = dangerLimits.get(r);
+            this.cautionLimits[r] = cautionLimits.get(r);
+        }
+    }
+
+    /**
+     * Rules from the configuration, compiled on first use
+     */
+    public static SafetyRules getInstance() {
+        SafetyRules rules = instance;
+        if (rules == null) {
+            synchronized (SafetyRules.class) {
+                if (instance == null) {
+                    instance = compile(loadConfig());
+                }
+                rules = instance;
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Re-read the configuration, e.g. after the override file was edited
+     */
+    public static synchronized void reload() {
+        instance = compile(loadConfig());
+    }
+
+    /**
+     * Compile rules from properties; invalid rules are skipped with a message
+     */
+    public static SafetyRules compile(Properties props) {
+        List<String> messages = new ArrayList<>();
+        List<Integer> inputs = new ArrayList<>();
+        List<Double> signs = new ArrayList<>();
+        List<Double> dangerLimits = new ArrayList<>();
+        List<Double> cautionLimits = new ArrayList<>();
+
+        for (String name : props.getProperty("rules", "").split(",")) {
+            name = name.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            String prefix = "rule." + name + ".";
+            try {
+                int input = Arrays.asList(INPUT_NAMES).indexOf(props.getProperty(prefix + "input", "").trim());
+                if (input < 0) {
+                    throw new IllegalArgumentException("unknown input " + props.getProperty(prefix + "input"));
+                }
+                String when = props.getProperty(prefix + "when", "above").trim().toLowerCase(Locale.ROOT);
+                if (!when.equals("above") && !when.equals("below")) {
+                    throw new IllegalArgumentException("'when' must be above or below");
+                }
+                double sign = when.equals("above") ? 1 : -1;
+                double danger = Double.parseDouble(props.getProperty(prefix + "danger").trim());
+                double caution = Double.parseDouble(props.getProperty(prefix + "caution",
+                        String.valueOf(danger)).trim());
+                if (sign * caution > sign * danger) {
+                    throw new IllegalArgumentException("caution limit lies beyond the danger limit");
+                }
+                messages.add(props.getProperty(prefix + "message", name).trim());
+                inputs.add(input);
+                signs.add(sign);
+                dangerLimits.add(sign * danger);
+                cautionLimits.add(sign * caution);
+            } catch (RuntimeException e) {
+                System.out.println("Skipping invalid safety rule '" + name + "': " + e.getMessage());
+            }
+        }
+        return new SafetyRules(messages, inputs, signs, dangerLimits, cautionLimits);
+    }
+
+    private static Properties loadConfig() {
+        Properties props = new Properties();
+        try (InputStream in = SafetyRules.class.getResourceAsStream("/com/example/demo3/safety-rules.properties")) {
+            if (in != null) {
+                props.load(in);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        Path override = Paths.get(System.getProperty("fisheries.safetyRules",
+                System.getProperty("user.home") + "/FisheriesData/safety-rules.properties"));
+        if (Files.isRegularFile(override)) {
+            try (InputStream in = Files.newInputStream(override)) {
+                props.load(in);
+            } catch (IOException e) {
+                System.out.println("Safety rule override not read: " + e.getMessage());
+            }
+        }
+        return props;
+    }
+
+    /**
+     * Level of one point; pass NaN for inputs that are not known
+     */
+    public int level(double wave, double wind, double visibility, double rain, double windWave) {
+        double[] point = {wave, wind, visibility, rain, windWave};
+        return level(point);
+    }
+
+    /**
+     * Level of one point given as values indexed by input
+     */
+    public int level(double[] point) {
+        int level = SAFE;
+        for (int r = 0; r < count; r++) {
+            double x = signs[r] * point[inputs[r]];
+            level = Math.max(level, (x > dangerLimits[r] ? 1 : 0) + (x > cautionLimits[r] ? 1 : 0));
+        }
+        return level;
+    }
+
+    /**
+     * Level from the rules on a single input, e.g. to grade wave height on its own
+     */
+    public int inputLevel(int input, double value) {
+        int level = SAFE;
+        for (int r = 0; r < count; r++) {
+            if (inputs[r] == input) {
+                double x = signs[r] * value;
+                level = Math.max(level, (x > dangerLimits[r] ? 1 : 0) + (x > cautionLimits[r] ? 1 : 0));
+            }
+        }
+        return level;
+    }
+
+    /**
+     * Level plus the first rule at that level, for alert texts
+     */
+    public Assessment assess(double wave, double wind, double visibility, double rain, double windWave) {
+        return assess(new double[]{wave, wind, visibility, rain, windWave});
+    }
+
+    public Assessment assess(double[] point) {
+        int level = SAFE;
+        int decidingRule = -1;
+        for (int r = 0; r < count; r++) {
+            double x = signs[r] * point[inputs[r]];
+            int ruleLevel = (x > dangerLimits[r] ? 1 : 0) + (x > cautionLimits[r] ? 1 : 0);
+            if (ruleLevel > level) {
+                level = ruleLevel;
+                decidingRule = r;
+            }
+        }
+        if (decidingRule < 0) {
+            return new Assessment(SAFE, -1, "", Double.NaN);
+        }
+        return new Assessment(level, inputs[decidingRule], messages[decidingRule], point[inputs[decidingRule]]);
+    }
+
+    /**
+     * Conditions held by the report weather object; rain and wind waves are not part of it
+     */
+    public Assessment assess(WeatherData data) {
+        return assess(data.getWaveHeight(), data.getWindSpeed(), data.getVisibility(), Double.NaN, Double.NaN);
+    }
+
+    /**
+     * Levels of many points at once, e.g. every (location, hour) of a forecast grid.
+     * Inputs are columns indexed by input; a null column is an unknown input.
+     * Runs the Vector API kernel when it is available and the scalar loop otherwise.
+     */
+    public void evaluate(double[][] columns, int n, byte[] levels) {
+        if (VECTORIZED) {
+            evaluateVector(columns, n, levels);
+        } else {
+            evaluateScalar(columns, n, levels);
+        }
+    }
+
+    /**
+     * Works block by block so the columns stay in the L1 cache. Inside a block each rule
+     * ORs a caution bit and a danger bit into every point, a loop without data-dependent
+     * branches; the flags (0, 1 or 3, as danger implies caution) become levels at the end.
+     */
+    void evaluateScalar(double[][] columns, int n, byte[] levels) {
+        for (int from = 0; from < n; from += BLOCK) {
+            int to = Math.min(n, from + BLOCK);
+            Arrays.fill(levels, from, to, (byte) 0);
+            for (int r = 0; r < count; r++) {
+                double[] column = columns[inputs[r]];
+                if (column == null) {
+                    continue;
+                }
+                double sign = signs[r];
+                double danger = dangerLimits[r];
+                double caution = cautionLimits[r];
+                for (int i = from; i < to; i++) {
+                    double x = sign * column[i];
+                    levels[i] |= (byte) ((x > caution ? 1 : 0) | (x > danger ? 2 : 0));
+                }
+            }
+            for (int i = from; i < to; i++) {
+                int flags = levels[i];
+                levels[i] = (byte) (flags - (flags >> 1));
+            }
+        }
+    }
+
+    /**
+     * Same blocks, with each rule applied a vector of points at a time; the block's levels are
+     * kept as doubles so they stay in the lane shape of the inputs until the block is done.
+     * Only call when {@link #VECTORIZED} is true.
+     */
+    void evaluateVector(double[][] columns, int n, byte[] levels) {
+        double[] blockLevels = new double[BLOCK];
+        for (int from = 0; from < n; from += BLOCK) {
+            int to = Math.min(n, from + BLOCK);
+            Arrays.fill(blockLevels, 0.0);
+            for (int r = 0; r < count; r++) {
+                double[] column = columns[inputs[r]];
+                if (column != null) {
+                    SafetyRulesVector.raise(column, from, to, signs[r], cautionLimits[r], dangerLimits[r],
+                            blockLevels);
+                }
+            }
+            for (int i = from; i < to; i++) {
+                levels[i] = (byte) blockLevels[i - from];
+            }
+        }
+    }
+
+    public int getRuleCount() {
+        return count;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo3;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD form of the SafetyRules batch loop on the jdk.incubator.vector API.
+ * Only touched once SafetyRules has seen the module in the boot layer, so a JVM started
+ * without --add-modules jdk.incubator.vector never loads this class and stays on the scalar loop.
+ */
+final class SafetyRulesVector {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final DoubleVector ZERO = DoubleVector.zero(SPECIES);
+
+    private SafetyRulesVector() {
+    }
+
+    /**
+     * Raise levels[0..to-from) to the level one rule gives column[from..to).
+     * A compare against NaN is false, so unknown values never trigger the rule.
+     */
+    static void raise(double[] column, int from, int to, double sign, double caution, double danger,
+                      double[] levels) {
+        int n = to - from;
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, column, from + i).mul(sign);
+            VectorMask<Double> overCaution = x.compare(VectorOperators.GT, caution);
+            VectorMask<Double> overDanger = x.compare(VectorOperators.GT, danger);
+            DoubleVector level = ZERO.blend(1.0, overCaution).add(ZERO.blend(1.0, overDanger));
+            DoubleVector.fromArray(SPECIES, levels, i).max(level).intoArray(levels, i);
+        }
+        for (; i < n; i++) {
+            double x = sign * column[from + i];
+            levels[i] = Math.max(levels[i], (x > caution ? 1 : 0) + (x > danger ? 1 : 0));
+        }
+    }
+}
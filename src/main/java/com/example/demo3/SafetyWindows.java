@@ -0,0 +1,75 @@
+package com.example.demo3;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Safe fishing windows in an hourly forecast.
+ * Hours are scored with the SafetyRules batch kernel and then scanned once for runs of
+ * hours that stay at or below an accepted level; the longest runs are the best windows.
+ * TripPlanner uses it for the longest stretches a boat can stay out from each harbor.
+ */
+public final class SafetyWindows {
+
+    /**
+     * A run of consecutive acceptable hours
+     */
+    public static class Window {
+        private final int startHour;
+        private final int hours;
+        private final int cautionHours;
+
+        Window(int startHour, int hours, int cautionHours) {
+            this.startHour = startHour;
+            this.hours = hours;
+            this.cautionHours = cautionHours;
+        }
+
+        /** Offset of the first hour from the start of the forecast */
+        public int getStartHour() { return startHour; }
+        public int getHours() { return hours; }
+        /** Hours inside the window at caution level; always 0 when only safe hours are accepted */
+        public int getCautionHours() { return cautionHours; }
+    }
+
+    private SafetyWindows() {
+    }
+
+    /**
+     * Safety level per hour from hourly columns indexed by SafetyRules input (null = not forecast)
+     */
+    public static byte[] levels(double[][] columns, int hours) {
+        byte[] levels = new byte[hours];
+        SafetyRules.getInstance().evaluate(columns, hours, levels);
+        return levels;
+    }
+
+    /**
+     * Longest windows of at least minHours whose hours are all at or below maxLevel,
+     * longest first, then fewest caution hours, then earliest
+     */
+    public static List<Window> bestWindows(byte[] levels, int hours, int maxLevel, int minHours, int limit) {
+        List<Window> windows = new ArrayList<>();
+        int start = -1;
+        int caution = 0;
+        for (int h = 0; h <= hours; h++) {
+            boolean acceptable = h < hours && levels[h] <= maxLevel;
+            if (acceptable) {
+                if (start < 0) {
+                    start = h;
+                    caution = 0;
+                }
+                caution += levels[h] == SafetyRules.CAUTION ? 1 : 0;
+            } else if (start >= 0) {
+                if (h - start >= minHours) {
+                    windows.add(new Window(start, h - start, caution));
+                }
+                start = -1;
+            }
+        }
+        windows.sort((a, b) -> a.hours != b.hours ? Integer.compare(b.hours, a.hours)
+                : a.cautionHours != b.cautionHours ? Integer.compare(a.cautionHours, b.cautionHours)
+                : Integer.compare(a.startHour, b.startHour));
+        return windows.size() > limit ? new ArrayList<>(windows.subList(0, limit)) : windows;
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.demo3;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static Connection.DBConnection.getConnection;
+
+/**
+ * Departure and return events of fishing trips, plus LOST when a boat at sea stops
+ * reporting so it no longer counts as on a trip.
+ * Events are stored in the trip table through batched inserts by a background writer,
+ * while active-trip and completed-today counts are kept in memory and updated per event,
+ * so the dashboard never counts rows in the table. The counts are seeded once at start.
+ */
+public class TripLog {
+
+    private static final TripLog INSTANCE = new TripLog();
+
+    public static final String DEPARTURE = "DEPARTURE";
+    public static final String RETURN = "RETURN";
+    public static final String LOST = "LOST";
+
+    private static final int BATCH_SIZE = 1000;
+    /** Departures older than this without a return are not treated as active at start-up */
+    private static final int ACTIVE_LOOKBACK_DAYS = 7;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO trip (vessel_id, harbor, event, event_time) VALUES (?, ?, ?, ?)";
+
+    /**
+     * One departure or return waiting to be written
+     */
+    private static class TripEvent {
+        final int vesselId;
+        final String harbor;
+        final String event;
+        final LocalDateTime time;
+
+        TripEvent(int vesselId, String harbor, String event, LocalDateTime time) {
+            this.vesselId = vesselId;
+            this.harbor = harbor;
+            this.event = event;
+            this.time = time;
+        }
+    }
+
+    /**
+     * Where a vessel was on its first report since start-up
+     */
+    private static class Sighting {
+        final String harbor;
+        final boolean atSea;
+
+        Sighting(String harbor, boolean atSea) {
+            this.harbor = harbor;
+            this.atSea = atSea;
+        }
+    }
+
+    private final ConcurrentLinkedQueue<TripEvent> pending = new ConcurrentLinkedQueue<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final Set<Integer> vesselsOnTrip = new HashSet<>();
+    private int completedToday;
+    // First reports that arrived before seedCounters read the open trips; null once seeded
+    private Map<Integer, Sighting> firstSeenBeforeSeed = new HashMap<>();
+    private LocalDate today = LocalDate.now();
+    private ScheduledExecutorService executor;
+
+    private TripLog() {
+    }
+
+    public static TripLog getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Create the table if needed, seed the counters and start the batch writer.
+     * Trip events come from FleetTracker harbor departures and arrivals.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "trip-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(() -> {
+            ensureTable();
+            seedCounters();
+        });
+        executor.scheduleWithFixedDelay(this::flush, 1, 1, TimeUnit.SECONDS);
+
+        FleetTracker.getInstance().addTripListener(new FleetTracker.TripListener() {
+            @Override
+            public void departed(int vesselId, String harbor) {
+                recordDeparture(vesselId, harbor);
+            }
+
+            @Override
+            public void returned(int vesselId, String harbor) {
+                recordReturn(vesselId, harbor);
+            }
+
+            @Override
+            public void lost(int vesselId, String harbor) {
+                recordLost(vesselId, harbor);
+            }
+
+            @Override
+            public void firstSeen(int vesselId, String harbor, boolean atSea) {
+                recordFirstSeen(vesselId, harbor, atSea);
+            }
+        });
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        flush();
+    }
+
+    /**
+     * Be notified after the counters change (on the recording thread)
+     */
+    public Runnable addListener(Runnable listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    public void recordDeparture(int vesselId, String harbor) {
+        pending.add(new TripEvent(vesselId, harbor, DEPARTURE, LocalDateTime.now()));
+        synchronized (this) {
+            rollDay();
+            vesselsOnTrip.add(vesselId);
+        }
+        notifyListeners();
+    }
+
+    public void recordReturn(int vesselId, String harbor) {
+        pending.add(new TripEvent(vesselId, harbor, RETURN, LocalDateTime.now()));
+        synchronized (this) {
+            rollDay();
+            if (vesselsOnTrip.remove(vesselId)) {
+                completedToday++;
+            }
+        }
+        notifyListeners();
+    }
+
+    /**
+     * A vessel's first report since start-up: close a trip left open before the restart when it
+     * is back in harbor, or open one when it is at sea without a recorded departure
+     */
+    public void recordFirstSeen(int vesselId, String harbor, boolean atSea) {
+        boolean onTrip;
+        synchronized (this) {
+            if (firstSeenBeforeSeed != null) {
+                // The open trips are not known yet; seedCounters settles this report
+                firstSeenBeforeSeed.put(vesselId, new Sighting(harbor, atSea));
+                return;
+            }
+            onTrip = vesselsOnTrip.contains(vesselId);
+        }
+        settleFirstSeen(vesselId, harbor, atSea, onTrip);
+    }
+
+    private void settleFirstSeen(int vesselId, String harbor, boolean atSea, boolean onTrip) {
+        if (atSea && !onTrip) {
+            recordDeparture(vesselId, harbor);
+        } else if (!atSea && onTrip) {
+            recordReturn(vesselId, harbor);
+        }
+    }
+
+    /**
+     * A boat at sea stopped reporting: its trip ends without a return
+     */
+    public void recordLost(int vesselId, String harbor) {
+        pending.add(new TripEvent(vesselId, harbor, LOST, LocalDateTime.now()));
+        synchronized (this) {
+            vesselsOnTrip.remove(vesselId);
+        }
+        notifyListeners();
+    }
+
+    public synchronized int getActiveTrips() {
+        return vesselsOnTrip.size();
+    }
+
+    public synchronized int getCompletedToday() {
+        rollDay();
+        return completedToday;
+    }
+
+    private void rollDay() {
+        LocalDate now = LocalDate.now();
+        if (!now.equals(today)) {
+            today = now;
+            completedToday = 0;
+        }
+    }
+
+    private void notifyListeners() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Write queued events in batches; a failed batch is put back and retried next time
+     */
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+
+            conn.setAutoCommit(false);
+            List<TripEvent> batch = new ArrayList<>(BATCH_SIZE);
+            TripEvent event;
+            while ((event = pending.poll()) != null) {
+                batch.add(event);
+                stmt.setInt(1, event.vesselId);
+                stmt.setString(2, event.harbor);
+                stmt.setString(3, event.event);
+                stmt.setTimestamp(4, Timestamp.valueOf(event.time));
+                stmt.addBatch();
+                if (batch.size() == BATCH_SIZE || pending.isEmpty()) {
+                    try {
+                        stmt.executeBatch();
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        stmt.clearBatch();
+                        pending.addAll(batch);
+                        throw e;
+                    }
+                    batch.clear();
+                }
+            }
+            conn.setAutoCommit(true);
+        } catch (SQLException | NullPointerException e) {
+            System.out.println("Trip events not written yet: " + e.getMessage());
+        }
+    }
+
+    private void ensureTable() {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS trip (" +
+                    "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                    "vessel_id INT NOT NULL, " +
+                    "harbor VARCHAR(100), " +
+                    "event VARCHAR(10) NOT NULL, " +
+                    "event_time DATETIME(3) NOT NULL, " +
+                    "INDEX idx_trip_time (event_time), " +
+                    "INDEX idx_trip_vessel (vessel_id, id))");
+        } catch (SQLException | NullPointerException e) {
+            System.out.println("Trip table could not be prepared: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Start-up only: today's returns and vessels whose latest recent event is a departure
+     */
+    private void seedCounters() {
+        String completedSql = "SELECT COUNT(*) FROM trip WHERE event = 'RETURN' AND event_time >= ?";
+        String activeSql = "SELECT t.vessel_id FROM trip t " +
+                "JOIN (SELECT vessel_id, MAX(id) AS id FROM trip WHERE event_time >= ? GROUP BY vessel_id) latest " +
+                "ON t.id = latest.id WHERE t.event = 'DEPARTURE'";
+
+        try (Connection conn = getConnection();
+             PreparedStatement completed = conn.prepareStatement(completedSql);
+             PreparedStatement active = conn.prepareStatement(activeSql)) {
+
+            LocalDate now = LocalDate.now();
+            completed.setTimestamp(1, Timestamp.valueOf(now.atStartOfDay()));
+            active.setTimestamp(1, Timestamp.valueOf(now.minusDays(ACTIVE_LOOKBACK_DAYS).atStartOfDay()));
+
+            int completedCount = 0;
+            try (ResultSet rs = completed.executeQuery()) {
+                if (rs.next()) {
+                    completedCount = rs.getInt(1);
+                }
+            }
+            Set<Integer> onTrip = new HashSet<>();
+            try (ResultSet rs = active.executeQuery()) {
+                while (rs.next()) {
+                    onTrip.add(rs.getInt(1));
+                }
+            }
+
+            synchronized (this) {
+                today = now;
+                // Events recorded while seeding are already in the counters
+                completedToday += completedCount;
+                vesselsOnTrip.addAll(onTrip);
+            }
+            notifyListeners();
+        } catch (SQLException | NullPointerException e) {
+            System.out.println("Trip counters start from zero: " + e.getMessage());
+        }
+        settleEarlyReports();
+    }
+
+    /**
+     * Apply the first reports that arrived while the counters were being seeded
+     */
+    private void settleEarlyReports() {
+        Map<Integer, Sighting> early;
+        Set<Integer> onTrip;
+        synchronized (this) {
+            early = firstSeenBeforeSeed;
+            firstSeenBeforeSeed = null;
+            onTrip = new HashSet<>(vesselsOnTrip);
+        }
+        early.forEach((vesselId, seen) ->
+                settleFirstSeen(vesselId, seen.harbor, seen.atSea, onTrip.contains(vesselId)));
+    }
+}
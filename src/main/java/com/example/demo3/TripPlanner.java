@@ -0,0 +1,229 @@
+package com.example.demo3;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Answers "where and when should I go this week": the best safe windows of a given
+ * length at every harbor, ranked along the whole coast.
+ * Each harbor's hourly forecast is scored once, then a sliding window over prefix sums
+ * checks every start hour in O(1); harbors are searched in parallel. Answers are cached
+ * until HarborForecasts loads new data.
+ */
+public class TripPlanner {
+
+    private static final TripPlanner INSTANCE = new TripPlanner();
+
+    /**
+     * A candidate trip: no dangerous hour, ranked by caution hours and then wave height
+     */
+    public static class TripWindow {
+        private final String harbor;
+        private final LocalDateTime start;
+        private final int hours;
+        private final int cautionHours;
+        private final double meanWaveHeight;
+
+        TripWindow(String harbor, LocalDateTime start, int hours, int cautionHours, double meanWaveHeight) {
+            this.harbor = harbor;
+            this.start = start;
+            this.hours = hours;
+            this.cautionHours = cautionHours;
+            this.meanWaveHeight = meanWaveHeight;
+        }
+
+        public String getHarbor() { return harbor; }
+        public LocalDateTime getStart() { return start; }
+        public int getHours() { return hours; }
+        public int getCautionHours() { return cautionHours; }
+        /** NaN when the marine forecast had no waves for the window */
+        public double getMeanWaveHeight() { return meanWaveHeight; }
+    }
+
+    private static final Comparator<TripWindow> RANKING = Comparator
+            .comparingInt(TripWindow::getCautionHours)
+            .thenComparingDouble(w -> Double.isNaN(w.meanWaveHeight) ? Double.MAX_VALUE : w.meanWaveHeight)
+            .thenComparing(TripWindow::getStart);
+
+    /**
+     * Cached question: the current hour, window length and windows per harbor
+     */
+    private static final class Query {
+        final long hour;
+        final int windowHours;
+        final int perHarbor;
+
+        Query(long hour, int windowHours, int perHarbor) {
+            this.hour = hour;
+            this.windowHours = windowHours;
+            this.perHarbor = perHarbor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Query)) {
+                return false;
+            }
+            Query other = (Query) o;
+            return hour == other.hour && windowHours == other.windowHours && perHarbor == other.perHarbor;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hour, windowHours, perHarbor);
+        }
+    }
+
+    private final Map<Query, List<TripWindow>> cache = new ConcurrentHashMap<>();
+    private volatile long cachedVersion = -1;
+
+    private TripPlanner() {
+    }
+
+    public static TripPlanner getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Best non-overlapping windows of windowHours at each harbor (at most perHarbor each),
+     * all harbors ranked together; windows that already started are left out
+     */
+    public List<TripWindow> bestWindows(int windowHours, int perHarbor) {
+        HarborForecasts source = HarborForecasts.getInstance();
+        long version = source.getVersion();
+        if (version != cachedVersion) {
+            cache.clear();
+            cachedVersion = version;
+        }
+        // The current hour is part of the key so passing hours drop out of cached answers
+        long hourNow = HarborForecasts.now().truncatedTo(ChronoUnit.HOURS).toEpochSecond(ZoneOffset.UTC) / 3600;
+        return cache.computeIfAbsent(new Query(hourNow, windowHours, perHarbor),
+                query -> search(source.getForecasts(), windowHours, perHarbor));
+    }
+
+    /**
+     * Longest stretches of at least minHours without a dangerous hour, from the current hour on,
+     * at most perHarbor per harbor; longest first along the whole coast, then fewest caution hours
+     */
+    public List<TripWindow> longestStretches(int minHours, int perHarbor, int limit) {
+        LocalDateTime now = HarborForecasts.now().truncatedTo(ChronoUnit.HOURS);
+        List<TripWindow> stretches = new ArrayList<>();
+        for (HarborForecasts.Forecast forecast : HarborForecasts.getInstance().getForecasts()) {
+            int hours = forecast.getHours();
+            int first = (int) Math.max(0, ChronoUnit.HOURS.between(forecast.getStart(), now));
+            if (first >= hours) {
+                continue;
+            }
+            byte[] levels = SafetyWindows.levels(forecast.getColumns(), hours);
+            byte[] ahead = Arrays.copyOfRange(levels, first, hours);
+            double[] waves = forecast.getColumns()[SafetyRules.WAVE];
+            for (SafetyWindows.Window run : SafetyWindows.bestWindows(ahead, ahead.length, SafetyRules.CAUTION,
+                    minHours, perHarbor)) {
+                int start = first + run.getStartHour();
+                stretches.add(new TripWindow(forecast.getHarbor().getName(), forecast.getStart().plusHours(start),
+                        run.getHours(), run.getCautionHours(), meanOf(waves, start, start + run.getHours())));
+            }
+        }
+        stretches.sort(Comparator.comparingInt(TripWindow::getHours).reversed()
+                .thenComparingInt(TripWindow::getCautionHours)
+                .thenComparing(TripWindow::getStart));
+        return stretches.size() > limit ? new ArrayList<>(stretches.subList(0, limit)) : stretches;
+    }
+
+    /**
+     * Mean of the known values in column[from..to), NaN when there are none (or no column)
+     */
+    private static double meanOf(double[] column, int from, int to) {
+        if (column == null) {
+            return Double.NaN;
+        }
+        double sum = 0;
+        int known = 0;
+        for (int h = from; h < to; h++) {
+            if (!Double.isNaN(column[h])) {
+                sum += column[h];
+                known++;
+            }
+        }
+        return known == 0 ? Double.NaN : sum / known;
+    }
+
+    private static List<TripWindow> search(List<HarborForecasts.Forecast> forecasts, int windowHours, int perHarbor) {
+        // Forecast hours are local to the harbors, not to the machine running the app
+        LocalDateTime now = HarborForecasts.now().truncatedTo(ChronoUnit.HOURS);
+        List<TripWindow> ranked = forecasts.parallelStream()
+                .flatMap(forecast -> searchHarbor(forecast, windowHours, perHarbor, now).stream())
+                .sorted(RANKING)
+                .collect(Collectors.toList());
+        return Collections.unmodifiableList(ranked);
+    }
+
+    private static List<TripWindow> searchHarbor(HarborForecasts.Forecast forecast, int windowHours,
+                                                 int perHarbor, LocalDateTime now) {
+        int hours = forecast.getHours();
+        int first = (int) Math.max(0, ChronoUnit.HOURS.between(forecast.getStart(), now));
+        if (windowHours <= 0 || first + windowHours > hours) {
+            return Collections.emptyList();
+        }
+        byte[] levels = new byte[hours];
+        SafetyRules.getInstance().evaluate(forecast.getColumns(), hours, levels);
+        double[] waves = forecast.getColumns()[SafetyRules.WAVE];
+
+        // Prefix sums: dangerous hours, caution hours, wave heights and hours with a wave value
+        int[] danger = new int[hours + 1];
+        int[] caution = new int[hours + 1];
+        double[] waveSum = new double[hours + 1];
+        int[] waveCount = new int[hours + 1];
+        for (int h = 0; h < hours; h++) {
+            danger[h + 1] = danger[h] + (levels[h] == SafetyRules.DANGER ? 1 : 0);
+            caution[h + 1] = caution[h] + (levels[h] == SafetyRules.CAUTION ? 1 : 0);
+            boolean known = !Double.isNaN(waves[h]);
+            waveSum[h + 1] = waveSum[h] + (known ? waves[h] : 0);
+            waveCount[h + 1] = waveCount[h] + (known ? 1 : 0);
+        }
+
+        List<TripWindow> candidates = new ArrayList<>();
+        int[] candidateStarts = new int[hours];
+        for (int s = first; s + windowHours <= hours; s++) {
+            int e = s + windowHours;
+            if (danger[e] - danger[s] > 0) {
+                continue;
+            }
+            int known = waveCount[e] - waveCount[s];
+            double meanWave = known == 0 ? Double.NaN : (waveSum[e] - waveSum[s]) / known;
+            candidateStarts[candidates.size()] = s;
+            candidates.add(new TripWindow(forecast.getHarbor().getName(), forecast.getStart().plusHours(s),
+                    windowHours, caution[e] - caution[s], meanWave));
+        }
+
+        // Best first, skipping windows that overlap one already picked. All windows have the
+        // same length, so an overlap always covers the first or the last hour.
+        Integer[] order = new Integer[candidates.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> RANKING.compare(candidates.get(a), candidates.get(b)));
+        boolean[] taken = new boolean[hours];
+        List<TripWindow> picked = new ArrayList<>(perHarbor);
+        for (int i = 0; i < order.length && picked.size() < perHarbor; i++) {
+            int s = candidateStarts[order[i]];
+            if (!taken[s] && !taken[s + windowHours - 1]) {
+                for (int h = s; h < s + windowHours; h++) {
+                    taken[h] = true;
+                }
+                picked.add(candidates.get(order[i]));
+            }
+        }
+        return picked;
+    }
+}
@@ -5,6 +5,7 @@ package com.example.demo3;
 
 import Model.User;
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -16,14 +17,26 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
+import java.io.File;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static Connection.DBConnection.getConnection;
 
@@ -46,6 +59,8 @@ public class UserController {
     private Label totalUsersLabel;
 
     private final ObservableList<User> userList = FXCollections.observableArrayList();
+    private final FxBatcher<Map<String, Object>> userChanges = new FxBatcher<>(this::applyUserChanges);
+    private final FxBatcher<Integer> userDeletes = new FxBatcher<>(this::applyUserDeletes);
 
     @FXML
     public void initialize() {
@@ -68,6 +83,8 @@ public class UserController {
         // If table is still empty, force dummy data
         if (userTable.getItems().isEmpty()) {
             loadDummyData();
+        } else {
+            subscribeToUserChanges();
         }
     }
     
@@ -96,25 +113,23 @@ public class UserController {
     }
 
     public void getUsers() {
-        ObservableList<User> data = FXCollections.observableArrayList();
+        List<User> data = new ArrayList<>();
 
         try (Connection conn = getConnection();
              PreparedStatement user = conn.prepareStatement("Select * from fishman");
              ResultSet resultSet = user.executeQuery()) {
 
+            ResultSetMetaData meta = resultSet.getMetaData();
             while (resultSet.next()) {
-                data.add(new User(
-                        resultSet.getString("name"),
-                        resultSet.getInt("age"),
-                        resultSet.getString("fishingDay"),
-                        resultSet.getString("address"),
-                        resultSet.getString("contact")
-
-                ));
-
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int c = 1; c <= meta.getColumnCount(); c++) {
+                    row.put(meta.getColumnLabel(c), resultSet.getObject(c));
+                }
+                data.add(userOf(row));
             }
 
-            userTable.setItems(data);
+            userList.setAll(data);
+            userTable.setItems(userList);
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
@@ -123,6 +138,63 @@ public class UserController {
     }
 
 
+    /**
+     * Convert a fishman row map to the model
+     */
+    private static User userOf(Map<String, Object> row) {
+        Object age = row.get("age");
+        return new User(
+                ChangeTracker.idOf(row),
+                (String) row.get("name"),
+                age instanceof Number ? ((Number) age).intValue() : 0,
+                (String) row.get("fishingDay"),
+                (String) row.get("address"),
+                (String) row.get("contact"));
+    }
+
+    /**
+     * Apply fishman rows added, edited or deleted anywhere instead of reloading the whole table
+     */
+    private void subscribeToUserChanges() {
+        Runnable unsubscribeChanges = ChangeTracker.getInstance().subscribe("fishman", userChanges::addAll);
+        Runnable unsubscribeDeletes = ChangeTracker.getInstance().subscribeDeletes("fishman", userDeletes::addAll);
+
+        // Controllers are recreated on every navigation, so drop the subscription with the page
+        userTable.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                unsubscribeChanges.run();
+                unsubscribeDeletes.run();
+            }
+        });
+    }
+
+    private void applyUserChanges(List<Map<String, Object>> rows) {
+        Map<Integer, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < userList.size(); i++) {
+            indexById.put(userList.get(i).getId(), i);
+        }
+
+        List<User> added = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            User user = userOf(row);
+            Integer index = indexById.get(user.getId());
+            if (index != null) {
+                userList.set(index, user);
+            } else {
+                indexById.put(user.getId(), userList.size() + added.size());
+                added.add(user);
+            }
+        }
+        userList.addAll(added);
+        totalUsersLabel.setText(String.valueOf(userList.size()));
+    }
+
+    private void applyUserDeletes(List<Integer> ids) {
+        Set<Integer> deleted = Set.copyOf(ids);
+        userList.removeIf(user -> deleted.contains(user.getId()));
+        totalUsersLabel.setText(String.valueOf(userList.size()));
+    }
+
     @FXML
     private void addUser() {
         Stage popupStage = new Stage();
@@ -163,7 +235,7 @@ public class UserController {
         saveBtn.setOnAction(e -> {
             try (Connection connection = getConnection()) {
                 String sql = "INSERT INTO fishman (name, age, fishingDay, address, contact) VALUES (?, ?, ?, ?, ?)";
-                PreparedStatement stmt = connection.prepareStatement(sql);
+                PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
 
                 stmt.setString(1, nameField.getText());
                 stmt.setInt(2, Integer.parseInt(ageField.getText()));
@@ -172,9 +244,17 @@ public class UserController {
                 stmt.setString(5, contactField.getText());
 
                 stmt.executeUpdate();
+                int id = 0;
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        id = keys.getInt(1);
+                    }
+                }
 
-                // Update TableView
-                getUsers();
+                // Show the row now; the change tracker replaces it with the stored copy by id
+                userList.add(new User(id, nameField.getText(), Integer.parseInt(ageField.getText()),
+                        fishingDayField.getText(), addressField.getText(), contactField.getText()));
+                totalUsersLabel.setText(String.valueOf(userList.size()));
 
                 popupStage.close();
 
@@ -187,6 +267,164 @@ public class UserController {
         closeBtn.setOnAction(e -> popupStage.close());
     }
 
+    @FXML
+    private void bulkImportUsers() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Select Fishermen CSV");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = fileChooser.showOpenDialog(userTable.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        showImportPreview(file);
+    }
+
+    /**
+     * Import dialog: the file is read and validated in the background, then previewed;
+     * rows are inserted on confirm and Cancel stops the import after the current chunk
+     */
+    private void showImportPreview(File file) {
+        Stage popupStage = new Stage();
+        popupStage.initModality(Modality.APPLICATION_MODAL);
+        popupStage.setTitle("Import Fishermen - " + file.getName());
+
+        Label summary = new Label("Reading " + file.getName() + "...");
+
+        // Preview the first rows only; the full list is imported on confirm
+        TableView<User> previewTable = new TableView<>();
+        String[][] columns = {{"Name", "name"}, {"Age", "age"}, {"Fishing Day", "fishingDay"},
+                {"Address", "address"}, {"Contact", "contact"}};
+        for (String[] column : columns) {
+            TableColumn<User, Object> col = new TableColumn<>(column[0]);
+            col.setCellValueFactory(new PropertyValueFactory<>(column[1]));
+            previewTable.getColumns().add(col);
+        }
+
+        TextArea errorArea = new TextArea();
+        errorArea.setEditable(false);
+        errorArea.setPrefRowCount(4);
+
+        ProgressBar progressBar = new ProgressBar(0);
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+        Label progressLabel = new Label();
+
+        Button importBtn = new Button("Import");
+        Button closeBtn = new Button("Cancel");
+        importBtn.setDisable(true);
+
+        HBox btnBox = new HBox(10, importBtn, closeBtn);
+        btnBox.setAlignment(Pos.CENTER);
+
+        VBox vbox = new VBox(10, summary, previewTable, new Label("Rejected rows"), errorArea,
+                progressBar, progressLabel, btnBox);
+        vbox.setPadding(new Insets(20));
+        vbox.getStyleClass().add("popup-pane");
+
+        popupStage.setScene(new Scene(vbox, 700, 600));
+        popupStage.show();
+
+        Task<FishermanImportService.ImportPreview> parseTask = new Task<>() {
+            @Override
+            protected FishermanImportService.ImportPreview call() throws IOException {
+                return FishermanImportService.parse(file);
+            }
+
+            @Override
+            protected void succeeded() {
+                FishermanImportService.ImportPreview preview = getValue();
+                summary.setText(preview.getValidRows().size() + " valid rows, "
+                        + preview.getErrors().size() + " rejected");
+                previewTable.setItems(FXCollections.observableArrayList(
+                        preview.getValidRows().subList(0, Math.min(100, preview.getValidRows().size()))));
+                errorArea.setText(String.join("\n", preview.getErrors()));
+                importBtn.setDisable(preview.getValidRows().isEmpty());
+            }
+
+            @Override
+            protected void failed() {
+                summary.setText("Could not read " + file.getName() + ": " + getException().getMessage());
+                closeBtn.setText("Close");
+            }
+        };
+
+        // Cancel during an import stops it between chunks instead of closing the dialog
+        AtomicBoolean cancelRequested = new AtomicBoolean();
+        AtomicReference<Task<FishermanImportService.ImportResult>> importing = new AtomicReference<>();
+
+        importBtn.setOnAction(e -> {
+            importBtn.setDisable(true);
+            List<User> rows = parseTask.getValue().getValidRows();
+
+            Task<FishermanImportService.ImportResult> importTask = new Task<>() {
+                @Override
+                protected FishermanImportService.ImportResult call() {
+                    return FishermanImportService.importUsers(rows, FishermanImportService.DEFAULT_CHUNK_SIZE,
+                            (processed, total, rowsPerSecond) -> {
+                                updateProgress(processed, total);
+                                updateMessage(String.format("%,d / %,d rows (%,.0f rows/s)",
+                                        processed, total, rowsPerSecond));
+                            }, cancelRequested::get);
+                }
+
+                @Override
+                protected void succeeded() {
+                    FishermanImportService.ImportResult result = getValue();
+                    progressLabel.textProperty().unbind();
+                    progressLabel.setText(String.format("%s %,d rows, %,d failed, %,d not imported in %d ms (%,.0f rows/s)",
+                            result.isCancelled() ? "Cancelled after" : "Imported",
+                            result.getInserted(), result.getFailed(), result.getSkipped(), result.getMillis(),
+                            result.getRowsPerSecond()));
+                    if (!result.getErrors().isEmpty()) {
+                        errorArea.appendText("\n" + String.join("\n", result.getErrors()));
+                    }
+                    closeBtn.setText("Close");
+                    closeBtn.setDisable(false);
+                    // The imported rows reach the table through the change tracker
+                }
+
+                @Override
+                protected void failed() {
+                    progressLabel.textProperty().unbind();
+                    progressLabel.setText("Import failed: " + getException().getMessage());
+                    cancelRequested.set(false);
+                    importBtn.setDisable(false);
+                    closeBtn.setDisable(false);
+                }
+            };
+
+            progressBar.progressProperty().bind(importTask.progressProperty());
+            progressLabel.textProperty().bind(importTask.messageProperty());
+            importing.set(importTask);
+
+            Thread importThread = new Thread(importTask, "fisherman-import");
+            importThread.setDaemon(true);
+            importThread.start();
+        });
+
+        closeBtn.setOnAction(e -> {
+            Task<FishermanImportService.ImportResult> importTask = importing.get();
+            if (importTask != null && importTask.isRunning()) {
+                cancelRequested.set(true);
+                closeBtn.setDisable(true);
+                progressLabel.textProperty().unbind();
+                progressLabel.setText("Cancelling after the current chunk...");
+                return;
+            }
+            parseTask.cancel();
+            popupStage.close();
+        });
+        // Closing the window cancels whatever is still running
+        popupStage.setOnCloseRequest(e -> {
+            parseTask.cancel();
+            cancelRequested.set(true);
+        });
+
+        Thread parseThread = new Thread(parseTask, "fisherman-import-parse");
+        parseThread.setDaemon(true);
+        parseThread.start();
+    }
+
     @FXML
     private void deleteSelectedUser() {
         User selectedUser = userTable.getSelectionModel().getSelectedItem();
@@ -197,16 +435,21 @@ public class UserController {
         }
 
         try (Connection connection = getConnection()) {
-            String sql = "DELETE FROM fishman WHERE name = ? AND contact = ?";
-            PreparedStatement stmt = connection.prepareStatement(sql);
-            stmt.setString(1, selectedUser.getName());
-            stmt.setString(2, selectedUser.getContact());
+            PreparedStatement stmt;
+            if (selectedUser.getId() > 0) {
+                stmt = connection.prepareStatement("DELETE FROM fishman WHERE id = ?");
+                stmt.setInt(1, selectedUser.getId());
+            } else {
+                stmt = connection.prepareStatement("DELETE FROM fishman WHERE name = ? AND contact = ?");
+                stmt.setString(1, selectedUser.getName());
+                stmt.setString(2, selectedUser.getContact());
+            }
 
             int rowsAffected = stmt.executeUpdate();
             if (rowsAffected > 0) {
                 userList.remove(selectedUser);
+                totalUsersLabel.setText(String.valueOf(userList.size()));
                 System.out.println("User deleted.");
-                getUsers();
             } else {
                 System.out.println("Delete failed.");
             }
@@ -249,7 +492,8 @@ public class UserController {
 
         saveBtn.setOnAction(e -> {
             try (Connection connection = getConnection()) {
-                String sql = "UPDATE fishman SET name = ?, age = ?, fishingDay = ?, address = ?, contact = ? WHERE name = ? AND contact = ?";
+                String sql = "UPDATE fishman SET name = ?, age = ?, fishingDay = ?, address = ?, contact = ? WHERE "
+                        + (selectedUser.getId() > 0 ? "id = ?" : "name = ? AND contact = ?");
                 PreparedStatement stmt = connection.prepareStatement(sql);
 
                 stmt.setString(1, nameField.getText());
@@ -258,9 +502,13 @@ public class UserController {
                 stmt.setString(4, addressField.getText());
                 stmt.setString(5, contactField.getText());
 
-                // WHERE clause – original identifiers
-                stmt.setString(6, selectedUser.getName());
-                stmt.setString(7, selectedUser.getContact());
+                // WHERE clause – the row id, or the original identifiers before the id column exists
+                if (selectedUser.getId() > 0) {
+                    stmt.setInt(6, selectedUser.getId());
+                } else {
+                    stmt.setString(6, selectedUser.getName());
+                    stmt.setString(7, selectedUser.getContact());
+                }
 
                 int rows = stmt.executeUpdate();
                 if (rows > 0) {
@@ -0,0 +1,376 @@
+package com.example.demo3;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP access to the Open-Meteo forecast and marine APIs, shared by the weather page
+ * and the background forecast services.
+ * Every request goes through a per-host token bucket, is retried with jittered exponential
+ * backoff on 429, 5xx and network errors, and counts towards a per-host circuit breaker.
+ * While a host is unhealthy (breaker open, budget exhausted or retries used up) the last
+ * good answer for the same URL, if it is not too old, comes back in a StaleResponseException
+ * so callers decide whether an old answer is good enough: background services keep what
+ * they have, the weather page shows it as such.
+ */
+public final class WeatherApi {
+
+    public static final String FORECAST_URL = "https://api.open-meteo.com/v1/forecast";
+    public static final String MARINE_URL = "https://marine-api.open-meteo.com/v1/marine";
+
+    private static final int CONNECT_TIMEOUT_MS = 5_000;
+    private static final int READ_TIMEOUT_MS = 15_000;
+
+    /** Sustained requests per minute and burst size of each host's bucket */
+    private static final double REQUESTS_PER_MINUTE =
+            Double.parseDouble(System.getProperty("fisheries.weatherApi.requestsPerMinute", "60"));
+    private static final int BURST = 10;
+    /** Longest a caller waits for a token before the request counts as throttled */
+    private static final long MAX_TOKEN_WAIT_MS = 5_000;
+
+    private static final int MAX_RETRIES = 3;
+    private static final long BACKOFF_BASE_MS = 500;
+    private static final long BACKOFF_MAX_MS = 8_000;
+    /** A longer Retry-After is not waited for; the request fails instead */
+    private static final long MAX_RETRY_AFTER_MS = 30_000;
+
+    /** Consecutive failed requests that open the breaker, and how long it stays open */
+    private static final int BREAKER_THRESHOLD = 5;
+    private static final long BREAKER_OPEN_MS = 60_000;
+
+    private static final int CACHED_RESPONSES = 64;
+    /** Cached answers older than this are not served at all */
+    private static final long MAX_STALE_MS =
+            Long.parseLong(System.getProperty("fisheries.weatherApi.maxStaleMinutes", "360")) * 60_000;
+
+    /**
+     * The API could not be reached and an earlier answer for the same URL is all there is
+     */
+    public static class StaleResponseException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final String body;
+        private final long fetchedAt;
+
+        StaleResponseException(String reason, String body, long fetchedAt) {
+            super(reason + ", last good response is " + (System.currentTimeMillis() - fetchedAt) / 60_000
+                    + " min old");
+            this.body = body;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public JSONObject getJson() {
+            return new JSONObject(body);
+        }
+
+        /** When the cached answer was received, in epoch ms */
+        public long getFetchedAt() { return fetchedAt; }
+    }
+
+    private static class CachedResponse {
+        final String body;
+        final long fetchedAt;
+
+        CachedResponse(String body, long fetchedAt) {
+            this.body = body;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    /**
+     * Counters since start, for logging and diagnostics
+     */
+    public static class Metrics {
+        private final long requests;
+        private final long retries;
+        private final long throttled;
+        private final long failures;
+        private final long servedFromCache;
+        private final long breakerOpenings;
+
+        Metrics(long requests, long retries, long throttled, long failures, long servedFromCache,
+                long breakerOpenings) {
+            this.requests = requests;
+            this.retries = retries;
+            this.throttled = throttled;
+            this.failures = failures;
+            this.servedFromCache = servedFromCache;
+            this.breakerOpenings = breakerOpenings;
+        }
+
+        /** Calls to fetch, including those answered from the cache */
+        public long getRequests() { return requests; }
+        /** Extra attempts after a 429, 5xx or network error */
+        public long getRetries() { return retries; }
+        /** Requests that found no token within the wait limit */
+        public long getThrottled() { return throttled; }
+        /** Requests that failed after all retries */
+        public long getFailures() { return failures; }
+        /** Requests that got a stale cached response */
+        public long getServedFromCache() { return servedFromCache; }
+        public long getBreakerOpenings() { return breakerOpenings; }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests, %d retries, %d throttled, %d failed, %d served from cache, "
+                    + "breaker opened %d times", requests, retries, throttled, failures, servedFromCache,
+                    breakerOpenings);
+        }
+    }
+
+    /**
+     * Token bucket and circuit breaker of one host
+     */
+    private static class Host {
+        final String name;
+        double tokens = BURST;
+        long refilledAt = System.nanoTime();
+        int consecutiveFailures;
+        // 0 while closed; while open the time it may be probed again
+        long openUntil;
+        boolean probing;
+
+        Host(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Take a token, or return how many ms until one is available
+         */
+        synchronized long tryAcquire() {
+            long now = System.nanoTime();
+            double perMs = REQUESTS_PER_MINUTE / 60_000.0;
+            tokens = Math.min(BURST, tokens + (now - refilledAt) / 1_000_000.0 * perMs);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens--;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / perMs);
+        }
+
+        /**
+         * Closed: every request passes. Open: none do until the cool-down ends, then one
+         * probe request decides whether it closes again.
+         */
+        synchronized boolean allowRequest() {
+            if (openUntil == 0) {
+                return true;
+            }
+            if (System.currentTimeMillis() < openUntil || probing) {
+                return false;
+            }
+            probing = true;
+            return true;
+        }
+
+        synchronized void succeeded() {
+            if (openUntil != 0) {
+                System.out.println("Weather API " + name + " healthy again, circuit closed");
+            }
+            consecutiveFailures = 0;
+            openUntil = 0;
+            probing = false;
+        }
+
+        synchronized void failed() {
+            consecutiveFailures++;
+            if (probing || (openUntil == 0 && consecutiveFailures >= BREAKER_THRESHOLD)) {
+                openUntil = System.currentTimeMillis() + BREAKER_OPEN_MS;
+                probing = false;
+                breakerOpenings.incrementAndGet();
+                System.out.println("Weather API " + name + " unhealthy after " + consecutiveFailures
+                        + " failed requests, circuit open for " + BREAKER_OPEN_MS / 1000 + " s");
+            }
+        }
+
+        /** A probe that never reached the API leaves the breaker open for the next one */
+        synchronized void abandoned() {
+            probing = false;
+        }
+    }
+
+    private static final Map<String, Host> hosts = new ConcurrentHashMap<>();
+    private static final Map<String, CachedResponse> lastGood = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > CACHED_RESPONSES;
+        }
+    };
+
+    private static final AtomicLong requests = new AtomicLong();
+    private static final AtomicLong retries = new AtomicLong();
+    private static final AtomicLong throttled = new AtomicLong();
+    private static final AtomicLong failures = new AtomicLong();
+    private static final AtomicLong servedFromCache = new AtomicLong();
+    private static final AtomicLong breakerOpenings = new AtomicLong();
+
+    private WeatherApi() {
+    }
+
+    /**
+     * @throws StaleResponseException when only an older answer is available
+     */
+    public static JSONObject fetchJson(String url) throws IOException {
+        return new JSONObject(fetch(url));
+    }
+
+    /**
+     * Multi-location requests (comma-separated coordinates) answer with an array,
+     * a single location with an object; both come back as an array here
+     * @throws StaleResponseException when only an older answer is available
+     */
+    public static JSONArray fetchJsonArray(String url) throws IOException {
+        String body = fetch(url).trim();
+        if (body.startsWith("[")) {
+            return new JSONArray(body);
+        }
+        return new JSONArray().put(new JSONObject(body));
+    }
+
+    public static Metrics getMetrics() {
+        return new Metrics(requests.get(), retries.get(), throttled.get(), failures.get(),
+                servedFromCache.get(), breakerOpenings.get());
+    }
+
+    private static String fetch(String url) throws IOException {
+        requests.incrementAndGet();
+        Host host = hosts.computeIfAbsent(new URL(url).getHost(), Host::new);
+        if (!host.allowRequest()) {
+            return cachedOrThrow(url, "circuit open for " + host.name);
+        }
+
+        String error = null;
+        for (int attempt = 0; ; attempt++) {
+            if (!acquire(host)) {
+                throttled.incrementAndGet();
+                host.abandoned();
+                return cachedOrThrow(url, "request budget for " + host.name + " exhausted");
+            }
+            long retryAfterMs = 0;
+            int status = -1;
+            HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+            try {
+                conn.setRequestMethod("GET");
+                conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
+                conn.setReadTimeout(READ_TIMEOUT_MS);
+                status = conn.getResponseCode();
+                if (status == HttpURLConnection.HTTP_OK) {
+                    String body = read(conn);
+                    host.succeeded();
+                    synchronized (lastGood) {
+                        lastGood.put(url, new CachedResponse(body, System.currentTimeMillis()));
+                    }
+                    return body;
+                }
+                error = "HTTP " + status + " from " + host.name;
+                retryAfterMs = conn.getHeaderFieldLong("Retry-After", 0) * 1000;
+                if (retryAfterMs > MAX_RETRY_AFTER_MS) {
+                    error += ", asked to retry after " + retryAfterMs / 1000 + " s";
+                    break;
+                }
+            } catch (InterruptedIOException e) {
+                // Timeouts are worth another attempt; an interrupted thread is not
+                if (Thread.currentThread().isInterrupted()) {
+                    host.abandoned();
+                    throw e;
+                }
+                status = -1;
+                error = e.getMessage();
+            } catch (IOException e) {
+                status = -1;
+                error = e.getMessage();
+            } finally {
+                conn.disconnect();
+            }
+            if (status != -1 && status != 429 && status < 500) {
+                // The API answered; the request itself is wrong and retrying will not help
+                host.succeeded();
+                throw new IOException(error);
+            }
+
+            if (attempt == MAX_RETRIES) {
+                break;
+            }
+            retries.incrementAndGet();
+            sleep(host, Math.max(retryAfterMs, backoff(attempt)));
+        }
+        failures.incrementAndGet();
+        host.failed();
+        return cachedOrThrow(url, error);
+    }
+
+    private static String read(HttpURLConnection conn) throws IOException {
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
+            StringBuilder response = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null) {
+                response.append(line);
+            }
+            return response.toString();
+        }
+    }
+
+    /**
+     * Wait for a token of the host's bucket; false when none comes within the wait limit
+     */
+    private static boolean acquire(Host host) throws IOException {
+        long waited = 0;
+        while (true) {
+            long wait = host.tryAcquire();
+            if (wait == 0) {
+                return true;
+            }
+            if (waited + wait > MAX_TOKEN_WAIT_MS) {
+                return false;
+            }
+            sleep(host, wait);
+            waited += wait;
+        }
+    }
+
+    /**
+     * Between half and all of the exponential bound, so callers that failed together
+     * do not retry together
+     */
+    private static long backoff(int attempt) {
+        long bound = Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << attempt);
+        return ThreadLocalRandom.current().nextLong(bound / 2, bound + 1);
+    }
+
+    private static void sleep(Host host, long ms) throws IOException {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            host.abandoned();
+            throw new InterruptedIOException("interrupted while waiting for " + host.name);
+        }
+    }
+
+    private static String cachedOrThrow(String url, String reason) throws IOException {
+        CachedResponse cached;
+        synchronized (lastGood) {
+            cached = lastGood.get(url);
+        }
+        if (cached == null || System.currentTimeMillis() - cached.fetchedAt > MAX_STALE_MS) {
+            throw new IOException(reason);
+        }
+        servedFromCache.incrementAndGet();
+        throw new StaleResponseException(reason, cached.body, cached.fetchedAt);
+    }
+}
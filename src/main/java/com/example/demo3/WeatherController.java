@@ -3,14 +3,22 @@ package com.example.demo3;
 import javafx.animation.Timeline;
 import javafx.animation.KeyFrame;
 import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
+import javafx.geometry.Side;
+import javafx.scene.Node;
 import javafx.scene.chart.CategoryAxis;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
 
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Label;
+import javafx.scene.control.MenuItem;
 import javafx.scene.control.TextField;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.util.Duration;
@@ -18,13 +26,11 @@ import javafx.util.Duration;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Random;
 
@@ -82,6 +88,16 @@ public class WeatherController {
     @FXML
     private Label pressureLabel;
 
+    // Forecast chart series, kept for the life of the page and updated in place
+    private final XYChart.Series<String, Number> waveSeries = new XYChart.Series<>();
+    private final XYChart.Series<String, Number> rainSeries = new XYChart.Series<>();
+
+    // Trip planning across harbors
+    @FXML
+    private ComboBox<Integer> tripLengthCombo;
+    @FXML
+    private VBox tripPlanContainer;
+
     // Real-time update components
     private Timeline realTimeUpdater;
     private Timeline alertChecker;
@@ -89,10 +105,15 @@ public class WeatherController {
     private Label statusLabel;
     private VBox alertContainer;
 
-    // Weather thresholds for alerts
-    private static final double WAVE_ALERT_THRESHOLD = 3.0; // meters
-    private static final double RAIN_ALERT_THRESHOLD = 10.0; // mm
-    private static final double WIND_WAVE_ALERT_THRESHOLD = 2.5; // meters
+    private static final int TRIP_WINDOWS_SHOWN = 8;
+    private static final int TRIP_STRETCHES_SHOWN = 3;
+    private static final int LOCATION_SUGGESTIONS = 8;
+
+    // Location autocomplete
+    private final ContextMenu locationSuggestions = new ContextMenu();
+    private boolean updatingLocation;
+    // Incremented per API request so only the answer to the latest one is shown
+    private int weatherRequest;
 
     // Current weather data for real-time updates
     private double currentWaveHeight = 0.0;
@@ -124,11 +145,158 @@ public class WeatherController {
         // Create status label for real-time updates
         createStatusLabel();
 
+        setupForecastChart();
+
         // Get initial weather data
         getWeatherData();
 
         // Start real-time updates
         startRealTimeUpdates();
+
+        setupTripPlanner();
+
+        setupLocationSearch();
+    }
+
+    /**
+     * Series are added once; refreshes only change their points, without animation
+     */
+    private void setupForecastChart() {
+        waveSeries.setName("Wave Height (m)");
+        rainSeries.setName("Rainfall (mm)");
+        weatherChart.setAnimated(false);
+        xAxis.setAnimated(false);
+        yAxis.setAnimated(false);
+        weatherChart.setTitle("Wave & Rain Forecast");
+        weatherChart.getData().setAll(List.of(waveSeries, rainSeries));
+    }
+
+    /**
+     * Suggest places from the offline gazetteer while typing; Enter or a suggestion
+     * moves the forecast there
+     */
+    private void setupLocationSearch() {
+        if (searchLocationField == null) {
+            return;
+        }
+        searchLocationField.textProperty().addListener((obs, oldText, newText) -> {
+            if (!updatingLocation) {
+                showLocationSuggestions(newText);
+            }
+        });
+        searchLocationField.focusedProperty().addListener((obs, was, focused) -> {
+            if (!focused) {
+                locationSuggestions.hide();
+            }
+        });
+        searchLocationField.setOnAction(e -> {
+            Gazetteer.Place place = Gazetteer.getInstance().resolve(searchLocationField.getText());
+            if (place == null) {
+                List<Gazetteer.Place> matches = Gazetteer.getInstance().suggest(searchLocationField.getText(), 1);
+                place = matches.isEmpty() ? null : matches.get(0);
+            }
+            if (place != null) {
+                showPlace(place);
+                getWeatherData();
+            }
+        });
+    }
+
+    private void showLocationSuggestions(String text) {
+        List<Gazetteer.Place> places = Gazetteer.getInstance().suggest(text, LOCATION_SUGGESTIONS);
+        if (places.isEmpty()) {
+            locationSuggestions.hide();
+            return;
+        }
+        locationSuggestions.getItems().clear();
+        for (Gazetteer.Place place : places) {
+            MenuItem item = new MenuItem(place.getName() + "  (" + place.getType() + ")");
+            item.setOnAction(e -> {
+                showPlace(place);
+                getWeatherData();
+            });
+            locationSuggestions.getItems().add(item);
+        }
+        if (!locationSuggestions.isShowing() && searchLocationField.getScene() != null) {
+            locationSuggestions.show(searchLocationField, Side.BOTTOM, 0, 0);
+        }
+    }
+
+    private void showPlace(Gazetteer.Place place) {
+        updatingLocation = true;
+        try {
+            locationSuggestions.hide();
+            latitudeField.setText(String.format(Locale.ROOT, "%.4f", place.getLatitude()));
+            longitudeField.setText(String.format(Locale.ROOT, "%.4f", place.getLongitude()));
+            if (searchLocationField != null) {
+                searchLocationField.setText(place.getName() + ", Sri Lanka");
+            }
+        } finally {
+            updatingLocation = false;
+        }
+    }
+
+    /**
+     * Best windows along the whole coast, redrawn when the harbor forecasts refresh
+     */
+    private void setupTripPlanner() {
+        tripLengthCombo.getItems().addAll(4, 6, 8, 12, 24);
+        tripLengthCombo.setValue(8);
+        tripLengthCombo.setOnAction(e -> showTripWindows());
+
+        FxBatcher<Boolean> refreshes = new FxBatcher<>(batch -> showTripWindows());
+        Runnable unsubscribe = HarborForecasts.getInstance().addListener(() -> refreshes.add(Boolean.TRUE));
+        tripPlanContainer.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                unsubscribe.run();
+            }
+        });
+        showTripWindows();
+    }
+
+    private void showTripWindows() {
+        tripPlanContainer.getChildren().clear();
+        if (HarborForecasts.getInstance().getForecasts().isEmpty()) {
+            tripPlanContainer.getChildren().add(new Label("Harbor forecasts are loading..."));
+            return;
+        }
+        List<TripPlanner.TripWindow> windows = TripPlanner.getInstance().bestWindows(tripLengthCombo.getValue(), 2);
+        if (windows.isEmpty()) {
+            tripPlanContainer.getChildren().add(new Label("No safe window of this length in the next 7 days"));
+            return;
+        }
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("EEE dd MMM HH:mm");
+        for (TripPlanner.TripWindow window : windows.subList(0, Math.min(TRIP_WINDOWS_SHOWN, windows.size()))) {
+            String waves = Double.isNaN(window.getMeanWaveHeight()) ? ""
+                    : String.format(", waves %.1f m", window.getMeanWaveHeight());
+            String caution = window.getCautionHours() == 0 ? "all hours safe"
+                    : window.getCautionHours() + " caution hour" + (window.getCautionHours() == 1 ? "" : "s");
+            Label label = new Label(String.format("%s %s  %s - %s (%s%s)",
+                    window.getCautionHours() == 0 ? "✅" : "⚠️", window.getHarbor(),
+                    window.getStart().format(format),
+                    window.getStart().plusHours(window.getHours()).format(DateTimeFormatter.ofPattern("HH:mm")),
+                    caution, waves));
+            label.getStyleClass().add("trip-window");
+            tripPlanContainer.getChildren().add(label);
+        }
+
+        // How long a boat can stay out: the longest runs without a dangerous hour
+        List<TripPlanner.TripWindow> stretches = TripPlanner.getInstance()
+                .longestStretches(tripLengthCombo.getValue(), 1, TRIP_STRETCHES_SHOWN);
+        if (stretches.isEmpty()) {
+            return;
+        }
+        Label heading = new Label("Longest safe stretches");
+        heading.getStyleClass().add("trip-heading");
+        tripPlanContainer.getChildren().add(heading);
+        for (TripPlanner.TripWindow stretch : stretches) {
+            Label label = new Label(String.format("⛵ %s  %s - %s (%d h, %d caution)",
+                    stretch.getHarbor(), stretch.getStart().format(format),
+                    stretch.getStart().plusHours(stretch.getHours()).format(format),
+                    stretch.getHours(), stretch.getCautionHours()));
+            label.getStyleClass().add("trip-window");
+            tripPlanContainer.getChildren().add(label);
+        }
     }
 
     @FXML
@@ -136,44 +304,9 @@ public class WeatherController {
         javafx.scene.control.Button button = (javafx.scene.control.Button) event.getSource();
         String areaName = button.getText();
 
-        // Set coordinates based on fishing area
-        switch (areaName) {
-            case "Negombo":
-                latitudeField.setText("7.21");
-                longitudeField.setText("79.84");
-                if (searchLocationField != null)
-                    searchLocationField.setText("Negombo, Sri Lanka");
-                break;
-            case "Chilaw":
-                latitudeField.setText("7.58");
-                longitudeField.setText("79.80");
-                if (searchLocationField != null)
-                    searchLocationField.setText("Chilaw, Sri Lanka");
-                break;
-            case "Trincomalee":
-                latitudeField.setText("8.59");
-                longitudeField.setText("81.21");
-                if (searchLocationField != null)
-                    searchLocationField.setText("Trincomalee, Sri Lanka");
-                break;
-            case "Galle":
-                latitudeField.setText("6.03");
-                longitudeField.setText("80.22");
-                if (searchLocationField != null)
-                    searchLocationField.setText("Galle, Sri Lanka");
-                break;
-            case "Mirissa":
-                latitudeField.setText("5.95");
-                longitudeField.setText("80.46");
-                if (searchLocationField != null)
-                    searchLocationField.setText("Mirissa, Sri Lanka");
-                break;
-            case "Kalpitiya":
-                latitudeField.setText("8.23");
-                longitudeField.setText("79.77");
-                if (searchLocationField != null)
-                    searchLocationField.setText("Kalpitiya, Sri Lanka");
-                break;
+        Gazetteer.Place place = Gazetteer.getInstance().resolve(areaName);
+        if (place != null) {
+            showPlace(place);
         }
 
         // Update weather data for the selected area
@@ -189,6 +322,14 @@ public class WeatherController {
             double latitude = Double.parseDouble(lat);
             double longitude = Double.parseDouble(lon);
 
+            // Answer from the loaded forecast grid when it covers the point
+            JSONObject[] local = gridForecast(latitude, longitude);
+            if (local != null) {
+                weatherRequest++;
+                parseWeatherData(local[0], local[1]);
+                return;
+            }
+
             // Marine and Rain API URLs
             String marineUrl = String.format(
                     "https://marine-api.open-meteo.com/v1/marine?latitude=%.2f&longitude=%.2f&daily=wave_height_max,wind_wave_height_max&timezone=auto",
@@ -197,27 +338,91 @@ public class WeatherController {
                     "https://api.open-meteo.com/v1/forecast?latitude=%.2f&longitude=%.2f&daily=precipitation_sum&timezone=auto",
                     latitude, longitude);
 
-            // Fetch data
-            JSONObject marineJson = fetchJsonFromUrl(marineUrl);
-            JSONObject rainJson = fetchJsonFromUrl(rainUrl);
+            // Fetch off the FX thread; rate limiting and retries may wait several seconds
+            int request = ++weatherRequest;
+            Task<JSONObject[]> fetchTask = new Task<>() {
+                @Override
+                protected JSONObject[] call() throws Exception {
+                    return new JSONObject[]{fetchJsonFromUrl(marineUrl), fetchJsonFromUrl(rainUrl)};
+                }
+
+                @Override
+                protected void succeeded() {
+                    // A newer location may have been asked for in the meantime
+                    if (request == weatherRequest) {
+                        parseWeatherData(getValue()[0], getValue()[1]);
+                    }
+                }
 
-            parseWeatherData(marineJson, rainJson);
+                @Override
+                protected void failed() {
+                    showError("❌ API error:\n" + getException().getMessage());
+                }
+            };
+            Thread fetchThread = new Thread(fetchTask);
+            fetchThread.setDaemon(true);
+            fetchThread.start();
         } catch (Exception e) {
             showError("❌ API or input error:\n" + e.getMessage());
         }
     }
 
+    /**
+     * Daily summary at a point interpolated from ForecastGrid, in the same shape as the
+     * marine and rain API answers; null when the grid is not loaded or has no sea there
+     */
+    private JSONObject[] gridForecast(double latitude, double longitude) {
+        ForecastGrid grid = ForecastGrid.getInstance();
+        if (!grid.isLoaded() || !ForecastGrid.covers(latitude, longitude)) {
+            return null;
+        }
+        JSONArray dates = new JSONArray();
+        JSONArray waves = new JSONArray();
+        JSONArray windWaves = new JSONArray();
+        JSONArray rainfall = new JSONArray();
+        boolean anyWave = false;
+        for (int day = 0; (day + 1) * 24 <= grid.getHours(); day++) {
+            double maxWave = Double.NaN;
+            double maxWindWave = Double.NaN;
+            double rain = 0;
+            for (int h = day * 24; h < (day + 1) * 24; h++) {
+                maxWave = max(maxWave, grid.valueAt(SafetyRules.WAVE, h, latitude, longitude));
+                maxWindWave = max(maxWindWave, grid.valueAt(SafetyRules.WIND_WAVE, h, latitude, longitude));
+                double hourlyRain = grid.valueAt(SafetyRules.RAIN, h, latitude, longitude);
+                rain += Double.isNaN(hourlyRain) ? 0 : hourlyRain;
+            }
+            anyWave |= !Double.isNaN(maxWave);
+            dates.put(grid.getStart().toLocalDate().plusDays(day).toString());
+            waves.put(Double.isNaN(maxWave) ? 0 : maxWave);
+            windWaves.put(Double.isNaN(maxWindWave) ? 0 : maxWindWave);
+            rainfall.put(rain);
+        }
+        if (!anyWave) {
+            return null;
+        }
+        JSONObject marine = new JSONObject().put("daily", new JSONObject()
+                .put("time", dates).put("wave_height_max", waves).put("wind_wave_height_max", windWaves));
+        JSONObject rain = new JSONObject().put("daily", new JSONObject()
+                .put("time", dates).put("precipitation_sum", rainfall));
+        return new JSONObject[]{marine, rain};
+    }
+
+    private static double max(double current, double value) {
+        return Double.isNaN(current) ? value : Double.isNaN(value) ? current : Math.max(current, value);
+    }
+
+    /**
+     * Called off the FX thread. While the API is down an older answer is still shown, marked as such.
+     */
     private JSONObject fetchJsonFromUrl(String urlStr) throws Exception {
-        HttpURLConnection conn = (HttpURLConnection) new URL(urlStr).openConnection();
-        conn.setRequestMethod("GET");
-        BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-        StringBuilder response = new StringBuilder();
-        String line;
-        while ((line = in.readLine()) != null) {
-            response.append(line);
-        }
-        in.close();
-        return new JSONObject(response.toString());
+        try {
+            return WeatherApi.fetchJson(urlStr);
+        } catch (WeatherApi.StaleResponseException e) {
+            long minutes = (System.currentTimeMillis() - e.getFetchedAt()) / 60_000;
+            Platform.runLater(() -> updateStatusLabel("⚠️ Weather service unavailable, showing data from "
+                    + minutes + " min ago"));
+            return e.getJson();
+        }
     }
 
     private void parseWeatherData(JSONObject marine, JSONObject rain) {
@@ -235,35 +440,77 @@ public class WeatherController {
 
         System.out.println("Wave Days: " + dates.length() + ", Rain Days: " + rainDates.length());
 
-        cardContainer.getChildren().clear();
-        weatherChart.getData().clear();
-
-        Label title = new Label("📊 Weather Summary");
-        title.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
-
-        XYChart.Series<String, Number> waveSeries = new XYChart.Series<>();
-        waveSeries.setName("Wave Height (m)");
-
-        XYChart.Series<String, Number> rainSeries = new XYChart.Series<>();
-        rainSeries.setName("Rainfall (mm)");
-
-        for (int i = 0; i < dates.length(); i++) {
-            String date = dates.getString(i);
-            double wave = waves.getDouble(i);
-            double windWave = windWaves.getDouble(i);
-            double rainfall = rainMap.getOrDefault(date, 0.0);
+        int days = dates.length();
+        String[] dayDates = new String[days];
+        double[] dayWaves = new double[days];
+        double[] dayWindWaves = new double[days];
+        double[] dayRainfall = new double[days];
+        for (int i = 0; i < days; i++) {
+            dayDates[i] = dates.getString(i);
+            dayWaves[i] = waves.getDouble(i);
+            dayWindWaves[i] = windWaves.getDouble(i);
+            dayRainfall[i] = rainMap.getOrDefault(dayDates[i], 0.0);
+        }
+        showForecastDays(dayDates, dayWaves, dayWindWaves, dayRainfall);
+    }
 
-            Label label = new Label(String.format("📅 %s\n🌊 Wave: %.1f m\n💨 Wind Wave: %.1f m\n🌧 Rain: %.1f mm",
-                    date, wave, windWave, rainfall));
-            label.getStyleClass().add("weather-card");
-            cardContainer.getChildren().add(label);
+    /**
+     * Chart and cards are updated in place: days that rolled off the front are removed,
+     * values that changed are set, new days are appended. Nothing is rebuilt on a refresh
+     * that brings the same forecast.
+     */
+    private void showForecastDays(String[] dates, double[] waves, double[] windWaves, double[] rainfall) {
+        ObservableList<XYChart.Data<String, Number>> waveData = waveSeries.getData();
+        ObservableList<XYChart.Data<String, Number>> rainData = rainSeries.getData();
+        ObservableList<Node> cards = cardContainer.getChildren();
+
+        // Drop the days before the new first day (all of them when it is not shown yet)
+        int shift = waveData.size();
+        for (int i = 0; i < waveData.size() && dates.length > 0; i++) {
+            if (waveData.get(i).getXValue().equals(dates[0])) {
+                shift = i;
+                break;
+            }
+        }
+        removeDays(0, shift);
+
+        for (int i = 0; i < dates.length; i++) {
+            String text = String.format("📅 %s\n🌊 Wave: %.1f m\n💨 Wind Wave: %.1f m\n🌧 Rain: %.1f mm",
+                    dates[i], waves[i], windWaves[i], rainfall[i]);
+            if (i < waveData.size() && !waveData.get(i).getXValue().equals(dates[i])) {
+                // Shown days no longer line up; replace the rest
+                removeDays(i, waveData.size());
+            }
+            if (i < waveData.size()) {
+                setIfChanged(waveData.get(i), waves[i]);
+                setIfChanged(rainData.get(i), rainfall[i]);
+                Label card = (Label) cards.get(i);
+                if (!card.getText().equals(text)) {
+                    card.setText(text);
+                }
+            } else {
+                Label card = new Label(text);
+                card.getStyleClass().add("weather-card");
+                cards.add(card);
+                waveData.add(new XYChart.Data<>(dates[i], waves[i]));
+                rainData.add(new XYChart.Data<>(dates[i], rainfall[i]));
+            }
+        }
+        removeDays(dates.length, waveData.size());
+    }
 
-            waveSeries.getData().add(new XYChart.Data<>(date, wave));
-            rainSeries.getData().add(new XYChart.Data<>(date, rainfall));
+    private void removeDays(int from, int to) {
+        if (from < to) {
+            waveSeries.getData().remove(from, to);
+            rainSeries.getData().remove(from, to);
+            cardContainer.getChildren().remove(from, to);
         }
+    }
 
-        weatherChart.setTitle("Wave & Rain Forecast");
-        weatherChart.getData().addAll(waveSeries, rainSeries);
+    private static void setIfChanged(XYChart.Data<String, Number> point, double value) {
+        if (point.getYValue().doubleValue() != value) {
+            point.setYValue(value);
+        }
     }
 
     private void showError(String msg) {
@@ -398,17 +645,20 @@ public class WeatherController {
             safetyStatusLabel
                     .setText(isSafe ? "Safe for Fishing" : (alertLevel == 2 ? "Dangerous Conditions" : "Use Caution"));
         }
+        SafetyRules rules = SafetyRules.getInstance();
         if (waveConditionStatus != null) {
-            waveConditionStatus
-                    .setText(currentWaveHeight < 1.5 ? "Good" : currentWaveHeight < 2.5 ? "Moderate" : "Poor");
+            waveConditionStatus.setText(new String[]{"Good", "Moderate", "Poor"}
+                    [rules.inputLevel(SafetyRules.WAVE, currentWaveHeight)]);
         }
         if (windSpeedStatus != null) {
             int windSpeed = 8 + random.nextInt(20);
-            windSpeedStatus.setText(windSpeed < 15 ? "Safe" : windSpeed < 25 ? "Moderate" : "High");
+            windSpeedStatus.setText(new String[]{"Safe", "Moderate", "High"}
+                    [rules.inputLevel(SafetyRules.WIND, windSpeed)]);
         }
         if (visibilityStatus != null) {
             int visibility = 5 + random.nextInt(10);
-            visibilityStatus.setText(visibility > 8 ? "Excellent" : visibility > 5 ? "Good" : "Poor");
+            visibilityStatus.setText(new String[]{"Good", "Fair", "Poor"}
+                    [rules.inputLevel(SafetyRules.VISIBILITY, visibility)]);
         }
 
         // Update Bottom Metrics
@@ -438,9 +688,10 @@ public class WeatherController {
         Platform.runLater(() -> {
             boolean hasAlert = false;
             String alertMessage = "";
+            SafetyRules rules = SafetyRules.getInstance();
 
             // Check wave height alert
-            if (currentWaveHeight > WAVE_ALERT_THRESHOLD) {
+            if (rules.inputLevel(SafetyRules.WAVE, currentWaveHeight) == SafetyRules.DANGER) {
                 hasAlert = true;
                 alertMessage = "⚠️ HIGH WAVES: " + String.format("%.1fm", currentWaveHeight)
                         + " - Exercise extreme caution!";
@@ -448,7 +699,7 @@ public class WeatherController {
             }
 
             // Check rainfall alert
-            if (currentRainfall > RAIN_ALERT_THRESHOLD) {
+            if (rules.inputLevel(SafetyRules.RAIN, currentRainfall) == SafetyRules.DANGER) {
                 hasAlert = true;
                 alertMessage = "🌧️ HEAVY RAIN: " + String.format("%.1fmm", currentRainfall)
                         + " - Check equipment and visibility!";
@@ -456,7 +707,7 @@ public class WeatherController {
             }
 
             // Check wind wave alert
-            if (currentWindWave > WIND_WAVE_ALERT_THRESHOLD) {
+            if (rules.inputLevel(SafetyRules.WIND_WAVE, currentWindWave) == SafetyRules.DANGER) {
                 hasAlert = true;
                 alertMessage = "💨 STRONG WINDS: " + String.format("%.1fm", currentWindWave)
                         + " wind waves - Consider postponing trips!";
@@ -479,6 +730,7 @@ public class WeatherController {
     private void updateStatusLabel(String message) {
         if (statusLabel != null) {
             statusLabel.setText(message);
+            statusLabel.setTooltip(new Tooltip("Weather API: " + WeatherApi.getMetrics()));
         }
     }
 
@@ -494,24 +746,14 @@ public class WeatherController {
      * Check if current conditions are safe for fishing
      */
     public boolean isSafeForFishing() {
-        return currentWaveHeight < WAVE_ALERT_THRESHOLD &&
-                currentRainfall < RAIN_ALERT_THRESHOLD &&
-                currentWindWave < WIND_WAVE_ALERT_THRESHOLD;
+        return getWeatherAlertLevel() < SafetyRules.DANGER;
     }
 
     /**
      * Get weather alert level (0=safe, 1=caution, 2=danger)
      */
     public int getWeatherAlertLevel() {
-        if (currentWaveHeight > WAVE_ALERT_THRESHOLD ||
-                currentRainfall > RAIN_ALERT_THRESHOLD ||
-                currentWindWave > WIND_WAVE_ALERT_THRESHOLD) {
-            return 2; // Danger
-        } else if (currentWaveHeight > WAVE_ALERT_THRESHOLD * 0.7 ||
-                currentRainfall > RAIN_ALERT_THRESHOLD * 0.7 ||
-                currentWindWave > WIND_WAVE_ALERT_THRESHOLD * 0.7) {
-            return 1; // Caution
-        }
-        return 0; // Safe
+        return SafetyRules.getInstance().level(currentWaveHeight, Double.NaN, Double.NaN,
+                currentRainfall, currentWindWave);
     }
 }
@@ -51,7 +51,8 @@ public class WeatherData {
     
     // Calculate if conditions are safe for fishing
     private boolean calculateSafety() {
-        return waveHeight < 3.0 && windSpeed < 25.0 && visibility > 3.0;
+        return SafetyRules.getInstance().level(waveHeight, windSpeed, visibility, Double.NaN, Double.NaN)
+                < SafetyRules.DANGER;
     }
     
     // Getters and Setters
@@ -0,0 +1,639 @@
+package com.example.demo3;
+
+import Model.Dictionaries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * History of the harbor forecasts in memory-mapped files, kept at three resolutions:
+ * <ul>
+ * <li>snapshots: every hourly forecast as fetched, one file per day, kept for a few days</li>
+ * <li>hourly: per past hour the latest forecast for that hour (the best estimate of what
+ * happened) and the one issued a day ahead, one file per month, kept for 13 months</li>
+ * <li>daily: minimum, mean and maximum per day, one file per year, kept for good</li>
+ * </ul>
+ * Snapshots are compacted into the hourly and daily files after each fetch. Records are in
+ * time order, so a query is a binary search followed by a sequential read of mapped pages.
+ * Locations are harbor ids of {@link Dictionaries}; values are indexed by SafetyRules input.
+ * All access is synchronized on the instance, so a mapping can be unmapped before its file
+ * is truncated or deleted without a reader still on its pages.
+ */
+public class WeatherHistory {
+
+    private static final WeatherHistory INSTANCE = new WeatherHistory();
+
+    public static final int MIN = 0;
+    public static final int MEAN = 1;
+    public static final int MAX = 2;
+
+    /** Issue hour, target hour, location, one float per input */
+    private static final int SNAPSHOT_RECORD = 12 + 4 * SafetyRules.INPUT_COUNT;
+    /** Hour, location, latest and day-ahead value per input */
+    private static final int HOURLY_RECORD = 8 + 8 * SafetyRules.INPUT_COUNT;
+    /** Day, location, min, mean and max per input */
+    private static final int DAILY_RECORD = 8 + 12 * SafetyRules.INPUT_COUNT;
+
+    private static final int SNAPSHOT_RETENTION_DAYS = 3;
+    private static final int HOURLY_RETENTION_MONTHS = 13;
+    private static final int DAY_AHEAD_HOURS = 24;
+
+    private static final String SNAPSHOT_SUFFIX = ".snapshots";
+    private static final String HOURLY_SUFFIX = ".hourly";
+    private static final String DAILY_SUFFIX = ".daily";
+
+    /**
+     * A mapped file and the length it was mapped at
+     */
+    private static class Partition {
+        final MappedByteBuffer buffer;
+        final long size;
+        final int recordSize;
+
+        Partition(MappedByteBuffer buffer, long size, int recordSize) {
+            this.buffer = buffer;
+            this.size = size;
+            this.recordSize = recordSize;
+        }
+
+        int count() {
+            return (int) (size / recordSize);
+        }
+
+        /** First field of a record: the time it is sorted by */
+        int time(int index) {
+            return buffer.getInt(index * recordSize);
+        }
+
+        /** Index of the first record at or after the given time */
+        int lowerBound(int time) {
+            int low = 0;
+            int high = count();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (time(mid) < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private final Path dir;
+    private final Map<Path, Partition> partitions = new HashMap<>();
+    private ScheduledExecutorService executor;
+    private Runnable unsubscribe;
+
+    private WeatherHistory() {
+        dir = Paths.get(System.getProperty("fisheries.weatherHistoryDir",
+                System.getProperty("user.home") + "/FisheriesData/weather_history"));
+    }
+
+    public static WeatherHistory getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Record every harbor forecast HarborForecasts loads and compact after each one
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "weather-history");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ScheduledExecutorService writer = executor;
+        unsubscribe = HarborForecasts.getInstance().addListener(() -> {
+            List<HarborForecasts.Forecast> forecasts = HarborForecasts.getInstance().getForecasts();
+            writer.execute(() -> {
+                append(forecasts, HarborForecasts.now());
+                compact(HarborForecasts.now());
+            });
+        });
+        executor.schedule(() -> compact(HarborForecasts.now()), 1, TimeUnit.MINUTES);
+    }
+
+    public synchronized void stop() {
+        if (unsubscribe != null) {
+            unsubscribe.run();
+            unsubscribe = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * Latest known value per hour of one input at a harbor, NaN for hours without history
+     */
+    public double[] hourly(String harbor, int input, LocalDateTime from, int hours) {
+        return hourly(harbor, input, from, hours, false);
+    }
+
+    /**
+     * What was forecast a day ahead for each hour, to compare against {@link #hourly}
+     */
+    public double[] dayAhead(String harbor, int input, LocalDateTime from, int hours) {
+        return hourly(harbor, input, from, hours, true);
+    }
+
+    /**
+     * Mean absolute difference between the day-ahead forecast and the latest value,
+     * over the hours that have both; NaN when none do
+     */
+    public double dayAheadError(String harbor, int input, LocalDateTime from, int hours) {
+        double[] actual = hourly(harbor, input, from, hours, false);
+        double[] forecast = hourly(harbor, input, from, hours, true);
+        double sum = 0;
+        int count = 0;
+        for (int h = 0; h < hours; h++) {
+            if (!Double.isNaN(actual[h]) && !Double.isNaN(forecast[h])) {
+                sum += Math.abs(forecast[h] - actual[h]);
+                count++;
+            }
+        }
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * MIN, MEAN or MAX of one input per day between two dates (inclusive), NaN on days without history
+     */
+    public double[] daily(String harbor, int input, int stat, LocalDate from, LocalDate to) {
+        int firstDay = (int) from.toEpochDay();
+        int lastDay = (int) to.toEpochDay();
+        double[] values = new double[lastDay - firstDay + 1];
+        Arrays.fill(values, Double.NaN);
+        int location = Dictionaries.harbors().find(harbor);
+        if (location < 0) {
+            return values;
+        }
+        int field = 8 + (input * 3 + stat) * 4;
+        synchronized (this) {
+            for (int year = from.getYear(); year <= to.getYear(); year++) {
+                Partition partition = mapped(dailyFile(year), DAILY_RECORD);
+                if (partition == null) {
+                    continue;
+                }
+                for (int i = partition.lowerBound(firstDay); i < partition.count(); i++) {
+                    int offset = i * DAILY_RECORD;
+                    int day = partition.buffer.getInt(offset);
+                    if (day > lastDay) {
+                        break;
+                    }
+                    if (partition.buffer.getInt(offset + 4) == location) {
+                        values[day - firstDay] = partition.buffer.getFloat(offset + field);
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    private double[] hourly(String harbor, int input, LocalDateTime from, int hours, boolean dayAhead) {
+        double[] values = new double[hours];
+        Arrays.fill(values, Double.NaN);
+        int location = Dictionaries.harbors().find(harbor);
+        if (location < 0 || hours <= 0) {
+            return values;
+        }
+        int firstHour = epochHour(from);
+        int endHour = firstHour + hours;
+        int field = 8 + ((dayAhead ? SafetyRules.INPUT_COUNT : 0) + input) * 4;
+        YearMonth last = YearMonth.from(from.plusHours(hours - 1));
+        synchronized (this) {
+            for (YearMonth month = YearMonth.from(from); !month.isAfter(last); month = month.plusMonths(1)) {
+                Partition partition = mapped(hourlyFile(month), HOURLY_RECORD);
+                if (partition == null) {
+                    continue;
+                }
+                MappedByteBuffer buffer = partition.buffer;
+                for (int i = partition.lowerBound(firstHour); i < partition.count(); i++) {
+                    int offset = i * HOURLY_RECORD;
+                    int hour = buffer.getInt(offset);
+                    if (hour >= endHour) {
+                        break;
+                    }
+                    if (buffer.getInt(offset + 4) == location) {
+                        values[hour - firstHour] = buffer.getFloat(offset + field);
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Append one fetch of the harbor forecasts to the snapshot file of the day it was made
+     */
+    synchronized void append(List<HarborForecasts.Forecast> forecasts, LocalDateTime now) {
+        int issueHour = epochHour(now);
+        int records = 0;
+        for (HarborForecasts.Forecast forecast : forecasts) {
+            records += forecast.getHours();
+        }
+        if (records == 0) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(records * SNAPSHOT_RECORD).order(ByteOrder.LITTLE_ENDIAN);
+        for (HarborForecasts.Forecast forecast : forecasts) {
+            int location = Dictionaries.harbors().idOf(forecast.getHarbor().getName());
+            int startHour = epochHour(forecast.getStart());
+            double[][] columns = forecast.getColumns();
+            for (int h = 0; h < forecast.getHours(); h++) {
+                buffer.putInt(issueHour).putInt(startHour + h).putInt(location);
+                for (int input = 0; input < SafetyRules.INPUT_COUNT; input++) {
+                    buffer.putFloat((float) columns[input][h]);
+                }
+            }
+        }
+        try {
+            Files.createDirectories(dir);
+            buffer.flip();
+            write(snapshotFile(now.toLocalDate()), buffer);
+        } catch (IOException e) {
+            System.out.println("Weather snapshot not recorded: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Roll snapshots up into closed hours and closed hours into days, then drop what is
+     * past retention. The newest hour and day written are recomputed each time, so an
+     * interrupted compaction never leaves them half done.
+     */
+    synchronized void compact(LocalDateTime now) {
+        long start = System.currentTimeMillis();
+        try {
+            Files.createDirectories(dir);
+            int hours = compactHours(epochHour(now));
+            int days = compactDays((int) now.toLocalDate().toEpochDay());
+            deleteExpired(now.toLocalDate());
+            if (hours > 0 || days > 0) {
+                System.out.println(String.format("Weather history: %,d hourly and %,d daily records in %d ms",
+                        hours, days, System.currentTimeMillis() - start));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Weather history compaction failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hourly records for the hours before the current one that snapshots cover
+     */
+    private int compactHours(int currentHour) throws IOException {
+        List<LocalDate> snapshotDays = new ArrayList<>();
+        for (String name : names(SNAPSHOT_SUFFIX)) {
+            snapshotDays.add(LocalDate.parse(name));
+        }
+        if (snapshotDays.isEmpty()) {
+            return 0;
+        }
+        snapshotDays.sort(null);
+        Partition oldest = mapped(snapshotFile(snapshotDays.get(0)), SNAPSHOT_RECORD);
+        if (oldest == null || oldest.count() == 0) {
+            return 0;
+        }
+        // Hours from the oldest issue a day ahead have both values in the snapshots
+        int firstIssue = oldest.time(0);
+        int firstHour = Math.max(firstIssue, truncateNewest(HOURLY_SUFFIX, firstIssue + DAY_AHEAD_HOURS));
+        int hours = currentHour - firstHour;
+        if (hours <= 0) {
+            return 0;
+        }
+
+        // Per hour and location, the latest issue at or before the hour and at least a day before it
+        int locations = Dictionaries.harbors().size();
+        int cells = hours * locations;
+        int[] latestIssue = new int[cells];
+        int[] aheadIssue = new int[cells];
+        Arrays.fill(latestIssue, Integer.MIN_VALUE);
+        Arrays.fill(aheadIssue, Integer.MIN_VALUE);
+        float[] latest = new float[cells * SafetyRules.INPUT_COUNT];
+        float[] ahead = new float[cells * SafetyRules.INPUT_COUNT];
+        Arrays.fill(ahead, Float.NaN);
+
+        for (LocalDate day : snapshotDays) {
+            Partition partition = mapped(snapshotFile(day), SNAPSHOT_RECORD);
+            if (partition == null) {
+                continue;
+            }
+            MappedByteBuffer buffer = partition.buffer;
+            for (int i = 0; i < partition.count(); i++) {
+                int offset = i * SNAPSHOT_RECORD;
+                int issue = buffer.getInt(offset);
+                int hour = buffer.getInt(offset + 4);
+                int location = buffer.getInt(offset + 8);
+                if (hour < firstHour || hour >= currentHour || issue > hour || location >= locations) {
+                    continue;
+                }
+                int cell = (hour - firstHour) * locations + location;
+                if (issue > latestIssue[cell]) {
+                    latestIssue[cell] = issue;
+                    readValues(buffer, offset + 12, latest, cell);
+                }
+                if (issue <= hour - DAY_AHEAD_HOURS && issue > aheadIssue[cell]) {
+                    aheadIssue[cell] = issue;
+                    readValues(buffer, offset + 12, ahead, cell);
+                }
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(cells * HOURLY_RECORD).order(ByteOrder.LITTLE_ENDIAN);
+        YearMonth month = null;
+        int written = 0;
+        for (int h = 0; h < hours; h++) {
+            YearMonth hourMonth = YearMonth.from(timeOf(firstHour + h));
+            if (!hourMonth.equals(month)) {
+                flush(month == null ? null : hourlyFile(month), buffer);
+                month = hourMonth;
+            }
+            for (int location = 0; location < locations; location++) {
+                int cell = h * locations + location;
+                if (latestIssue[cell] == Integer.MIN_VALUE) {
+                    continue;
+                }
+                buffer.putInt(firstHour + h).putInt(location);
+                for (int input = 0; input < SafetyRules.INPUT_COUNT; input++) {
+                    buffer.putFloat(latest[cell * SafetyRules.INPUT_COUNT + input]);
+                }
+                for (int input = 0; input < SafetyRules.INPUT_COUNT; input++) {
+                    buffer.putFloat(ahead[cell * SafetyRules.INPUT_COUNT + input]);
+                }
+                written++;
+            }
+        }
+        flush(month == null ? null : hourlyFile(month), buffer);
+        return written;
+    }
+
+    /**
+     * Daily records for the days before today that hourly records cover
+     */
+    private int compactDays(int today) throws IOException {
+        List<String> months = names(HOURLY_SUFFIX);
+        if (months.isEmpty()) {
+            return 0;
+        }
+        months.sort(null);
+        Partition oldest = mapped(hourlyFile(YearMonth.parse(months.get(0))), HOURLY_RECORD);
+        if (oldest == null || oldest.count() == 0) {
+            return 0;
+        }
+        // Hourly months expire whole, so days from the oldest hour on can be recomputed
+        int firstCoveredDay = Math.floorDiv(oldest.time(0), 24);
+        int firstDay = Math.max(firstCoveredDay, truncateNewest(DAILY_SUFFIX, firstCoveredDay));
+        int days = today - firstDay;
+        if (days <= 0) {
+            return 0;
+        }
+
+        int locations = Dictionaries.harbors().size();
+        int cells = days * locations * SafetyRules.INPUT_COUNT;
+        float[] min = new float[cells];
+        float[] max = new float[cells];
+        double[] sum = new double[cells];
+        int[] count = new int[cells];
+        Arrays.fill(min, Float.POSITIVE_INFINITY);
+        Arrays.fill(max, Float.NEGATIVE_INFINITY);
+
+        int firstHour = firstDay * 24;
+        int endHour = today * 24;
+        LocalDate lastDay = LocalDate.ofEpochDay(today - 1);
+        for (YearMonth month = YearMonth.from(LocalDate.ofEpochDay(firstDay));
+             !month.isAfter(YearMonth.from(lastDay)); month = month.plusMonths(1)) {
+            Partition partition = mapped(hourlyFile(month), HOURLY_RECORD);
+            if (partition == null) {
+                continue;
+            }
+            MappedByteBuffer buffer = partition.buffer;
+            for (int i = partition.lowerBound(firstHour); i < partition.count(); i++) {
+                int offset = i * HOURLY_RECORD;
+                int hour = buffer.getInt(offset);
+                if (hour >= endHour) {
+                    break;
+                }
+                int location = buffer.getInt(offset + 4);
+                if (location >= locations) {
+                    continue;
+                }
+                int base = ((hour / 24 - firstDay) * locations + location) * SafetyRules.INPUT_COUNT;
+                for (int input = 0; input < SafetyRules.INPUT_COUNT; input++) {
+                    float value = buffer.getFloat(offset + 8 + input * 4);
+                    if (!Float.isNaN(value)) {
+                        min[base + input] = Math.min(min[base + input], value);
+                        max[base + input] = Math.max(max[base + input], value);
+                        sum[base + input] += value;
+                        count[base + input]++;
+                    }
+                }
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(days * locations * DAILY_RECORD).order(ByteOrder.LITTLE_ENDIAN);
+        int year = Integer.MIN_VALUE;
+        int written = 0;
+        for (int d = 0; d < days; d++) {
+            int dayYear = LocalDate.ofEpochDay(firstDay + d).getYear();
+            if (dayYear != year) {
+                flush(year == Integer.MIN_VALUE ? null : dailyFile(year), buffer);
+                year = dayYear;
+            }
+            for (int location = 0; location < locations; location++) {
+                int base = (d * locations + location) * SafetyRules.INPUT_COUNT;
+                boolean any = false;
+                for (int input = 0; input < SafetyRules.INPUT_COUNT; input++) {
+                    any |= count[base + input] > 0;
+                }
+                if (!any) {
+                    continue;
+                }
+                buffer.putInt(firstDay + d).putInt(location);
+                for (int input = 0; input < SafetyRules.INPUT_COUNT; input++) {
+                    int n = count[base + input];
+                    buffer.putFloat(n == 0 ? Float.NaN : min[base + input]);
+                    buffer.putFloat(n == 0 ? Float.NaN : (float) (sum[base + input] / n));
+                    buffer.putFloat(n == 0 ? Float.NaN : max[base + input]);
+                }
+                written++;
+            }
+        }
+        flush(year == Integer.MIN_VALUE ? null : dailyFile(year), buffer);
+        return written;
+    }
+
+    private static void readValues(MappedByteBuffer buffer, int offset, float[] target, int cell) {
+        for (int input = 0; input < SafetyRules.INPUT_COUNT; input++) {
+            target[cell * SafetyRules.INPUT_COUNT + input] = buffer.getFloat(offset + input * 4);
+        }
+    }
+
+    /**
+     * Return the first time of a tier to write again: the newest time written, after dropping
+     * its records, when the source tier still covers it (coveredFrom on), otherwise the time
+     * after it so records that can no longer be recomputed are kept. Integer.MIN_VALUE when
+     * the tier is empty.
+     */
+    private int truncateNewest(String suffix, int coveredFrom) throws IOException {
+        List<String> names = names(suffix);
+        names.sort(null);
+        for (int n = names.size() - 1; n >= 0; n--) {
+            Path file = dir.resolve(names.get(n) + suffix);
+            int recordSize = HOURLY_SUFFIX.equals(suffix) ? HOURLY_RECORD : DAILY_RECORD;
+            Partition partition = mapped(file, recordSize);
+            int count = partition == null ? 0 : partition.count();
+            if (count == 0) {
+                delete(file);
+                continue;
+            }
+            int newest = partition.time(count - 1);
+            if (newest < coveredFrom) {
+                return newest + 1;
+            }
+            int keep = partition.lowerBound(newest);
+            unmap(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate((long) keep * recordSize);
+            }
+            return newest;
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    private void deleteExpired(LocalDate today) throws IOException {
+        LocalDate oldestSnapshot = today.minusDays(SNAPSHOT_RETENTION_DAYS);
+        for (String name : names(SNAPSHOT_SUFFIX)) {
+            if (LocalDate.parse(name).isBefore(oldestSnapshot)) {
+                delete(dir.resolve(name + SNAPSHOT_SUFFIX));
+            }
+        }
+        YearMonth oldestMonth = YearMonth.from(today).minusMonths(HOURLY_RETENTION_MONTHS - 1);
+        for (String name : names(HOURLY_SUFFIX)) {
+            if (YearMonth.parse(name).isBefore(oldestMonth)) {
+                delete(dir.resolve(name + HOURLY_SUFFIX));
+            }
+        }
+    }
+
+    private void delete(Path file) throws IOException {
+        unmap(file);
+        Files.deleteIfExists(file);
+    }
+
+    private void unmap(Path file) {
+        Partition partition = partitions.remove(file);
+        if (partition != null) {
+            MappedFiles.unmap(partition.buffer);
+        }
+    }
+
+    private void flush(Path file, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        if (file != null && buffer.hasRemaining()) {
+            write(file, buffer);
+        }
+        buffer.clear();
+    }
+
+    private void write(Path file, ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        unmap(file);
+    }
+
+    /**
+     * Names of the files of one tier without the suffix
+     */
+    private List<String> names(String suffix) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            List<String> names = new ArrayList<>();
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(suffix))
+                    .forEach(name -> names.add(name.substring(0, name.length() - suffix.length())));
+            return names;
+        }
+    }
+
+    /**
+     * Mapped view of a file, remapped when it has grown; null when it does not exist or is unreadable
+     */
+    private Partition mapped(Path file, int recordSize) {
+        try {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            long size = Files.size(file) / recordSize * recordSize;
+            Partition partition = partitions.get(file);
+            if (partition == null || partition.size != size) {
+                unmap(file);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    buffer.order(ByteOrder.LITTLE_ENDIAN);
+                    partition = new Partition(buffer, size, recordSize);
+                }
+                partitions.put(file, partition);
+            }
+            return partition;
+        } catch (IOException e) {
+            System.out.println("Weather history file " + file.getFileName() + " unreadable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Path snapshotFile(LocalDate day) {
+        return dir.resolve(day + SNAPSHOT_SUFFIX);
+    }
+
+    private Path hourlyFile(YearMonth month) {
+        return dir.resolve(month + HOURLY_SUFFIX);
+    }
+
+    private Path dailyFile(int year) {
+        return dir.resolve(Year.of(year) + DAILY_SUFFIX);
+    }
+
+    /**
+     * Hours since the epoch of a local (Asia/Colombo) time, as the forecasts use
+     */
+    private static int epochHour(LocalDateTime time) {
+        return (int) (time.truncatedTo(ChronoUnit.HOURS).toEpochSecond(ZoneOffset.UTC) / 3600);
+    }
+
+    private static LocalDateTime timeOf(int epochHour) {
+        return LocalDateTime.ofEpochSecond(epochHour * 3600L, 0, ZoneOffset.UTC);
+    }
+}
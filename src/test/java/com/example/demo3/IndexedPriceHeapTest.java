@@ -0,0 +1,96 @@
+package com.example.demo3;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Random put/remove sequences checked against a sorted reference after every step
+ */
+class IndexedPriceHeapTest {
+
+    @Test
+    void maxHeapTracksHighestPrice() {
+        randomSteps(true, new Random(11));
+    }
+
+    @Test
+    void minHeapTracksLowestPrice() {
+        randomSteps(false, new Random(12));
+    }
+
+    @Test
+    void drainsInSortedOrder() {
+        Random random = new Random(13);
+        IndexedPriceHeap heap = new IndexedPriceHeap(true);
+        List<Double> reference = new ArrayList<>();
+        for (int id = 0; id < 1000; id++) {
+            double price = random.nextInt(5000) / 10.0;
+            heap.put(id, "fish", "harbor", price);
+            reference.add(price);
+        }
+        reference.sort(Collections.reverseOrder());
+        for (double expected : reference) {
+            IndexedPriceHeap.Entry top = heap.peek();
+            assertEquals(expected, top.getPrice());
+            heap.remove(top.getId());
+        }
+        assertNull(heap.peek());
+    }
+
+    @Test
+    void copyIsIndependent() {
+        IndexedPriceHeap heap = new IndexedPriceHeap(true);
+        heap.put(1, "Tuna", "Galle", 500);
+        heap.put(2, "Salmon", "Negombo", 700);
+        IndexedPriceHeap copy = new IndexedPriceHeap(heap);
+
+        heap.put(2, "Salmon", "Negombo", 100);
+        heap.remove(1);
+
+        assertEquals(2, copy.size());
+        assertEquals(700, copy.peek().getPrice());
+        assertTrue(copy.contains(1));
+        assertFalse(heap.contains(1));
+        assertEquals(100, heap.peek().getPrice());
+    }
+
+    private static void randomSteps(boolean maxHeap, Random random) {
+        IndexedPriceHeap heap = new IndexedPriceHeap(maxHeap);
+        Map<Integer, Double> reference = new HashMap<>();
+        for (int step = 0; step < 20_000; step++) {
+            int id = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                heap.remove(id);
+                reference.remove(id);
+            } else {
+                double price = random.nextInt(100_000) / 100.0;
+                heap.put(id, "fish" + id, "harbor", price);
+                reference.put(id, price);
+            }
+
+            assertEquals(reference.size(), heap.size(), "size at step " + step);
+            assertEquals(reference.containsKey(id), heap.contains(id), "contains at step " + step);
+            if (reference.isEmpty()) {
+                assertNull(heap.peek());
+            } else {
+                List<Double> sorted = new ArrayList<>(reference.values());
+                Collections.sort(sorted);
+                double expected = maxHeap ? sorted.get(sorted.size() - 1) : sorted.get(0);
+                IndexedPriceHeap.Entry top = heap.peek();
+                assertEquals(expected, top.getPrice(), "top at step " + step);
+                assertEquals(expected, reference.get(top.getId()), "top id at step " + step);
+            }
+        }
+    }
+}
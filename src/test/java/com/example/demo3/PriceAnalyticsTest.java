@@ -0,0 +1,96 @@
+package com.example.demo3;
+
+import Model.Dictionaries;
+import Model.FishPrice;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A summary kept live with add/remove must answer exactly like one rebuilt from the remaining rows
+ */
+class PriceAnalyticsTest {
+
+    private static final String[] SPECIES = {"Tuna", "Salmon", "Mackerel", "Sardine", "Prawn"};
+    private static final String[] HARBORS = {"Galle", "Negombo", "Beruwala", "Mirissa"};
+
+    @BeforeAll
+    static void registerNames() {
+        for (String species : SPECIES) {
+            Dictionaries.species().idOf(species);
+        }
+        for (String harbor : HARBORS) {
+            Dictionaries.harbors().idOf(harbor);
+        }
+    }
+
+    @Test
+    void removeMatchesRebuiltSummary() {
+        Random random = new Random(31);
+        PriceAnalytics.Summary live = new PriceAnalytics.Summary();
+        Map<Integer, FishPrice> rows = new HashMap<>();
+        for (int step = 0; step < 20_000; step++) {
+            int id = random.nextInt(300);
+            FishPrice old = rows.remove(id);
+            if (old != null) {
+                live.remove(old);
+            }
+            if (random.nextInt(4) > 0) {
+                FishPrice row = new FishPrice(id, SPECIES[random.nextInt(SPECIES.length)], "",
+                        100 + random.nextInt(900), HARBORS[random.nextInt(HARBORS.length)], "",
+                        LocalDate.now(), "");
+                rows.put(id, row);
+                live.add(row);
+            }
+            if (step % 1000 == 999) {
+                assertSameAnswers(PriceAnalytics.summarize(rows.values()), live, step);
+            }
+        }
+    }
+
+    @Test
+    void removingEveryRowEmptiesTheSummary() {
+        PriceAnalytics.Summary live = new PriceAnalytics.Summary();
+        FishPrice tuna = new FishPrice(1, "Tuna", "", 800, "Galle", "", LocalDate.now(), "");
+        FishPrice prawn = new FishPrice(2, "Prawn", "", 1200, "Mirissa", "", LocalDate.now(), "");
+        live.add(tuna);
+        live.add(prawn);
+        live.remove(tuna);
+        live.remove(prawn);
+        live.remove(prawn);
+
+        assertEquals(0, live.getCount());
+        assertEquals(0, live.getSpecies().size());
+        assertEquals(0, live.topSpecies(3).size());
+    }
+
+    private static void assertSameAnswers(PriceAnalytics.Summary expected, PriceAnalytics.Summary actual, int step) {
+        String at = " at step " + step;
+        assertEquals(expected.getCount(), actual.getCount(), "count" + at);
+        assertEquals(expected.getSpecies(), actual.getSpecies(), "species" + at);
+        assertEquals(describe(expected.topSpecies(10)), describe(actual.topSpecies(10)), "top species" + at);
+        for (double q : new double[]{0.1, 0.5, 0.9}) {
+            assertEquals(expected.percentile(q), actual.percentile(q), "percentile " + q + at);
+        }
+        for (String species : expected.getSpecies()) {
+            assertEquals(describe(expected.cheapestHarbors(species, 3)), describe(actual.cheapestHarbors(species, 3)),
+                    "cheapest harbors for " + species + at);
+            assertEquals(expected.percentile(species, 0.5), actual.percentile(species, 0.5),
+                    "median of " + species + at);
+        }
+    }
+
+    private static String describe(Iterable<PriceAnalytics.Ranked> ranked) {
+        StringBuilder text = new StringBuilder();
+        for (PriceAnalytics.Ranked entry : ranked) {
+            text.append(entry.getName()).append('=').append(entry.getPrice()).append(' ');
+        }
+        return text.toString();
+    }
+}
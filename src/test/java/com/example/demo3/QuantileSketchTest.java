@@ -0,0 +1,101 @@
+package com.example.demo3;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sketch quantiles against exact percentiles: every answer must be within the 1% relative accuracy
+ */
+class QuantileSketchTest {
+
+    private static final double[] QUANTILES = {0.0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1.0};
+    private static final double ACCURACY = 0.01;
+
+    @Test
+    void addedValues() {
+        Random random = new Random(21);
+        QuantileSketch sketch = new QuantileSketch();
+        List<Double> values = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            double price = randomPrice(random);
+            sketch.add(price);
+            values.add(price);
+        }
+        assertQuantiles(values, sketch);
+    }
+
+    @Test
+    void removedValues() {
+        Random random = new Random(22);
+        QuantileSketch sketch = new QuantileSketch();
+        List<Double> values = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            double price = randomPrice(random);
+            sketch.add(price);
+            values.add(price);
+        }
+        Collections.shuffle(values, random);
+        for (double price : new ArrayList<>(values.subList(0, 30_000))) {
+            sketch.remove(price);
+        }
+        values = new ArrayList<>(values.subList(30_000, values.size()));
+        assertQuantiles(values, sketch);
+    }
+
+    @Test
+    void mergedSketches() {
+        Random random = new Random(23);
+        QuantileSketch cheap = new QuantileSketch();
+        QuantileSketch dear = new QuantileSketch();
+        List<Double> values = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            double low = randomPrice(random);
+            double high = randomPrice(random) * 40;
+            cheap.add(low);
+            dear.add(high);
+            values.add(low);
+            values.add(high);
+        }
+        cheap.merge(dear);
+        assertQuantiles(values, cheap);
+    }
+
+    @Test
+    void zeroPricesAndEmptySketch() {
+        QuantileSketch sketch = new QuantileSketch();
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        sketch.add(0);
+        sketch.add(0);
+        sketch.add(250);
+        assertEquals(0.0, sketch.quantile(0.5));
+        sketch.remove(0);
+        sketch.remove(0);
+        assertEquals(1, sketch.getCount());
+        assertEquals(250, sketch.quantile(0.5), 250 * ACCURACY);
+    }
+
+    /**
+     * Skewed like market prices: mostly a few hundred rupees with a long tail
+     */
+    private static double randomPrice(Random random) {
+        return Math.round(Math.exp(5.5 + random.nextGaussian()) * 100) / 100.0 + 1;
+    }
+
+    private static void assertQuantiles(List<Double> values, QuantileSketch sketch) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        assertEquals(sorted.size(), sketch.getCount());
+        for (double q : QUANTILES) {
+            double exact = sorted.get((int) (q * (sorted.size() - 1)));
+            double estimate = sketch.quantile(q);
+            assertEquals(exact, estimate, exact * ACCURACY + 1e-9, "quantile " + q);
+        }
+    }
+}
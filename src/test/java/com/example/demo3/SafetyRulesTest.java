@@ -0,0 +1,76 @@
+package com.example.demo3;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Batch evaluation against the per-point rules, and the Vector API kernel against the scalar loop.
+ * Surefire runs this class twice: with jdk.incubator.vector in the boot layer and without it.
+ */
+class SafetyRulesTest {
+
+    private static final int POINTS = 100_000;
+
+    @Test
+    void scalarBatchMatchesPointLevels() {
+        SafetyRules rules = SafetyRules.getInstance();
+        double[][] columns = randomGrid(new Random(7));
+        byte[] levels = new byte[POINTS];
+        rules.evaluateScalar(columns, POINTS, levels);
+
+        double[] point = new double[SafetyRules.INPUT_COUNT];
+        for (int i = 0; i < POINTS; i++) {
+            for (int input = 0; input < SafetyRules.INPUT_COUNT; input++) {
+                point[input] = columns[input] == null ? Double.NaN : columns[input][i];
+            }
+            assertEquals(rules.level(point), levels[i], "point " + i);
+        }
+    }
+
+    @Test
+    void vectorMatchesScalar() {
+        assumeTrue(SafetyRules.VECTORIZED, "jdk.incubator.vector is not in the boot layer");
+        SafetyRules rules = SafetyRules.getInstance();
+        double[][] columns = randomGrid(new Random(42));
+        byte[] scalar = new byte[POINTS];
+        byte[] vector = new byte[POINTS];
+        rules.evaluateScalar(columns, POINTS, scalar);
+        rules.evaluateVector(columns, POINTS, vector);
+        assertArrayEquals(scalar, vector);
+    }
+
+    @Test
+    void evaluateMatchesScalarOnEitherPath() {
+        SafetyRules rules = SafetyRules.getInstance();
+        double[][] columns = randomGrid(new Random(3));
+        byte[] scalar = new byte[POINTS];
+        byte[] levels = new byte[POINTS];
+        rules.evaluateScalar(columns, POINTS, scalar);
+        rules.evaluate(columns, POINTS, levels);
+        assertArrayEquals(scalar, levels);
+    }
+
+    /**
+     * Values spread across every limit, about 5% NaN, and no visibility column at all
+     */
+    private static double[][] randomGrid(Random random) {
+        double[][] columns = new double[SafetyRules.INPUT_COUNT][];
+        double[] scales = {4.0, 35.0, 12.0, 15.0, 3.5};
+        for (int input = 0; input < SafetyRules.INPUT_COUNT; input++) {
+            if (input == SafetyRules.VISIBILITY) {
+                continue;
+            }
+            double[] column = new double[POINTS];
+            for (int i = 0; i < POINTS; i++) {
+                column[i] = random.nextInt(20) == 0 ? Double.NaN : random.nextDouble() * scales[input];
+            }
+            columns[input] = column;
+        }
+        return columns;
+    }
+}